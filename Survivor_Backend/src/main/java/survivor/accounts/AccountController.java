@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import survivor.characters.CharacterCatalog;
 import survivor.characters.GameCharacterRepository;
 import survivor.characters.UserCharacterUnlock;
 import survivor.characters.UserCharacterUnlockRepository;
@@ -33,7 +34,9 @@ public class AccountController {
     private final AccountRepository accountRepository;
     private final UserProgressRepository progressRepository;
     private final GameCharacterRepository characterRepository;
+    private final CharacterCatalog characterCatalog;
     private final UserCharacterUnlockRepository unlockRepository;
+    private final AccountTokens tokens;
 
     // -------- SIGNUP --------
     @PostMapping("/signup")
@@ -70,15 +73,15 @@ public class AccountController {
         }
 
         // Grant base character
-        characterRepository.findByCodeIgnoreCase("WANDERER").ifPresent(wanderer ->
+        characterCatalog.byCode("WANDERER").ifPresent(wanderer ->
         {
             boolean alreadyGranted =
-                    unlockRepository.existsByAccount_IdAndCharacter_Id(saved.getId(), wanderer.getId());
+                    unlockRepository.existsByAccount_IdAndCharacter_Id(saved.getId(), wanderer.characterId());
             if (!alreadyGranted)
             {
                 unlockRepository.save(UserCharacterUnlock.builder()
                         .account(saved)
-                        .character(wanderer)
+                        .character(characterRepository.getReferenceById(wanderer.characterId()))
                         .unlockedAt(LocalDateTime.now())
                         .build());
             }
@@ -125,7 +128,8 @@ public class AccountController {
         return ResponseEntity.ok(Map.of(
                 "id", found.getId(),
                 "email", found.getEmail(),
-                "username", found.getUsername()
+                "username", found.getUsername(),
+                "token", tokens.issue(found.getId()) // proves the account on the WebSocket channels
         ));
     }
 
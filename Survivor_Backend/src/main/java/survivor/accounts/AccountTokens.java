@@ -0,0 +1,98 @@
+package survivor.accounts;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.OptionalInt;
+
+/**
+ * Signed, expiring tokens proving which account a client logged in as. Issued by /accounts/login and
+ * presented on the WebSocket channels, which have no HTTP session: the STOMP CONNECT header "token" and
+ * /ws/game?token=...
+ *
+ * - Format: {accountId}.{expiresAtEpochSecond}.{base64url HMAC-SHA256 of the first two parts}, checked
+ *   without a database lookup.
+ * - With auth.token.secret unset a random key is made at startup, so tokens stop working after a
+ *   restart and clients log in again.
+ */
+@Component
+public class AccountTokens
+{
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AccountTokens(@Value("${auth.token.secret:}") String secret,
+                         @Value("${auth.token.ttlHours:24}") long ttlHours)
+    {
+        this(secret, Duration.ofHours(ttlHours), Clock.systemUTC());
+    }
+
+    AccountTokens(String secret, Duration ttl, Clock clock)
+    {
+        byte[] bytes;
+        if (secret == null || secret.isBlank()) {
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public String issue(int accountId)
+    {
+        String payload = accountId + "." + clock.instant().plus(ttl).getEpochSecond();
+        return payload + "." + sign(payload);
+    }
+
+    /** The account a token was issued to; empty if it's malformed, forged or expired. */
+    public OptionalInt verify(String token)
+    {
+        if (token == null) return OptionalInt.empty();
+        int sig = token.lastIndexOf('.');
+        int dot = token.indexOf('.');
+        if (dot <= 0 || sig <= dot) return OptionalInt.empty();
+
+        String payload = token.substring(0, sig);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] given = token.substring(sig + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, given)) return OptionalInt.empty();
+
+        try {
+            int accountId = Integer.parseInt(payload.substring(0, dot));
+            long expiresAt = Long.parseLong(payload.substring(dot + 1));
+            if (clock.instant().getEpochSecond() >= expiresAt) return OptionalInt.empty();
+            return OptionalInt.of(accountId);
+        } catch (NumberFormatException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    private String sign(String payload)
+    {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] h = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(h);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " unavailable", e);
+        }
+    }
+}
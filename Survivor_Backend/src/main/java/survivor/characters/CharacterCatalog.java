@@ -0,0 +1,136 @@
+package survivor.characters;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable, versioned in-memory copy of the character table, so lobby, match start, purchase and the
+ * /characters endpoints never query it.
+ *
+ * - Each Version is built once and never changed: the characters sorted by id, plus lookups by upper-cased
+ *   code and by id. Readers take current() and keep using that one version.
+ * - Refreshed after CharacterSeedRunner seeds, and every characters.catalog.refreshMs to pick up rows
+ *   changed in the database directly, on its own "character-catalog" thread: the shared @Scheduled thread
+ *   runs TickService.tickAll, which must never wait on this query. The version number and ETag only change
+ *   when the content does.
+ * - The ETag is a SHA-256 of the content, so it is the same across restarts (unlike the version number)
+ *   and two different tables don't share one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CharacterCatalog
+{
+    public record Version(long version, String etag, List<CharacterResponseDTO> all,
+                          Map<String, CharacterResponseDTO> byCode, Map<Integer, CharacterResponseDTO> byId) {}
+
+    private final GameCharacterRepository repo;
+
+    @Value("${characters.catalog.refreshMs:60000}") private long refreshMs;
+
+    private volatile Version current;
+    private ScheduledExecutorService refresher;
+
+    public Version current()
+    {
+        Version v = current;
+        return v != null ? v : refresh();
+    }
+
+    public List<CharacterResponseDTO> all()
+    {
+        return current().all();
+    }
+
+    /** Case-insensitive; surrounding whitespace ignored. */
+    public Optional<CharacterResponseDTO> byCode(String code)
+    {
+        if (code == null) return Optional.empty();
+        return Optional.ofNullable(current().byCode().get(code.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    public Optional<CharacterResponseDTO> byId(Integer id)
+    {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    @PostConstruct
+    void start()
+    {
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "character-catalog");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::scheduledRefresh, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        if (refresher != null) refresher.shutdownNow();
+    }
+
+    void scheduledRefresh()
+    {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep serving the current version and keep the schedule alive; the next run tries again
+            log.warn("Character catalog refresh failed", e);
+        }
+    }
+
+    /** Reload from the database; returns the (possibly unchanged) current version. */
+    public synchronized Version refresh()
+    {
+        List<CharacterResponseDTO> all = repo.findAllByOrderByIdAsc().stream()
+                .map(CharacterResponseDTO::from)
+                .toList();
+        Version old = current;
+        if (old != null && old.all().equals(all)) return old;
+
+        Map<String, CharacterResponseDTO> byCode = new HashMap<>();
+        Map<Integer, CharacterResponseDTO> byId = new HashMap<>();
+        for (CharacterResponseDTO c : all) {
+            byCode.put(c.code().toUpperCase(Locale.ROOT), c);
+            byId.put(c.characterId(), c);
+        }
+        Version v = new Version(old == null ? 1 : old.version() + 1, etag(all), all, Map.copyOf(byCode), Map.copyOf(byId));
+        current = v;
+        return v;
+    }
+
+    /** Strong ETag from the content (record toString uses enum names, so it's stable across restarts). */
+    private static String etag(List<CharacterResponseDTO> all)
+    {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (CharacterResponseDTO c : all) {
+                sha.update(c.toString().getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) '\n');   // record boundary
+            }
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(sha.digest()) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
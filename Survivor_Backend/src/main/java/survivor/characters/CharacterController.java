@@ -3,6 +3,7 @@ package survivor.characters;
 import lombok.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import survivor.accounts.AccountRepository;
 import survivor.exceptions.NotFoundException;
 
@@ -17,22 +18,24 @@ public class CharacterController
 {
 
     private final AccountRepository accountRepository;
-    private final GameCharacterRepository characters;
+    private final CharacterCatalog catalog;
     private final UserCharacterUnlockRepository unlockRepo;
     private final CharacterPurchaseService purchaseSvc;
 
-    private static final Comparator<GameCharacter> SHOP_ORDER =
-            Comparator.comparingInt(GameCharacter::getCost)
-                    .thenComparingInt(GameCharacter::getId);
+    private static final Comparator<CharacterResponseDTO> CATALOG_SHOP_ORDER =
+            Comparator.comparingInt(CharacterResponseDTO::cost)
+                    .thenComparingInt(CharacterResponseDTO::characterId);
 
-    //-----Full catalog sorted by id-----
+    //-----Full catalog sorted by id (from memory; ETag = catalog content, 304 when unchanged)-----
     @GetMapping("/characters")
-    public ResponseEntity<?> listCharacters()
+    public ResponseEntity<?> listCharacters(WebRequest request)
     {
-        var dto = characters.findAllByOrderByIdAsc().stream()
-                .map(CharacterResponseDTO::from)
-                .toList();
-        return ResponseEntity.ok(dto);
+        var catalogVersion = catalog.current();
+        if (request.checkNotModified(catalogVersion.etag()))
+        {
+            return null; // 304 already written
+        }
+        return ResponseEntity.ok().eTag(catalogVersion.etag()).body(catalogVersion.all());
     }
 
     //-----Shop (unowned) sorted by cost, then id-----
@@ -44,15 +47,12 @@ public class CharacterController
             throw new NotFoundException("Account not found");
         }
 
-        var ownedIds = unlockRepo.findAllByAccount_Id(accountId).stream()
-                .map(u -> u.getCharacter().getId())
-                .collect(java.util.stream.Collectors.toSet());
+        var ownedIds = new HashSet<>(unlockRepo.findCharacterIdsByAccount_Id(accountId));
 
-        var purchasable = characters.findAll().stream()
-                .filter(c -> c.getCost() > 0)
-                .filter(c -> !ownedIds.contains(c.getId()))
-                .sorted(SHOP_ORDER)
-                .map(CharacterResponseDTO::from)
+        var purchasable = catalog.all().stream()
+                .filter(c -> c.cost() > 0)
+                .filter(c -> !ownedIds.contains(c.characterId()))
+                .sorted(CATALOG_SHOP_ORDER)
                 .toList();
 
         return ResponseEntity.ok(purchasable);
@@ -62,9 +62,9 @@ public class CharacterController
     @GetMapping("/characters/{id}")
     public ResponseEntity<?> getCharacter(@PathVariable Integer id)
     {
-        var c = characters.findById(id)
+        var c = catalog.byId(id)
                 .orElseThrow(() -> new NotFoundException("Character not found"));
-        return ResponseEntity.ok(CharacterResponseDTO.from(c));
+        return ResponseEntity.ok(c);
     }
 
     //-----Owned list (sorted same as shop)-----
@@ -76,9 +76,11 @@ public class CharacterController
             throw new NotFoundException("Account not found");
         }
 
-        var owned = unlockRepo.findAllByAccount_Id(accountId).stream()
-                .map(UserCharacterUnlock::getCharacter)
-                .sorted(SHOP_ORDER)
+        // owned ids from the database, the characters themselves from the catalog in memory
+        var owned = unlockRepo.findCharacterIdsByAccount_Id(accountId).stream()
+                .map(catalog::byId)
+                .flatMap(Optional::stream)
+                .sorted(CATALOG_SHOP_ORDER)
                 .map(OwnedCharacterDTO::from)
                 .toList();
 
@@ -3,6 +3,7 @@ package survivor.characters;
 import lombok.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import survivor.accounts.AccountRepository;
 import survivor.exceptions.BadRequestException;
 import survivor.exceptions.ConflictException;
 import survivor.exceptions.NotFoundException;
@@ -14,24 +15,25 @@ import java.time.LocalDateTime;
  * Server-authoritative purchase flow:
  * - verify character exists
  * - check if already owned
- * - verify coin balance (from user_progress)
- * - deduct coins and insert ownership atomically
+ * - deduct coins (conditional UPDATE, never below zero) and insert ownership atomically
  */
 @Service
 @RequiredArgsConstructor
 public class CharacterPurchaseService
 {
     private final GameCharacterRepository charRepo;
+    private final CharacterCatalog catalog;
     private final UserCharacterUnlockRepository unlockRepo;
     private final UserProgressRepository progressRepo;
+    private final AccountRepository accountRepo;
 
     @Transactional
     public PurchaseResult purchase(Integer accountId, Integer characterId)
     {
-        var character = charRepo.findById(characterId)
+        var character = catalog.byId(characterId)
                 .orElseThrow(() -> new NotFoundException("Character not found"));
 
-        if (character.getCost() == 0)
+        if (character.cost() == 0)
         {
             throw new BadRequestException("Base character is already owned by default");
         }
@@ -41,24 +43,25 @@ public class CharacterPurchaseService
             throw new ConflictException("Already owned");
         }
 
-        var progress = progressRepo.findByAccount_Id(accountId)
-                .orElseThrow(() -> new NotFoundException("Progress not found"));
-
-        if (progress.getCoins() < character.getCost())
+        // Conditional debit in SQL: two purchases (or a purchase and a match end) can't both spend the same coins.
+        // A failed unlock insert below (e.g. a concurrent purchase of the same character) rolls the debit back.
+        if (progressRepo.debitCoins(accountId, character.cost(), LocalDateTime.now()) == 0)
         {
+            if (!progressRepo.existsByAccount_Id(accountId))
+            {
+                throw new NotFoundException("Progress not found");
+            }
             throw new BadRequestException("Not enough coins");
         }
 
-        progress.setCoins(progress.getCoins() - character.getCost());
-        progressRepo.save(progress);
-
         unlockRepo.save(UserCharacterUnlock.builder()
-                .account(progress.getAccount())
-                .character(character)
+                .account(accountRepo.getReferenceById(accountId))
+                .character(charRepo.getReferenceById(characterId))
                 .unlockedAt(LocalDateTime.now())
                 .build());
 
-        return PurchaseResult.success(character.getId(), progress.getCoins());
+        int balance = progressRepo.findCoinsByAccount_Id(accountId).orElse(0);
+        return PurchaseResult.success(character.characterId(), balance);
     }
 
     // ----- Result -----
@@ -22,6 +22,7 @@ public class CharacterSeedRunner implements CommandLineRunner
 {
 
     private final GameCharacterRepository repo;
+    private final CharacterCatalog catalog;
 
     @Override
     @Transactional
@@ -47,6 +48,9 @@ public class CharacterSeedRunner implements CommandLineRunner
 
         upsert(GameCharacter.builder().code("WARLOCK").name("Warlock").cost(100)
                 .health(233).moveSpeed(25).attackSpeed(30).damageMult(45).critChance(20).attackStyle(AttackStyle.AOE).rangeUnits(2).build());
+
+        // Serve the seeded catalog from memory from now on
+        catalog.refresh();
     }
 
     private void upsert(GameCharacter spec)
@@ -17,4 +17,9 @@ public record OwnedCharacterDTO(
     {
         return new OwnedCharacterDTO(c.getId(), c.getCode(), c.getName());
     }
+
+    public static OwnedCharacterDTO from(CharacterResponseDTO c)
+    {
+        return new OwnedCharacterDTO(c.characterId(), c.code(), c.name());
+    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package survivor.characters;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 /**
@@ -15,6 +17,10 @@ public interface UserCharacterUnlockRepository extends JpaRepository<UserCharact
     @EntityGraph(attributePaths = "character")
     List<UserCharacterUnlock> findAllByAccount_Id(Integer accountId);
 
+    // ids only: the characters themselves come from CharacterCatalog
+    @Query("select u.character.id from UserCharacterUnlock u where u.account.id = :accountId")
+    List<Integer> findCharacterIdsByAccount_Id(@Param("accountId") Integer accountId);
+
     void deleteAllByAccount_Id(Integer accountId);
     List<UserCharacterUnlock> findAllByAccount_IdOrderByCharacter_IdAsc(Integer accountId);
 }
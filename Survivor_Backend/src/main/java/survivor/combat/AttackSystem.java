@@ -1,6 +1,8 @@
 package survivor.combat;
 
+import survivor.model.EnemyStore;
 import survivor.shared.AttackStyle;
+import survivor.shared.IntList;
 import java.util.*;
 import java.util.SplittableRandom;
 
@@ -29,16 +31,24 @@ public final class AttackSystem {
 
     private static final SplittableRandom RNG = new SplittableRandom();
 
-    public static List<Hit> resolveAuto(
-            Collection<? extends PlayerView> players,
-            List<? extends EnemyView> enemies,
-            int tilePx
+    /**
+     * Resolve player auto-attacks for one fixed step, appending player -> enemy hits to `out`.
+     * @param grid      enemy grid rebuilt at current positions, or null to scan every enemy
+     * @param dtSeconds fixed step length (drives orbit rotation)
+     * @param now       simulation time in ms (drives attack cooldowns)
+     */
+    public static void resolveAuto(
+            List<? extends PlayerView> players,
+            EnemyStore enemies,
+            SpatialGrid grid,
+            int tilePx,
+            double dtSeconds,
+            long now,
+            HitBuffer out
     ) {
-        long now = System.currentTimeMillis();
-        List<Hit> out = new ArrayList<>();
-
-        for (var p : players)
+        for (int pi = 0; pi < players.size(); pi++)
         {
+            var p = players.get(pi);
             if (p.isDead()) continue;
 
             var style = p.effectiveStyle();
@@ -54,12 +64,17 @@ public final class AttackSystem {
                     int dmg = (int)Math.round(Formulas.damage(p.stats(), BASE_AOE_DAMAGE));
                     if (Formulas.crit(p.stats(), RNG)) dmg = (int)Math.round(dmg * 1.5);
 
-                    for (var e : enemies)
+                    double px = p.pos().x(), py = p.pos().y(), r2 = rPx * rPx;
+                    IntList near = (grid == null) ? null : grid.query(px, py, rPx);
+                    int n = (near == null) ? enemies.size() : near.size();
+                    for (int k = 0; k < n; k++)
                     {
-                        if (e.isDead()) continue;
-                        if (dist(p.pos(), e.pos()) <= rPx)
+                        int i = (near == null) ? k : near.get(k);
+                        if (enemies.isDead(i)) continue;
+                        double dx = enemies.x(i) - px, dy = enemies.y(i) - py;
+                        if (dx * dx + dy * dy <= r2)
                         {
-                            out.add(new Hit(p.id(), e.id(), dmg, true));
+                            out.add(p.id(), enemies.id(i), dmg);
                         }
                     }
                 }
@@ -77,12 +92,16 @@ public final class AttackSystem {
                     int dmg = (int)Math.round(Formulas.damage(p.stats(), BASE_CONE_DAMAGE));
                     if (Formulas.crit(p.stats(), RNG)) dmg = (int)Math.round(dmg * 1.5);
 
-                    for (var e : enemies)
+                    double px = p.pos().x(), py = p.pos().y(), cosHalf = Math.cos(halfArc);
+                    IntList near = (grid == null) ? null : grid.query(px, py, lenPx);
+                    int n = (near == null) ? enemies.size() : near.size();
+                    for (int k = 0; k < n; k++)
                     {
-                        if (e.isDead()) continue;
-                        if (Cone.contains(p.pos(), aim, e.pos(), lenPx, halfArc))
+                        int i = (near == null) ? k : near.get(k);
+                        if (enemies.isDead(i)) continue;
+                        if (Cone.contains(px, py, aim.x(), aim.y(), enemies.x(i), enemies.y(i), lenPx, cosHalf))
                         {
-                            out.add(new Hit(p.id(), e.id(), dmg, true));
+                            out.add(p.id(), enemies.id(i), dmg);
                         }
                     }
                 }
@@ -91,54 +110,54 @@ public final class AttackSystem {
                     // Update orbit angle based on rotation speed
                     // Rotation speed scales with attack speed stat
                     double rotationSpeed = BASE_ORBIT_ROTATION_SPEED * (0.8 + 0.01 * p.stats().attackSpeed());
-                    double deltaTime = 1.0 / 20.0;  // Assuming 20 ticks per second
-                    double newAngle = p.orbitAngle() + rotationSpeed * deltaTime;
+                    double newAngle = p.orbitAngle() + rotationSpeed * dtSeconds;
                     // Keep angle in [0, 2π) range
                     if (newAngle >= 2 * Math.PI) newAngle -= 2 * Math.PI;
                     p.setOrbitAngle(newAngle);
 
                     // Calculate orb position
                     double orbitRadiusPx = BASE_ORBIT_RADIUS_TILES * tilePx * Formulas.rangeFactor(p.stats());
-                    Vec2 orbPos = new Vec2(
-                            p.pos().x() + Math.cos(newAngle) * orbitRadiusPx,
-                            p.pos().y() + Math.sin(newAngle) * orbitRadiusPx
-                    );
+                    double orbX = p.pos().x() + Math.cos(newAngle) * orbitRadiusPx;
+                    double orbY = p.pos().y() + Math.sin(newAngle) * orbitRadiusPx;
 
                     // Orb hitbox radius (small orb)
                     double orbRadiusPx = 8.0;
 
-                    // Check collision with enemies
-                    for (var e : enemies)
+                    // Check collision with enemies near the orb (padded by the largest enemy radius)
+                    IntList near = (grid == null) ? null
+                            : grid.query(orbX, orbY, orbRadiusPx + grid.maxRadiusPx());
+                    int n = (near == null) ? enemies.size() : near.size();
+                    for (int k = 0; k < n; k++)
                     {
-                        if (e.isDead()) continue;
+                        int i = (near == null) ? k : near.get(k);
+                        if (enemies.isDead(i)) continue;
 
                         // Check if enemy is in contact with orb
-                        double distToOrb = dist(orbPos, e.pos());
-                        double contactDist = orbRadiusPx + e.radiusPx();
+                        double dx = enemies.x(i) - orbX, dy = enemies.y(i) - orbY;
+                        double contactDist = orbRadiusPx + enemies.radiusPx(i);
 
-                        if (distToOrb <= contactDist)
+                        if (dx * dx + dy * dy <= contactDist * contactDist)
                         {
                             // Check cooldown for this specific enemy
-                            long lastHit = p.getOrbitLastHitTime(e.id());
+                            int enemyId = enemies.id(i);
+                            long lastHit = p.getOrbitLastHitTime(enemyId);
                             if (now - lastHit >= ORBIT_HIT_COOLDOWN_MS)
                             {
                                 int dmg = (int)Math.round(Formulas.damage(p.stats(), BASE_ORBIT_DAMAGE));
                                 if (Formulas.crit(p.stats(), RNG)) dmg = (int)Math.round(dmg * 1.5);
 
-                                out.add(new Hit(p.id(), e.id(), dmg, true));
-                                p.setOrbitLastHitTime(e.id(), now);
+                                out.add(p.id(), enemyId, dmg);
+                                p.setOrbitLastHitTime(enemyId, now);
                             }
                         }
                     }
                 }
             }
         }
-        return out;
     }
 
-    private static double dist(Vec2 a, Vec2 b) { return Math.hypot(a.x() - b.x(), a.y() - b.y()); }
-
     // Minimal views to decouple AttackSystem from your concrete PlayerState/EnemyState
+    // (enemies are resolved from EnemyStore; EnemyView remains for standalone EnemyState use)
     public interface PlayerView
     {
         int id();
@@ -165,6 +184,7 @@ public final class AttackSystem {
         double radiusPx();  // Added for orbit collision detection
     }
 
+    // Object form of one HitBuffer entry (CombatResolve's list overload, tests)
     public record Hit(int attackerId, int targetId, int damage, boolean playerToEnemy) {}
 }
 
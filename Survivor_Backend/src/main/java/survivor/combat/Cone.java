@@ -12,10 +12,17 @@ public final class Cone
     public static boolean contains(Vec2 attacker, Vec2 aim, Vec2 target,
                                    double lengthPx, double halfAngleRad)
     {
-        Vec2 d = new Vec2(target.x() - attacker.x(), target.y() - attacker.y());
-        double L = d.len();
+        return contains(attacker.x(), attacker.y(), aim.x(), aim.y(), target.x(), target.y(),
+                        lengthPx, Math.cos(halfAngleRad));
+    }
+
+    /** Allocation-free form for hot loops; aim must be normalized, cosHalfAngle = cos(halfAngleRad) */
+    public static boolean contains(double ax, double ay, double aimX, double aimY,
+                                   double tx, double ty, double lengthPx, double cosHalfAngle)
+    {
+        double dx = tx - ax, dy = ty - ay;
+        double L = Math.hypot(dx, dy);
         if (L <= 0.0001 || L > lengthPx) return false;
-        Vec2 dir = new Vec2(d.x() / L, d.y() / L);
-        return Vec2.dot(aim, dir) >= Math.cos(halfAngleRad);
+        return aimX * (dx / L) + aimY * (dy / L) >= cosHalfAngle;
     }
 }
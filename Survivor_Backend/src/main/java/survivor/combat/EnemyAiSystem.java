@@ -3,6 +3,7 @@ package survivor.combat;
 import java.util.*;
 import java.util.SplittableRandom;
 
+import survivor.model.EnemyStore;
 import survivor.model.EnemyType; // enum: BUMPER, SWIPER
 
 /**
@@ -13,89 +14,122 @@ public final class EnemyAiSystem {
 
     private static final SplittableRandom RNG = new SplittableRandom();
 
-    /** Wake/sleep by distance to the nearest player */
+    /**
+     * Wake/sleep by distance to the nearest player.
+     * One pass per enemy finds its nearest player and squared distance; the result is kept in
+     * `nearest` so tick() can target without searching again. Dead enemies are skipped.
+     */
     public static void gateActivity(
-            List<? extends EnemyGate> enemies,
-            Collection<? extends PlayerPos> players,
-            double rWakePx, double rSleepPx
+            EnemyStore enemies,
+            List<? extends PlayerActor> players,
+            double rWakePx, double rSleepPx,
+            NearestPlayers nearest
     )
     {
-        for (var e : enemies)
+        double wake2 = rWakePx * rWakePx, sleep2 = rSleepPx * rSleepPx;
+        int playerCount = players.size();
+        nearest.reset(enemies.size());
+
+        for (int i = 0, n = enemies.size(); i < n; i++)
         {
-            double d = players.stream().mapToDouble(p -> dist(e.pos(), p.pos())).min().orElse(Double.MAX_VALUE);
-            if (!e.active() && d <= rWakePx) e.setActive(true);
-            if ( e.active() && d >= rSleepPx) e.setActive(false);
+            if (enemies.isDead(i)) continue;
+
+            double ex = enemies.x(i), ey = enemies.y(i);
+            PlayerActor best = null;
+            double bestD2 = Double.MAX_VALUE;
+            for (int j = 0; j < playerCount; j++)
+            {
+                var p = players.get(j);
+                double dx = p.pos().x() - ex, dy = p.pos().y() - ey;
+                double d2 = dx*dx + dy*dy;
+                if (d2 < bestD2) { bestD2 = d2; best = p; }
+            }
+            nearest.set(i, best, bestD2);
+
+            boolean active = enemies.isActive(i);
+            if (!active && bestD2 <= wake2) active = true;
+            else if (active && bestD2 >= sleep2) active = false;
+            enemies.setActive(i, active);
+            if (active && best != null) nearest.markAwake(i);
         }
     }
 
     /**
      * Enemy AI step.
-     * Returns enemy→player hits using shared cone logic (SWIPER) and contact overlap (BUMPER).
+     * Appends enemy→player hits to `out` using shared cone logic (SWIPER) and contact overlap (BUMPER).
      * Fairness: only attack if target is within player's visibility (≤ fairnessLightPx).
+     * Cooldowns are measured against `now`, the match's simulation time in ms.
+     * Only the enemies gateActivity() left awake are visited, each against its nearest player.
      */
-    public static List<AttackSystem.Hit> tick(
-            List<? extends EnemyActor> enemies,
-            Collection<? extends PlayerActor> players,
+    public static void tick(
+            EnemyStore enemies,
+            NearestPlayers nearest,
             double fairnessLightPx,
-            int tilePx
+            int tilePx,
+            long now,
+            HitBuffer out
     )
     {
-        long now = System.currentTimeMillis();
-        List<AttackSystem.Hit> out = new ArrayList<>();
+        double fair = fairnessLightPx + 8;
+        double fair2 = fair * fair;
 
-        for (var e : enemies)
+        var awake = nearest.awake();
+        for (int k = 0; k < awake.size(); k++)
         {
-            if (!e.active() || e.isDead()) continue;
-
-            var target = nearest(players, e.pos());
+            int i = awake.get(k);
+            var target = nearest.player(i);
+            double ex = enemies.x(i), ey = enemies.y(i);
+            double tx = target.pos().x(), ty = target.pos().y();
             // steer toward target; replace with richer physics if desired
-            e.seek(target.pos());
+            enemies.seek(i, tx, ty);
 
             // fairness guard: don't start/commit attacks from out of sight
-            if (dist(e.pos(), target.pos()) > fairnessLightPx + 8) continue;
+            if (nearest.distSq(i) > fair2) continue;
 
-            switch (e.type())
+            Stats st = enemies.stats(i);
+            switch (enemies.type(i))
             {
                 case BUMPER ->
                 {
                     // simple contact DPS every ~300 ms (scaled by attackSpeed)
-                    int intervalMs = Math.max(200, 600 - e.stats().attackSpeed() * 5);
-                    if (now - e.lastContactAt() >= intervalMs &&
-                            circlesOverlap(e.pos(), e.radiusPx(), target.pos(), target.radiusPx()))
+                    int intervalMs = Math.max(200, 600 - st.attackSpeed() * 5);
+                    if (now - enemies.lastContactAt(i) >= intervalMs &&
+                            circlesOverlap(ex, ey, enemies.radiusPx(i), tx, ty, target.radiusPx()))
                     {
 
-                        int dmg = (int)Math.round(Formulas.damage(e.stats(), 6.0));
-                        if (RNG.nextDouble() < (e.stats().critChance() / 100.0)) dmg = (int)Math.round(dmg * 1.5);
+                        int dmg = (int)Math.round(Formulas.damage(st, 6.0));
+                        if (RNG.nextDouble() < (st.critChance() / 100.0)) dmg = (int)Math.round(dmg * 1.5);
 
-                        out.add(new AttackSystem.Hit(e.id(), target.id(), dmg, false));
-                        e.setLastContactAt(now);
+                        out.add(enemies.id(i), target.id(), dmg);
+                        enemies.setLastContactAt(i, now);
                     }
                 }
                 case SWIPER ->
                 {
                     // cone swipe (shared math with players)
-                    int iv = Formulas.intervalMs(e.stats(), 1.2);
-                    if (now - e.lastAttackAt() < iv) break;
-                    e.setLastAttackAt(now);
+                    int iv = Formulas.intervalMs(st, 1.2);
+                    if (now - enemies.lastAttackAt(i) < iv) break;
+                    enemies.setLastAttackAt(i, now);
 
-                    var aim     = dir(e.pos(), target.pos());
-                    double len  = 2.0 * tilePx * Formulas.rangeFactor(e.stats());
-                    double half = Math.toRadians(60.0) * (0.9 + 0.005 * e.stats().range()) * 0.5;
+                    double dx = tx - ex, dy = ty - ey, L = Math.hypot(dx, dy);
+                    double aimX = L == 0.0 ? 1 : dx / L, aimY = L == 0.0 ? 0 : dy / L;
+                    double len  = 2.0 * tilePx * Formulas.rangeFactor(st);
+                    double half = Math.toRadians(60.0) * (0.9 + 0.005 * st.range()) * 0.5;
 
-                    int dmg = (int)Math.round(Formulas.damage(e.stats(), 8.0));
-                    if (RNG.nextDouble() < (e.stats().critChance() / 100.0)) dmg = (int)Math.round(dmg * 1.5);
+                    int dmg = (int)Math.round(Formulas.damage(st, 8.0));
+                    if (RNG.nextDouble() < (st.critChance() / 100.0)) dmg = (int)Math.round(dmg * 1.5);
 
-                    if (Cone.contains(e.pos(), aim, target.pos(), len, half))
+                    if (Cone.contains(ex, ey, aimX, aimY, tx, ty, len, Math.cos(half)))
                     {
-                        out.add(new AttackSystem.Hit(e.id(), target.id(), dmg, false));
+                        out.add(enemies.id(i), target.id(), dmg);
                     }
                 }
             }
         }
-        return out;
     }
 
     // ——— Helper minimal views to decouple from your models ———
+    // (enemies are simulated from EnemyStore; EnemyGate/EnemyActor remain for standalone EnemyState use)
     public interface PlayerPos { Vec2 pos(); }
 
     public interface EnemyGate
@@ -131,25 +165,10 @@ public final class EnemyAiSystem {
     }
 
     // ——— internals ———
-    private static PlayerActor nearest(Collection<? extends PlayerActor> players, Vec2 pos)
+    private static boolean circlesOverlap(double ax, double ay, double ra, double bx, double by, double rb)
     {
-        return players.stream()
-                .min(Comparator.comparingDouble(p -> dist(p.pos(), pos)))
-                .orElseThrow();
-    }
-
-    private static boolean circlesOverlap(Vec2 a, double ra, Vec2 b, double rb)
-    {
-        double dx = a.x() - b.x(), dy = a.y() - b.y();
+        double dx = ax - bx, dy = ay - by;
         double r  = ra + rb;
         return dx*dx + dy*dy <= r*r;
     }
-
-    private static Vec2 dir(Vec2 a, Vec2 b)
-    {
-        double dx = b.x() - a.x(), dy = b.y() - a.y(), L = Math.hypot(dx, dy);
-        return L == 0.0 ? new Vec2(1, 0) : new Vec2(dx / L, dy / L);
-    }
-
-    private static double dist(Vec2 a, Vec2 b) { return Math.hypot(a.x() - b.x(), a.y() - b.y()); }
 }
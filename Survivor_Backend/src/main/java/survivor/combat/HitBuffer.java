@@ -0,0 +1,46 @@
+package survivor.combat;
+
+import java.util.Arrays;
+
+/**
+ * Hits produced in one step, as parallel int arrays instead of one Hit record each.
+ * Kept per match and clear()ed every step, so it only allocates when it has to grow.
+ */
+public final class HitBuffer
+{
+    private int[] attacker, target, damage;
+    private int size;
+
+    public HitBuffer() { this(32); }
+
+    public HitBuffer(int capacity)
+    {
+        int cap = Math.max(4, capacity);
+        attacker = new int[cap];
+        target = new int[cap];
+        damage = new int[cap];
+    }
+
+    public void add(int attackerId, int targetId, int dmg)
+    {
+        if (size == attacker.length)
+        {
+            int cap = size * 2;
+            attacker = Arrays.copyOf(attacker, cap);
+            target = Arrays.copyOf(target, cap);
+            damage = Arrays.copyOf(damage, cap);
+        }
+        attacker[size] = attackerId;
+        target[size] = targetId;
+        damage[size] = dmg;
+        size++;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public void clear() { size = 0; }
+
+    public int attackerId(int i) { return attacker[i]; }
+    public int targetId(int i) { return target[i]; }
+    public int damage(int i) { return damage[i]; }
+}
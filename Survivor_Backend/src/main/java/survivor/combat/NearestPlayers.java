@@ -0,0 +1,48 @@
+package survivor.combat;
+
+import survivor.shared.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Per-step scratch filled by EnemyAiSystem.gateActivity(): for every enemy index, its nearest
+ * player and the squared distance to it, plus the indices of enemies left awake.
+ * EnemyAiSystem.tick() reads it instead of searching for targets again.
+ *
+ * One per match; reused every step, so it only allocates when the enemy list outgrows it.
+ */
+public final class NearestPlayers
+{
+    private EnemyAiSystem.PlayerActor[] player = new EnemyAiSystem.PlayerActor[64];
+    private double[] distSq = new double[64];
+    private final IntList awake = new IntList(64);
+
+    void reset(int enemyCount)
+    {
+        if (player.length < enemyCount) {
+            int cap = Math.max(enemyCount, player.length * 2);
+            player = new EnemyAiSystem.PlayerActor[cap];
+            distSq = new double[cap];
+        } else {
+            Arrays.fill(player, 0, enemyCount, null);
+        }
+        awake.clear();
+    }
+
+    void set(int enemyIndex, EnemyAiSystem.PlayerActor p, double d2)
+    {
+        player[enemyIndex] = p;
+        distSq[enemyIndex] = d2;
+    }
+
+    void markAwake(int enemyIndex) { awake.add(enemyIndex); }
+
+    /** Nearest player to enemy i at gating time, or null (dead enemy / no players). */
+    public EnemyAiSystem.PlayerActor player(int enemyIndex) { return player[enemyIndex]; }
+
+    /** Squared distance from enemy i to player(i). */
+    public double distSq(int enemyIndex) { return distSq[enemyIndex]; }
+
+    /** Indices of enemies that are awake and alive after gating, in list order. */
+    public IntList awake() { return awake; }
+}
@@ -0,0 +1,105 @@
+package survivor.combat;
+
+import survivor.model.EnemyStore;
+import survivor.shared.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the map for "which enemies are near this point" queries.
+ *
+ * - rebuild() buckets every live enemy by cell with a counting sort: O(n), no per-item allocation.
+ * - query() returns candidate store slots from the cells overlapping a circle's bounding box;
+ *   callers still run their exact shape test (circle / cone / orb contact) on each candidate.
+ * - Slots refer to the store as of the last rebuild(), so rebuild after enemies move or are compacted.
+ *
+ * One grid per match; only the tick thread that owns the match touches it.
+ */
+public final class SpatialGrid
+{
+    private final double cellPx;
+    private final int cols, rows;
+
+    // cellStart[c]..cellStart[c+1] is the slice of `items` in cell c
+    private final int[] cellStart;
+    private final int[] cellFill;
+    private int[] items = new int[64];
+    private int[] itemCell = new int[64];
+    private int itemCount;
+    private int indexedLength;   // store size at the last rebuild
+
+    // Largest enemy radius seen at rebuild; contact queries pad their search by it
+    private double maxRadiusPx;
+
+    private final IntList result = new IntList(64);
+
+    public SpatialGrid(double worldW, double worldH, double cellPx)
+    {
+        this.cellPx = cellPx;
+        this.cols = Math.max(1, (int) Math.ceil(worldW / cellPx));
+        this.rows = Math.max(1, (int) Math.ceil(worldH / cellPx));
+        this.cellStart = new int[cols * rows + 1];
+        this.cellFill = new int[cols * rows];
+    }
+
+    /** Re-bucket all live enemies at their current positions. */
+    public void rebuild(EnemyStore enemies)
+    {
+        int n = enemies.size();
+        if (itemCell.length < n) {
+            int cap = Math.max(n, itemCell.length * 2);
+            itemCell = new int[cap];
+            items = new int[cap];
+        }
+
+        Arrays.fill(cellStart, 0);
+        double maxR = 0;
+        int live = 0;
+        for (int i = 0; i < n; i++) {
+            if (enemies.isDead(i)) { itemCell[i] = -1; continue; }
+            int c = cellRow(enemies.y(i)) * cols + cellCol(enemies.x(i));
+            itemCell[i] = c;
+            cellStart[c + 1]++;
+            if (enemies.radiusPx(i) > maxR) maxR = enemies.radiusPx(i);
+            live++;
+        }
+        for (int c = 0; c < cols * rows; c++) cellStart[c + 1] += cellStart[c];
+        System.arraycopy(cellStart, 0, cellFill, 0, cols * rows);
+        for (int i = 0; i < n; i++) {
+            int c = itemCell[i];
+            if (c >= 0) items[cellFill[c]++] = i;
+        }
+        itemCount = live;
+        indexedLength = n;
+        maxRadiusPx = maxR;
+    }
+
+    /**
+     * Candidate enemy slots whose centres may lie within r of (cx, cy).
+     * The returned list is reused by the next query.
+     */
+    public IntList query(double cx, double cy, double r)
+    {
+        result.clear();
+        int c0 = cellCol(cx - r), c1 = cellCol(cx + r);
+        int r0 = cellRow(cy - r), r1 = cellRow(cy + r);
+        for (int row = r0; row <= r1; row++) {
+            int base = row * cols;
+            for (int col = c0; col <= c1; col++) {
+                int c = base + col;
+                for (int k = cellStart[c], end = cellStart[c + 1]; k < end; k++) result.add(items[k]);
+            }
+        }
+        return result;
+    }
+
+    public int size() { return itemCount; }
+    /** Store size at the last rebuild; anything appended since is not indexed yet. */
+    public int indexedLength() { return indexedLength; }
+    public double maxRadiusPx() { return maxRadiusPx; }
+
+    private int cellCol(double x) { return clamp((int) Math.floor(x / cellPx), cols); }
+    private int cellRow(double y) { return clamp((int) Math.floor(y / cellPx), rows); }
+
+    private static int clamp(int v, int n) { return v < 0 ? 0 : (v >= n ? n - 1 : v); }
+}
@@ -2,7 +2,7 @@ package survivor.match;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import survivor.characters.GameCharacterRepository;
+import survivor.characters.CharacterCatalog;
 import survivor.ws.dto.LobbyPlayer;
 import survivor.ws.dto.ParticipantResult;
 
@@ -17,7 +17,7 @@ public class JpaMatchStore implements MatchStore
 
     private final MatchRepository matches;
     private final MatchParticipantRepository parts;
-    private final GameCharacterRepository characters;
+    private final CharacterCatalog characters;
     private final survivor.progress.UserProgressRepository progressRepo;
     private final survivor.characters.UserCharacterUnlockRepository unlockRepo;
 
@@ -43,6 +43,8 @@ public class JpaMatchStore implements MatchStore
     public void markActive(long id, Instant t)
     {
         var m = matches.findById(id).orElseThrow();
+        // Written behind by Lobbies: a short match may already have been recorded as ENDED
+        if (m.getStatus() == MatchStatus.ENDED) return;
         m.setStatus(MatchStatus.ACTIVE);
         m.setStartedAt(t);
         matches.save(m);
@@ -58,6 +60,27 @@ public class JpaMatchStore implements MatchStore
         matches.save(m);
     }
 
+    /**
+     * Idempotent on matchId: resultsWrittenAt is set in the same transaction as the results, so a replayed
+     * or retried entry for a match that was already recorded changes nothing.
+     */
+    @Override
+    @org.springframework.transaction.annotation.Transactional
+    public boolean recordEnd(long id, Integer winner, Instant t, List<ParticipantResult> res)
+    {
+        var m = matches.findById(id).orElse(null);
+        if (m == null || m.getResultsWrittenAt() != null) return false;
+
+        m.setStatus(MatchStatus.ENDED);
+        m.setWinnerAccountId(winner);
+        m.setEndedAt(t);
+        m.setResultsWrittenAt(Instant.now());
+        matches.save(m);
+
+        if (!res.isEmpty()) writeResults(id, res);
+        return true;
+    }
+
     @Override
     public void join(long mid, int aid)
     {
@@ -70,7 +93,7 @@ public class JpaMatchStore implements MatchStore
         var m = matches.findById(mid).orElseThrow();
         
         // Default everyone to WANDERER (free character)
-        var wanderer = characters.findByCodeIgnoreCase("WANDERER").orElse(null);
+        var wanderer = characters.byCode("WANDERER").orElse(null);
         
         parts.save(MatchParticipant.builder()
                 .match(m)
@@ -78,7 +101,7 @@ public class JpaMatchStore implements MatchStore
                 .joinedAt(Instant.now())
                 .ready(false)
                 .selectedCharacterCode("WANDERER")
-                .characterId(wanderer != null ? wanderer.getId() : null)
+                .characterId(wanderer != null ? wanderer.characterId() : null)
                 .build());
     }
 
@@ -137,11 +160,11 @@ public class JpaMatchStore implements MatchStore
         }
 
         // Validate character exists
-        var gc = characters.findByCodeIgnoreCase(norm).orElse(null);
+        var gc = characters.byCode(norm).orElse(null);
         if (gc == null) return false; // Character doesn't exist
         
         // Special handling for WANDERER - always allowed, no ownership check
-        if (gc.getCode().equals("WANDERER")) {
+        if (gc.code().equals("WANDERER")) {
             // Check if already selected (early return for efficiency)
             if (me.getSelectedCharacterCode() != null 
                     && me.getSelectedCharacterCode().equalsIgnoreCase("WANDERER")) {
@@ -149,7 +172,7 @@ public class JpaMatchStore implements MatchStore
             }
             // Just set it - WANDERER is always available
             me.setSelectedCharacterCode("WANDERER");
-            me.setCharacterId(gc.getId());
+            me.setCharacterId(gc.characterId());
             me.setReady(false);
             parts.save(me);
             return true;
@@ -157,7 +180,7 @@ public class JpaMatchStore implements MatchStore
         
         // For non-WANDERER characters: check ownership only (no exclusivity)
         // Check if player owns this character
-        boolean ownsCharacter = unlockRepo.existsByAccount_IdAndCharacter_Id(aid, gc.getId());
+        boolean ownsCharacter = unlockRepo.existsByAccount_IdAndCharacter_Id(aid, gc.characterId());
         if (!ownsCharacter) return false; // Player doesn't own this character
 
         // Check if already selected by this player
@@ -169,7 +192,7 @@ public class JpaMatchStore implements MatchStore
 
         // Set the selection - multiple players can select the same character
         me.setSelectedCharacterCode(norm);
-        me.setCharacterId(gc.getId());
+        me.setCharacterId(gc.characterId());
         me.setReady(false);
         parts.save(me);
         return true;
@@ -187,31 +210,32 @@ public class JpaMatchStore implements MatchStore
                 .toList();
     }
 
+    /**
+     * Participant rows are updated in one saveAll (JDBC-batched, see hibernate.jdbc.batch_size), then every
+     * player's UserProgress is credited from those rows by a single atomic UPDATE for the whole match.
+     */
     @Override
+    @org.springframework.transaction.annotation.Transactional
     public void writeResults(long mid, List<ParticipantResult> res)
     {
-        var list = parts.findByMatchId(mid);
-        for (var r : res)
+        var byAccount = new java.util.HashMap<Integer, ParticipantResult>();
+        for (var r : res) byAccount.putIfAbsent(r.accountId(), r);
+
+        var written = new java.util.ArrayList<MatchParticipant>(res.size());
+        for (var p : parts.findByMatchId(mid))
         {
-            list.stream()
-                    .filter(p -> p.getAccountId() == r.accountId())
-                    .findFirst()
-                    .ifPresent(p ->
-                    {
-                        // Save to MatchParticipant
-                        p.setScore(r.score());
-                        p.setCoinsEarned(r.coins());
-                        p.setTimeAliveMs(r.timeAliveMs());
-                        parts.save(p);
-
-                        // Update UserProgress with earned coins and score
-                        progressRepo.findByAccount_Id(r.accountId())
-                                .ifPresent(progress -> {
-                                    progress.setCoins(progress.getCoins() + r.coins());
-                                    progress.setTotalScore(progress.getTotalScore() + r.score());
-                                    progressRepo.save(progress);
-                                });
-                    });
+            var r = byAccount.get(p.getAccountId());
+            if (r == null) continue;
+            p.setScore(r.score());
+            p.setCoinsEarned(r.coins());
+            p.setTimeAliveMs(r.timeAliveMs());
+            written.add(p);
         }
+        if (written.isEmpty()) return;
+        parts.saveAll(written);
+
+        // coins = coins + earned, totalScore = totalScore + score, in SQL
+        progressRepo.addMatchResults(mid, written.stream().map(MatchParticipant::getAccountId).toList(),
+                java.time.LocalDateTime.now());
     }
 }
@@ -0,0 +1,387 @@
+package survivor.match;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import survivor.characters.CharacterCatalog;
+import survivor.characters.CharacterResponseDTO;
+import survivor.characters.UserCharacterUnlockRepository;
+import survivor.ws.dto.LobbyPlayer;
+import survivor.ws.dto.LobbySnapshot;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authoritative lobby state in memory: who is in each lobby, ready flags and character picks.
+ *
+ * - Lobby events apply to memory under the lobby's lock and return the snapshot to broadcast, so the
+ *   lobby never waits on the database. The same rules as JpaMatchStore apply (max 4 active players,
+ *   a player who left can't rejoin the same lobby, a new pick or a cleared pick resets ready, WANDERER
+ *   is free, other characters must be owned).
+ * - Every change is also queued on its lobby and replayed through MatchStore in order by one background
+ *   writer (write-behind). A failed write is logged and retried with exponential backoff (RETRY_MS up to
+ *   MAX_RETRY_MS), holding back that lobby's later writes so the order is kept; memory stays authoritative.
+ * - A lobby is loaded from the database the first time it's touched (e.g. /lobby, or after a restart), and
+ *   dropped from memory once it has started or emptied and all its writes have succeeded, so a later load
+ *   sees them (a started lobby can't read as LOBBY again and start twice).
+ * - Characters come from CharacterCatalog; owning a paid one is checked in the database, outside the lobby
+ *   lock, once per player and character.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Lobbies
+{
+    public static final int MAX_PLAYERS = 4;
+    private static final String FREE_CHARACTER = "WANDERER";
+    static final long RETRY_MS = 500, MAX_RETRY_MS = 30_000;
+
+    private final MatchStore store;
+    private final MatchRepository matches;
+    private final MatchParticipantRepository parts;
+    private final CharacterCatalog characters;
+    private final UserCharacterUnlockRepository unlockRepo;
+
+    private final Map<Long, Lobby> lobbies = new ConcurrentHashMap<>();
+    private final Set<Long> owned = ConcurrentHashMap.newKeySet();   // (accountId << 32 | characterId) confirmed owned
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lobby-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class Seat
+    {
+        final int accountId;
+        String characterCode;
+        boolean ready;
+        boolean left;
+
+        Seat(int accountId) { this.accountId = accountId; }
+    }
+
+    private static final class Lobby
+    {
+        final long matchId;
+        final Map<Integer, Seat> seats = new LinkedHashMap<>();   // join order
+        MatchStatus status;
+        final ArrayDeque<Runnable> writes = new ArrayDeque<>();   // not yet in the database, oldest first
+        int failures;          // of the oldest write, in a row
+        boolean evicted;
+
+        Lobby(long matchId, MatchStatus status) { this.matchId = matchId; this.status = status; }
+
+        int active()
+        {
+            int n = 0;
+            for (Seat s : seats.values()) if (!s.left) n++;
+            return n;
+        }
+
+        LobbySnapshot snapshot()
+        {
+            List<LobbyPlayer> players = new ArrayList<>(seats.size());
+            for (Seat s : seats.values()) {
+                if (!s.left) players.add(new LobbyPlayer(s.accountId, s.characterCode, s.ready));
+            }
+            return new LobbySnapshot(matchId, status, players);
+        }
+    }
+
+    /** Outcome of a character pick: the snapshot to broadcast, or why it was denied. */
+    public record Selection(LobbySnapshot snapshot, String deniedReason)
+    {
+        public boolean ok() { return deniedReason == null; }
+    }
+
+    /** Outcome of a start request: the players it starts with, or why it can't start (and who holds it up). */
+    public record Start(List<LobbyPlayer> players, String failedReason, List<Integer> unready, List<Integer> unpicked)
+    {
+        public boolean ok() { return failedReason == null; }
+
+        static Start failed(String reason) { return new Start(List.of(), reason, List.of(), List.of()); }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException
+    {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        int left = pendingWrites();
+        if (left > 0) log.warn("Lobbies: {} lobby write(s) never reached the database", left);
+    }
+
+    // -------- events --------
+
+    /** Join (no-op if already seated or the lobby is full). Null if the match doesn't exist. */
+    public LobbySnapshot join(long matchId, int accountId)
+    {
+        return apply(matchId, l -> {
+            if (l.seats.containsKey(accountId) || l.active() >= MAX_PLAYERS) return;
+            Seat s = new Seat(accountId);
+            s.characterCode = FREE_CHARACTER;   // everyone starts on the free character
+            l.seats.put(accountId, s);
+            persist(l, () -> store.join(matchId, accountId));
+        });
+    }
+
+    public LobbySnapshot leave(long matchId, int accountId)
+    {
+        return apply(matchId, l -> {
+            Seat s = l.seats.get(accountId);
+            if (s == null || s.left) return;
+            s.left = true;
+            persist(l, () -> store.leave(matchId, accountId));
+        });
+    }
+
+    public LobbySnapshot setReady(long matchId, int accountId, boolean ready)
+    {
+        return apply(matchId, l -> {
+            Seat s = l.seats.get(accountId);
+            if (s == null || s.left || s.ready == ready) return;
+            s.ready = ready;
+            persist(l, () -> store.setReady(matchId, accountId, ready));
+        });
+    }
+
+    /** Pick a character by code (case-insensitive); null or blank clears the pick. */
+    public Selection select(long matchId, int accountId, String code)
+    {
+        String norm = code == null ? "" : code.trim();
+        CharacterResponseDTO gc = norm.isEmpty() ? null : character(norm);
+        // asked before taking the lobby lock, so a slow query never holds up the lobby
+        boolean allowed = gc == null || gc.code().equals(FREE_CHARACTER) || owns(accountId, gc);
+
+        String[] denied = new String[1];
+        LobbySnapshot snap = apply(matchId, l -> {
+            Seat s = l.seats.get(accountId);
+            if (s == null) {
+                denied[0] = "Not in this lobby";
+                return;
+            }
+
+            if (norm.isEmpty()) {
+                s.characterCode = null;
+                s.ready = false;
+                persist(l, () -> store.lockCharacter(matchId, accountId, null));
+                return;
+            }
+
+            if (gc == null) {
+                denied[0] = "Character does not exist";
+                return;
+            }
+            if (!allowed) {
+                denied[0] = "Character not owned";
+                return;
+            }
+            if (gc.code().equalsIgnoreCase(s.characterCode)) return;   // already picked
+
+            s.characterCode = gc.code();
+            s.ready = false;
+            persist(l, () -> store.lockCharacter(matchId, accountId, gc.code()));
+        });
+        if (snap == null) return new Selection(null, "Match not found");
+        return new Selection(snap, denied[0]);
+    }
+
+    /**
+     * Move the lobby to ACTIVE if it can start: still in LOBBY, 1 to MAX_PLAYERS players, all ready with a
+     * character picked. Checked under the same lock that flips the status, so a player un-readying or
+     * clearing a pick in between can't slip through.
+     */
+    public Start start(long matchId)
+    {
+        Start[] result = new Start[1];
+        LobbySnapshot snap = apply(matchId, l -> result[0] = tryStart(l));
+        if (snap == null) return Start.failed("Match not found");
+        return result[0];
+    }
+
+    /**
+     * Mark the match ENDED: in memory now, so a lobby still held here can't start afterwards, and in the
+     * database behind any write still queued for it (an ACTIVE written after ENDED would revive it).
+     * The future completes once the write succeeded; null if the match doesn't exist.
+     */
+    public CompletableFuture<Void> end(long matchId, Integer winnerAccountId, Instant at)
+    {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        LobbySnapshot snap = apply(matchId, l -> {
+            l.status = MatchStatus.ENDED;
+            persist(l, () -> {
+                store.markEnded(matchId, winnerAccountId, at);
+                written.complete(null);
+            });
+        });
+        return snap == null ? null : written;
+    }
+
+    /** Current snapshot from memory (loads the lobby if needed). Null if the match doesn't exist. */
+    public LobbySnapshot snapshot(long matchId)
+    {
+        return apply(matchId, l -> {});
+    }
+
+    /** The character for a code (case-insensitive), or null. */
+    public CharacterResponseDTO character(String code)
+    {
+        return characters.byCode(code).orElse(null);
+    }
+
+    /** Lobby writes not in the database yet (queued, or failed and waiting for a retry). */
+    public int pendingWrites()
+    {
+        int n = 0;
+        for (Lobby l : lobbies.values()) {
+            synchronized (l) {
+                n += l.writes.size();
+            }
+        }
+        return n;
+    }
+
+    // -------- state --------
+
+    private interface Event
+    {
+        void apply(Lobby lobby);
+    }
+
+    private LobbySnapshot apply(long matchId, Event event)
+    {
+        while (true) {
+            Lobby l = lobbies.get(matchId);
+            if (l == null) {
+                l = load(matchId);
+                if (l == null) return null;
+                Lobby raced = lobbies.putIfAbsent(matchId, l);
+                if (raced != null) l = raced;
+            }
+            synchronized (l) {
+                if (l.evicted) continue;   // dropped between lookup and lock: load it again
+                event.apply(l);
+                LobbySnapshot snap = l.snapshot();
+                maybeEvict(l);
+                return snap;
+            }
+        }
+    }
+
+    /** Called with the lobby's lock held. */
+    private Start tryStart(Lobby l)
+    {
+        if (l.status != MatchStatus.LOBBY) return Start.failed("Match already started");
+        List<LobbyPlayer> players = l.snapshot().players();
+        if (players.isEmpty()) return Start.failed("No players in lobby");
+        // Single player matches are allowed for testing
+        //TODO require at least 2 players for production
+        if (players.size() > MAX_PLAYERS) return Start.failed("Can't have more than " + MAX_PLAYERS + " players");
+
+        List<Integer> unready = new ArrayList<>(), unpicked = new ArrayList<>();
+        for (LobbyPlayer p : players) {
+            if (!p.ready()) unready.add(p.accountId());
+            if (p.characterCode() == null) unpicked.add(p.accountId());
+        }
+        if (!unready.isEmpty()) return new Start(List.of(), "Not all players ready", unready, List.of());
+        if (!unpicked.isEmpty()) {
+            return new Start(List.of(), "Not all players have selected characters", List.of(), unpicked);
+        }
+
+        l.status = MatchStatus.ACTIVE;
+        Instant at = Instant.now();
+        persist(l, () -> store.markActive(l.matchId, at));
+        return new Start(players, null, List.of(), List.of());
+    }
+
+    /** Called with the lobby's lock held. */
+    private void maybeEvict(Lobby l)
+    {
+        if (!l.writes.isEmpty() || l.evicted) return;
+        if (l.status == MatchStatus.LOBBY && l.active() > 0) return;
+        l.evicted = true;
+        lobbies.remove(l.matchId, l);
+    }
+
+    /** Called with the lobby's lock held. */
+    private void persist(Lobby l, Runnable write)
+    {
+        l.writes.add(write);
+        if (l.writes.size() == 1) writer.execute(() -> drain(l));   // otherwise a drain is running or due
+    }
+
+    /** Writer thread: the lobby's writes in order; on a failure, the same write again after a backoff. */
+    private void drain(Lobby l)
+    {
+        while (true) {
+            Runnable write;
+            synchronized (l) {
+                write = l.writes.peek();
+                if (write == null) return;
+            }
+            try {
+                write.run();
+            } catch (Exception e) {
+                int attempts;
+                synchronized (l) {
+                    attempts = ++l.failures;
+                }
+                long delay = Math.min(MAX_RETRY_MS, RETRY_MS << Math.min(attempts - 1, 16));
+                log.warn("Lobby {}: write-behind failed (attempt {}), retrying in {} ms: {}",
+                        l.matchId, attempts, delay, e.toString());
+                writer.schedule(() -> drain(l), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            synchronized (l) {
+                l.writes.poll();
+                l.failures = 0;
+                maybeEvict(l);
+            }
+        }
+    }
+
+    private Lobby load(long matchId)
+    {
+        Match m = matches.findById(matchId).orElse(null);
+        if (m == null) return null;
+
+        Lobby l = new Lobby(matchId, m.getStatus());
+        List<MatchParticipant> list = new ArrayList<>(parts.findByMatchId(matchId));
+        list.sort(Comparator.comparing(MatchParticipant::getId));
+        for (MatchParticipant p : list) {
+            if (l.seats.containsKey(p.getAccountId())) continue;
+            Seat s = new Seat(p.getAccountId());
+            s.characterCode = p.getSelectedCharacterCode();
+            s.ready = Boolean.TRUE.equals(p.getReady());
+            s.left = p.getLeftAt() != null;
+            l.seats.put(p.getAccountId(), s);
+        }
+        return l;
+    }
+
+    /** Called without a lobby lock held. */
+    private boolean owns(int accountId, CharacterResponseDTO gc)
+    {
+        long key = ((long) accountId << 32) | gc.characterId();
+        if (owned.contains(key)) return true;
+        if (unlockRepo.existsByAccount_IdAndCharacter_Id(accountId, gc.characterId())) {
+            owned.add(key);
+            return true;
+        }
+        return false;
+    }
+}
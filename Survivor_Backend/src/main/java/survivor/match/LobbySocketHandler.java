@@ -10,11 +10,11 @@ import survivor.ws.dto.*;
 import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import survivor.characters.GameCharacterRepository;
-import survivor.characters.GameCharacter;          // PA entity
+import survivor.characters.CharacterResponseDTO;   // catalog entry
 import survivor.shared.AttackStyle;                 // shared enum
 import survivor.combat.Stats;
 import survivor.combat.Vec2;
@@ -24,73 +24,43 @@ import survivor.model.PlayerState;
 @RequiredArgsConstructor
 public class LobbySocketHandler
 {
-    private final MatchStore store;
-    private final MatchRepository matches;
+    private final Lobbies lobbies;
     private final FogConfig fog;
     private final MatchRuntimeRegistry runtimes;
     private final GameWs ws;
-    private final GameCharacterRepository characters;
-    private final survivor.characters.UserCharacterUnlockRepository unlockRepo;
 
     private final Map<Long, Deque<ChatMessage>> chatHistory = new ConcurrentHashMap<>();
 
     // JOIN / LEAVE / READY / SELECT
+    // Applied to the in-memory lobby (Lobbies) and broadcast from it; the database is written behind
     public void onJoin(JoinMsg m)
     {
-        store.join(m.matchId(), m.accountId());
-        broadcast(m.matchId());
+        broadcast(lobbies.join(m.matchId(), m.accountId()));
     }
 
     public void onLeave(survivor.ws.dto.LeaveMsg m)
     {
-        store.leave(m.matchId(), m.accountId());
-        broadcast(m.matchId());
+        broadcast(lobbies.leave(m.matchId(), m.accountId()));
     }
 
     public void onReady(ReadyMsg m)
     {
-        store.setReady(m.matchId(), m.accountId(), m.ready());
-        broadcast(m.matchId());
+        broadcast(lobbies.setReady(m.matchId(), m.accountId(), m.ready()));
     }
 
     public void onSelect(SelectMsg m)
     {
-        if (store.lockCharacter(m.matchId(), m.accountId(), m.characterCode()))
+        var result = lobbies.select(m.matchId(), m.accountId(), m.characterCode());
+        if (result.ok())
         {
-            broadcast(m.matchId());
+            broadcast(result.snapshot());
         }
         else
         {
-            // Determine specific reason for failure
-            String reason = "Unknown error";
-            String characterCode = m.characterCode();
-            
-            if (characterCode == null || characterCode.isBlank()) {
-                reason = "No character specified";
-            } else {
-                var gc = characters.findByCodeIgnoreCase(characterCode).orElse(null);
-                if (gc == null) {
-                    reason = "Character does not exist";
-                } else if (!gc.getCode().equals("WANDERER")) {
-                    // Check ownership for non-WANDERER characters
-                    boolean ownsCharacter = unlockRepo.existsByAccount_IdAndCharacter_Id(m.accountId(), gc.getId());
-                    if (!ownsCharacter) {
-                        reason = "Character not owned";
-                    } else {
-                        // This should not happen - ownership check passed but selection failed
-                        reason = "Unexpected error during character selection";
-                    }
-                } else {
-                    // WANDERER should never fail (it's non-exclusive and free)
-                    // This case should not happen, but just in case
-                    reason = "Unexpected error with WANDERER selection";
-                }
-            }
-            
             sendPrivate(m.matchId(), m.accountId(), Map.of(
                     "event", "SELECT_DENIED",
-                    "characterCode", characterCode,
-                    "reason", reason
+                    "characterCode", String.valueOf(m.characterCode()),
+                    "reason", result.deniedReason()
             ));
         }
     }
@@ -111,87 +81,45 @@ public class LobbySocketHandler
     // START
     public void onRequestStart(RequestStartMsg m)
     {
-        var snap = store.snapshot(m.matchId());
-        
-        // Validation checks
-        if (snap.isEmpty()) {
-            sendToMatch(m.matchId(), Map.of("event", "START_FAILED", "reason", "No players in lobby"));
-            return;
-        }
-        
-        // Commented out to allow single player matches for testing
-        //TODO switch back to this logic for production
-        // if (snap.size() < 2) {
-        //     sendToMatch(m.matchId(), Map.of("event", "START_FAILED", "reason", "Need at least 2 players"));
-        //     return;
-        // }
-
-        if (snap.size() > 4) {
-            sendToMatch(m.matchId(), Map.of("event", "START_FAILED", "reason", "Can't have more than 4 players"));
-            return;
-        }
-        
-        
-        boolean allReady = snap.stream().allMatch(LobbyPlayer::ready);
-        boolean allPicked = snap.stream().allMatch(lp -> lp.characterCode() != null);
-        
-        if (!allReady) {
-            var unreadyPlayers = snap.stream()
-                    .filter(lp -> !lp.ready())
-                    .map(LobbyPlayer::accountId)
-                    .toList();
-            sendToMatch(m.matchId(), Map.of(
-                    "event", "START_FAILED", 
-                    "reason", "Not all players ready",
-                    "unreadyPlayers", unreadyPlayers
-            ));
-            return;
-        }
-        
-        if (!allPicked) {
-            var unselectedPlayers = snap.stream()
-                    .filter(lp -> lp.characterCode() == null)
-                    .map(LobbyPlayer::accountId)
-                    .toList();
-            sendToMatch(m.matchId(), Map.of(
-                    "event", "START_FAILED", 
-                    "reason", "Not all players have selected characters",
-                    "unselectedPlayers", unselectedPlayers
-            ));
+        // Validated and flipped to ACTIVE under the lobby lock (in memory now, in the database behind)
+        var start = lobbies.start(m.matchId());
+        if (!start.ok()) {
+            Map<String, Object> failed = new HashMap<>();
+            failed.put("event", "START_FAILED");
+            failed.put("reason", start.failedReason());
+            if (!start.unready().isEmpty()) failed.put("unreadyPlayers", start.unready());
+            if (!start.unpicked().isEmpty()) failed.put("unselectedPlayers", start.unpicked());
+            sendToMatch(m.matchId(), failed);
             return;
         }
+        var players = start.players();
 
-        // All conditions met - prepare the match
-        store.markActive(m.matchId(), Instant.now());
-        
         // Create runtime without starting it yet (will start after countdown)
         runtimes.createRuntime(m.matchId(), fog);
 
-        //add players to runtime using characterCode + findByCodeIgnoreCase
+        //add players to runtime using characterCode (looked up in memory by Lobbies)
         runtimes.get(m.matchId()).ifPresent(rt ->
         {
             int i = 0;
-            for (var lp : snap)
+            for (var lp : players)
             {
                 String code = lp.characterCode();
                 if (code == null || code.isBlank()) continue; // defensive
 
-                var gcOpt = characters.findByCodeIgnoreCase(code);
-                if (gcOpt.isEmpty()) {
+                CharacterResponseDTO gc = lobbies.character(code);
+                if (gc == null) {
                     System.err.println("Character not found: " + code);
                     continue;
                 }
 
-                GameCharacter gc = gcOpt.get();
-
-                // Map JPA entity -> runtime Stats
+                // Map catalog entry -> runtime Stats
                 Stats stats = new Stats(
-                        gc.getHealth(),
-                        gc.getMoveSpeed(),
-                        gc.getAttackSpeed(),
-                        gc.getDamageMult(),
-                        gc.getCritChance(),
-                        gc.getRangeUnits()
+                        gc.health(),
+                        gc.moveSpeed(),
+                        gc.attackSpeed(),
+                        gc.damageMult(),
+                        gc.critChance(),
+                        gc.rangeUnits()
                 );
 
                 // Everyone starts with AOE weapon (upgrades via XP system change this later)
@@ -199,7 +127,7 @@ public class LobbySocketHandler
 
                 Vec2 spawn = spawnForIndex(i++);
                 PlayerState p = new PlayerState(lp.accountId(), spawn, stats, style, stats.health());
-                rt.addPlayer(p);
+                runtimes.addPlayer(rt.id(), p);
             }
         });
 
@@ -229,9 +157,9 @@ public class LobbySocketHandler
         };
     }
 
-    private void broadcast(long mid) {
-        var match = matches.findById(mid).orElseThrow();
-        sendToMatch(mid, new LobbySnapshot(mid, match.getStatus(), store.snapshot(mid)));
+    private void broadcast(LobbySnapshot snapshot) {
+        if (snapshot == null) return;   // no such match
+        sendToMatch(snapshot.matchId(), snapshot);
     }
 
     private void sendToMatch(long mid, Object payload) {
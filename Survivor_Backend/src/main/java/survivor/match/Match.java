@@ -32,4 +32,5 @@ public class Match
     @CreationTimestamp private Instant createdAt;
     private Instant startedAt;
     private Instant endedAt;
+    private Instant resultsWrittenAt; // set once with the results of a runtime-ended match; guards replays
 }
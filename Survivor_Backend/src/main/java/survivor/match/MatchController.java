@@ -17,18 +17,22 @@ public class MatchController
 {
     private final MatchRepository matches;
     private final MatchStore store;
+    private final Lobbies lobbies;
     private final MatchRuntimeRegistry registry;
 
+    // How long an end request waits for its database write; past that it is still retried in the background
+    private static final long END_WRITE_WAIT_MS = 2_000;
+
     @PostMapping("/create")
     public Match create() { return store.createLobby(); }
 
-    // --- Join by join code -> resolve matchId then store.join ---
+    // --- Join by join code -> resolve matchId then join the in-memory lobby (persisted behind) ---
     @PostMapping("/join/{joinCode}/{accountId}")
     public Map<String,Object> join(@PathVariable String joinCode, @PathVariable int accountId)
     {
         var match = matches.findByJoinCode(joinCode)
                 .orElseThrow(() -> new NotFoundException("match not found"));
-        store.join(match.getId(), accountId);
+        lobbies.join(match.getId(), accountId);
         return Map.of("matchId", match.getId(), "joinCode", match.getJoinCode());
     }
 
@@ -40,8 +44,8 @@ public class MatchController
     @PostMapping("/{matchId}/end")
     public Map<String,Object> end(@PathVariable long matchId, @RequestBody(required = false) EndReq req)
     {
-        store.markEnded(matchId, req == null ? null : req.winnerAccountId(), java.time.Instant.now());
-        return Map.of("ok", true);
+        boolean written = markEnded(matchId, req == null ? null : req.winnerAccountId());
+        return written ? Map.of("ok", true) : Map.of("ok", true, "pending", true);
     }
 
     // --- Stop (stops runtime and removes from registry) ---
@@ -63,6 +67,7 @@ public class MatchController
         
         // Stop the runtime and remove from registry immediately
         rt.stop();  // Mark runtime as ended internally
+        rt.claimEnd();  // a tick ending the match at the same moment won't submit results on top
         System.out.println("  -> Called rt.stop(), ended=" + rt.isEnded());
         
         registry.end(matchId);  // Remove from active registry - THIS STOPS THE TICKS!
@@ -73,13 +78,33 @@ public class MatchController
         System.out.println("  -> Registry size: " + registry.active().size());
         
         // Mark as ended in database
-        store.markEnded(matchId, null, java.time.Instant.now());
+        markEnded(matchId, null);
         
         System.out.println("=== STOP COMPLETE ===");
         
         return Map.of("ok", true, "message", "Match runtime stopped and removed from registry");
     }
 
+    /**
+     * Through Lobbies rather than straight to the store: a lobby still held in memory turns ENDED too, and
+     * the write queues behind its pending ones (a markActive landing after markEnded would revive the match).
+     * Returns false if the write hasn't gone through yet.
+     */
+    private boolean markEnded(long matchId, Integer winnerAccountId)
+    {
+        var written = lobbies.end(matchId, winnerAccountId, java.time.Instant.now());
+        if (written == null) throw new NotFoundException("match not found");
+        try {
+            written.get(END_WRITE_WAIT_MS, java.util.concurrent.TimeUnit.MILLISECONDS);
+            return true;
+        } catch (java.util.concurrent.TimeoutException | java.util.concurrent.ExecutionException e) {
+            return false;   // a failed write is retried in the background, not reported here
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     @PostMapping("/{matchId}/results")
     public Map<String,Object> results(@PathVariable long matchId, @RequestBody List<ParticipantResult> results)
     {
@@ -91,6 +116,7 @@ public class MatchController
     @GetMapping("/{matchId}/lobby")
     public List<LobbyPlayer> lobby(@PathVariable long matchId)
     {
-        return store.snapshot(matchId);
+        var snapshot = lobbies.snapshot(matchId);
+        return snapshot == null ? List.of() : snapshot.players();
     }
 }
@@ -0,0 +1,392 @@
+package survivor.match;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import survivor.ws.dto.ParticipantResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable outbox for match-end persistence, so the tick thread never waits on the database.
+ *
+ * - submit() (tick thread) appends one JSON line to a local append-only file and queues the entry in memory.
+ *   That is a single write into the page cache: the entry survives a crash of the server process.
+ * - A background writer fsyncs the file, then drains the queue every match.outbox.flushIntervalMs, up to
+ *   match.outbox.batchSize entries, through MatchStore.recordEnd(); that is idempotent on matchId, so replays
+ *   and retries are safe. The fsync is a group commit: one force() covers every END line appended since the
+ *   last, so an entry is on disk (surviving a machine crash) within one interval, and the tick thread never
+ *   waits on the disk. Written entries get a DONE line (fsync'd); failed ones are retried with exponential
+ *   backoff.
+ * - On startup the file is replayed: every END line without a matching DONE is queued again. The file is
+ *   truncated whenever nothing is pending.
+ *
+ * Metrics: match.outbox.pending, match.outbox.written, match.outbox.retries, match.outbox.syncs,
+ * match.outbox.file.errors.
+ */
+@Slf4j
+@Component
+public class MatchResultOutbox
+{
+    /** One ended match: everything TickService used to write synchronously. */
+    public record Entry(long matchId, Integer winnerAccountId, Instant endedAt, List<ParticipantResult> results) {}
+
+    /** File format, one per line. op = END (with the entry) or DONE (matchId only). */
+    record Line(String op, long matchId, Integer winnerAccountId, Long endedAtMs, List<ParticipantResult> results) {}
+
+    private static final class Pending
+    {
+        final Entry entry;
+        int attempts;
+        long notBefore;   // nanoTime of the next attempt
+
+        Pending(Entry entry) { this.entry = entry; }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final MatchStore store;
+    private final Path file;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long retryNanos, maxRetryNanos;
+
+    // guards the queue and the channel; only submit()'s append runs under it, never a force() or truncate()
+    private final Object lock = new Object();
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private FileChannel channel;
+    private boolean unsynced;   // END lines appended since the last force()
+    private long submitted;     // submit() calls so far, to spot ones that raced a truncate
+    private ScheduledExecutorService writer;
+
+    private final Counter written;
+    private final Counter retries;
+    private final Counter syncs;
+    private final Counter fileErrors;
+
+    public MatchResultOutbox(MatchStore store,
+                             @Value("${match.outbox.file:match-outbox.log}") String file,
+                             @Value("${match.outbox.batchSize:32}") int batchSize,
+                             @Value("${match.outbox.flushIntervalMs:200}") long flushIntervalMs,
+                             @Value("${match.outbox.retryMs:500}") long retryMs,
+                             @Value("${match.outbox.maxRetryMs:30000}") long maxRetryMs,
+                             MeterRegistry meters)
+    {
+        this.store = store;
+        this.file = Path.of(file);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMs);
+        this.maxRetryNanos = TimeUnit.MILLISECONDS.toNanos(maxRetryMs);
+
+        written = Counter.builder("match.outbox.written")
+                .description("Ended matches written to the database")
+                .register(meters);
+        retries = Counter.builder("match.outbox.retries")
+                .description("Failed attempts to write an ended match, retried later")
+                .register(meters);
+        syncs = Counter.builder("match.outbox.syncs")
+                .description("Group commits: fsyncs of the outbox file covering the END lines appended since the last")
+                .register(meters);
+        fileErrors = Counter.builder("match.outbox.file.errors")
+                .description("Failed appends, fsyncs or truncations of the outbox file")
+                .register(meters);
+        Gauge.builder("match.outbox.pending", this, MatchResultOutbox::pending)
+                .description("Ended matches waiting to be written")
+                .register(meters);
+    }
+
+    @PostConstruct
+    void start() throws IOException
+    {
+        replay();
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "match-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException
+    {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();   // last chance; whatever is still pending is replayed on the next start
+        synchronized (lock) {
+            if (channel != null) channel.close();
+            channel = null;
+        }
+    }
+
+    /** Record an ended match. Called on the tick thread: no database access. */
+    public void submit(Entry e)
+    {
+        Line line = endLine(e);
+        synchronized (lock) {
+            queue.add(new Pending(e));
+            submitted++;
+            try {
+                append(line);
+                unsynced = true;
+            } catch (UncheckedIOException ex) {
+                // Still written from memory, just not crash-safe
+                fileErrors.increment();
+                log.warn(ex.getMessage(), ex.getCause());
+            }
+        }
+    }
+
+    /** Ended matches not yet written to the database. */
+    public int pending()
+    {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    // -------- writer --------
+
+    private void flushQuietly()
+    {
+        try {
+            flush();
+        } catch (Exception e) {
+            // Keep the writer alive; the entries are still on disk and in the queue
+            log.warn("Match outbox flush failed", e);
+        }
+    }
+
+    /** Sync the file, then write up to one batch of due entries; returns how many were written. */
+    int flush()
+    {
+        sync();
+
+        List<Pending> batch = new ArrayList<>(batchSize);
+        long now = System.nanoTime();
+        synchronized (lock) {
+            int n = queue.size();
+            for (int i = 0; i < n && batch.size() < batchSize; i++) {
+                Pending p = queue.poll();
+                if (now - p.notBefore >= 0) batch.add(p);
+                else queue.add(p);
+            }
+        }
+        if (batch.isEmpty()) return 0;
+
+        List<Pending> done = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            Entry e = p.entry;
+            try {
+                store.recordEnd(e.matchId(), e.winnerAccountId(), e.endedAt(), e.results());
+                done.add(p);
+            } catch (Exception ex) {
+                p.attempts++;
+                long backoff = Math.min(maxRetryNanos, retryNanos << Math.min(p.attempts - 1, 16));
+                p.notBefore = System.nanoTime() + backoff;
+                retries.increment();
+                log.warn("Match outbox: writing match {} failed (attempt {}), retrying in {} ms: {}",
+                        e.matchId(), p.attempts, TimeUnit.NANOSECONDS.toMillis(backoff), ex.toString());
+            }
+        }
+
+        synchronized (lock) {
+            for (Pending p : batch) if (!done.contains(p)) queue.add(p);
+        }
+        if (!done.isEmpty()) {
+            markDone(done);
+            truncateIfIdle();
+        }
+        written.increment(done.size());
+        return done.size();
+    }
+
+    // -------- file --------
+
+    /** Queue every END line that has no DONE line. */
+    void replay() throws IOException
+    {
+        Map<Long, Entry> open = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            for (String s : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (s.isBlank()) continue;
+                Line line;
+                try {
+                    line = JSON.readValue(s, Line.class);
+                } catch (IOException e) {
+                    continue;   // torn last line from a crash mid-append
+                }
+                if ("END".equals(line.op())) {
+                    open.put(line.matchId(), new Entry(line.matchId(), line.winnerAccountId(),
+                            Instant.ofEpochMilli(line.endedAtMs()), line.results() == null ? List.of() : line.results()));
+                } else if ("DONE".equals(line.op())) {
+                    open.remove(line.matchId());
+                }
+            }
+        }
+
+        synchronized (lock) {
+            open.values().forEach(e -> queue.add(new Pending(e)));
+            if (queue.isEmpty()) truncate();
+        }
+        if (!open.isEmpty()) {
+            log.info("Match outbox: {} ended match(es) left from the last run, writing them now", open.size());
+        }
+    }
+
+    /**
+     * Group commit (writer thread): one force() for every END line submit() appended since the last one.
+     * Runs outside the lock so submit() never waits on the disk; only the writer thread truncates or closes
+     * the channel while it is running.
+     */
+    private void sync()
+    {
+        FileChannel ch;
+        synchronized (lock) {
+            if (!unsynced) return;
+            ch = channel;
+            unsynced = false;
+        }
+        try {
+            ch.force(false);
+            syncs.increment();
+        } catch (IOException e) {
+            synchronized (lock) {
+                unsynced = true;   // try again on the next flush
+            }
+            fileErrors.increment();
+            log.warn("Match outbox: cannot sync " + file, e);
+        }
+    }
+
+    /**
+     * Append and fsync one DONE line per written entry (writer thread, outside the lock). A DONE line lost
+     * to a crash or a failed write only means replay() writes that match to the database again.
+     */
+    private void markDone(List<Pending> done)
+    {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(32 * done.size());
+            for (Pending p : done) out.write(encode(new Line("DONE", p.entry.matchId(), null, null, null)));
+            ByteBuffer buf = ByteBuffer.wrap(out.toByteArray());
+            FileChannel ch;
+            synchronized (lock) {
+                ch = channel();
+            }
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+        } catch (IOException e) {
+            fileErrors.increment();
+            log.warn("Match outbox: cannot write " + file, e);
+        }
+    }
+
+    /**
+     * Empty the file once nothing is pending (writer thread, outside the lock). An END line submit() appends
+     * while the truncate runs may be cut with it, so every entry submitted meanwhile is appended again;
+     * a duplicate END line is harmless to replay().
+     */
+    private void truncateIfIdle()
+    {
+        FileChannel ch;
+        long seen;
+        synchronized (lock) {
+            if (!queue.isEmpty() || channel == null) return;
+            ch = channel;
+            seen = submitted;
+        }
+        try {
+            ch.truncate(0);
+        } catch (IOException e) {
+            fileErrors.increment();
+            log.warn("Match outbox: cannot truncate " + file, e);
+            return;
+        }
+        synchronized (lock) {
+            if (submitted == seen) return;
+            try {
+                for (Pending p : queue) append(endLine(p.entry));
+                unsynced = true;
+            } catch (UncheckedIOException ex) {
+                fileErrors.increment();
+                log.warn(ex.getMessage(), ex.getCause());
+            }
+        }
+    }
+
+    private FileChannel channel() throws IOException
+    {
+        if (channel == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void append(Line line)
+    {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(encode(line));
+            FileChannel ch = channel();
+            while (buf.hasRemaining()) ch.write(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Match outbox: cannot write " + file, e);
+        }
+    }
+
+    private static Line endLine(Entry e)
+    {
+        return new Line("END", e.matchId(), e.winnerAccountId(), e.endedAt().toEpochMilli(), e.results());
+    }
+
+    /** One JSON line, newline included. */
+    private static byte[] encode(Line line) throws IOException
+    {
+        byte[] json = JSON.writeValueAsBytes(line);
+        byte[] out = Arrays.copyOf(json, json.length + 1);
+        out[json.length] = '\n';
+        return out;
+    }
+
+    private void truncate()
+    {
+        try {
+            if (channel != null || Files.exists(file)) channel().truncate(0);
+        } catch (IOException e) {
+            fileErrors.increment();
+            log.warn("Match outbox: cannot truncate " + file, e);
+        }
+    }
+}
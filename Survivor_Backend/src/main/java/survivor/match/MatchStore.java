@@ -26,5 +26,8 @@ public interface MatchStore
     // persist final per-player results
     void writeResults(long matchId, List<ParticipantResult> results);
 
+    // end + results in one transaction, at most once per match; false if already recorded or no such match
+    boolean recordEnd(long matchId, Integer winnerAccountId, Instant endedAt, List<ParticipantResult> results);
+
     // (optional, nice later) boolean isParticipant(long matchId, int accountId);
 }
\ No newline at end of file
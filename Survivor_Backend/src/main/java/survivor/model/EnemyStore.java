@@ -0,0 +1,209 @@
+package survivor.model;
+
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.shared.IntIntMap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * All enemies of one match, stored as parallel primitive arrays (structure of arrays).
+ *
+ * - Slot i holds one enemy; slots are dense (0..size-1) and in spawn order.
+ * - Systems loop over slots and read/write fields directly: no Vec2 per step, no pointer chasing.
+ * - Dead enemies keep their slot until compact() (end of tick), which also fixes the id -> slot index.
+ * - EnemyState remains the standalone object form (tests, adapters); add(EnemyState) copies one in.
+ *
+ * Single writer: only the tick thread that owns the match touches a store.
+ */
+public final class EnemyStore
+{
+    private static final EnemyType[] TYPES = EnemyType.values();
+    private static final byte ACTIVE = 1, DEAD = 2;
+
+    private int size;
+    private int deadCount;
+
+    private int[] id;
+    private double[] x, y, vx, vy, radius;
+    private int[] hp;
+    private byte[] type;
+    private byte[] flags;
+    private long[] lastAttackAt, lastContactAt;
+    private Stats[] stats;
+
+    private final IntIntMap slots;
+
+    public EnemyStore() { this(64); }
+
+    public EnemyStore(int capacity)
+    {
+        allocate(Math.max(4, capacity));
+        slots = new IntIntMap(Math.max(4, capacity));
+    }
+
+    // -------- spawning --------
+
+    /** Append a fresh (asleep, undamaged) enemy; returns its slot. */
+    public int add(int enemyId, Vec2 pos, Stats st, int hitPoints, EnemyType t, double radiusPx)
+    {
+        if (size == id.length) grow();
+        int i = size++;
+        id[i] = enemyId;
+        x[i] = pos.x(); y[i] = pos.y();
+        vx[i] = 0; vy[i] = 0;
+        radius[i] = radiusPx;
+        hp[i] = hitPoints;
+        type[i] = (byte) t.ordinal();
+        flags[i] = 0;
+        lastAttackAt[i] = 0; lastContactAt[i] = 0;
+        stats[i] = st;
+        slots.put(enemyId, i);
+        return i;
+    }
+
+    /** Copy a standalone EnemyState in, including its runtime state. */
+    public int add(EnemyState e)
+    {
+        int i = add(e.id(), e.pos(), e.stats(), e.hp(), e.type(), e.radiusPx());
+        vx[i] = e.vel().x(); vy[i] = e.vel().y();
+        setActive(i, e.active());
+        if (e.isDead()) { flags[i] |= DEAD; deadCount++; }
+        lastAttackAt[i] = e.lastAttackAt();
+        lastContactAt[i] = e.lastContactAt();
+        return i;
+    }
+
+    // -------- lookup --------
+
+    public int size() { return size; }
+
+    /** Slot of the enemy with this id, or -1. */
+    public int slotOf(int enemyId) { return slots.get(enemyId, -1); }
+
+    /** Dead enemies still occupying slots (reclaimed by compact()). */
+    public int deadCount() { return deadCount; }
+
+    // -------- per-slot fields --------
+
+    public int id(int i) { return id[i]; }
+    public double x(int i) { return x[i]; }
+    public double y(int i) { return y[i]; }
+    public double vx(int i) { return vx[i]; }
+    public double vy(int i) { return vy[i]; }
+    public double radiusPx(int i) { return radius[i]; }
+    public int hp(int i) { return hp[i]; }
+    public EnemyType type(int i) { return TYPES[type[i]]; }
+    public Stats stats(int i) { return stats[i]; }
+    public boolean isDead(int i) { return (flags[i] & DEAD) != 0; }
+    public boolean isActive(int i) { return (flags[i] & ACTIVE) != 0; }
+    public long lastAttackAt(int i) { return lastAttackAt[i]; }
+    public long lastContactAt(int i) { return lastContactAt[i]; }
+
+    public void setPos(int i, double px, double py) { x[i] = px; y[i] = py; }
+    public void setVel(int i, double vxi, double vyi) { vx[i] = vxi; vy[i] = vyi; }
+    public void setLastAttackAt(int i, long t) { lastAttackAt[i] = t; }
+    public void setLastContactAt(int i, long t) { lastContactAt[i] = t; }
+
+    public void setActive(int i, boolean v)
+    {
+        if (v) flags[i] |= ACTIVE; else flags[i] &= ~ACTIVE;
+    }
+
+    /** Same rules as EnemyState.applyDamage(); returns true if this hit killed the enemy. */
+    public boolean applyDamage(int i, int dmg)
+    {
+        if (isDead(i)) return false;
+        hp[i] -= dmg;
+        if (hp[i] > 0) return false;
+        hp[i] = 0;
+        flags[i] |= DEAD;
+        deadCount++;
+        return true;
+    }
+
+    /** Same steering as EnemyState.seek(). */
+    public void seek(int i, double tx, double ty)
+    {
+        double dx = tx - x[i], dy = ty - y[i];
+        double len = Math.hypot(dx, dy);
+        double speed = Math.max(20, stats[i].moveSpeed()) * 0.8;
+        if (len == 0.0) { vx[i] = 0; vy[i] = 0; return; }
+        vx[i] = dx / len * speed;
+        vy[i] = dy / len * speed;
+    }
+
+    // -------- reclamation --------
+
+    /**
+     * Remove dead enemies, keeping survivors in order, and fix the id index.
+     * onRemoved gets each reclaimed id. Returns the number removed.
+     */
+    public int compact(IntConsumer onRemoved)
+    {
+        if (deadCount == 0) return 0;
+        int w = 0;
+        for (int r = 0; r < size; r++)
+        {
+            if ((flags[r] & DEAD) != 0)
+            {
+                slots.remove(id[r], -1);
+                if (onRemoved != null) onRemoved.accept(id[r]);
+                continue;
+            }
+            if (w != r) move(r, w);
+            w++;
+        }
+        int removed = size - w;
+        Arrays.fill(stats, w, size, null);
+        size = w;
+        deadCount = 0;
+        return removed;
+    }
+
+    private void move(int from, int to)
+    {
+        id[to] = id[from];
+        x[to] = x[from]; y[to] = y[from];
+        vx[to] = vx[from]; vy[to] = vy[from];
+        radius[to] = radius[from];
+        hp[to] = hp[from];
+        type[to] = type[from];
+        flags[to] = flags[from];
+        lastAttackAt[to] = lastAttackAt[from];
+        lastContactAt[to] = lastContactAt[from];
+        stats[to] = stats[from];
+        slots.put(id[to], to);
+    }
+
+    // -------- storage --------
+
+    private void allocate(int cap)
+    {
+        id = new int[cap];
+        x = new double[cap]; y = new double[cap];
+        vx = new double[cap]; vy = new double[cap];
+        radius = new double[cap];
+        hp = new int[cap];
+        type = new byte[cap];
+        flags = new byte[cap];
+        lastAttackAt = new long[cap]; lastContactAt = new long[cap];
+        stats = new Stats[cap];
+    }
+
+    private void grow()
+    {
+        int cap = id.length * 2;
+        id = Arrays.copyOf(id, cap);
+        x = Arrays.copyOf(x, cap); y = Arrays.copyOf(y, cap);
+        vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap);
+        radius = Arrays.copyOf(radius, cap);
+        hp = Arrays.copyOf(hp, cap);
+        type = Arrays.copyOf(type, cap);
+        flags = Arrays.copyOf(flags, cap);
+        lastAttackAt = Arrays.copyOf(lastAttackAt, cap);
+        lastContactAt = Arrays.copyOf(lastContactAt, cap);
+        stats = Arrays.copyOf(stats, cap);
+    }
+}
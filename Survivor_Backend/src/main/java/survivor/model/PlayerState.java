@@ -4,6 +4,7 @@ import survivor.combat.*;
 import survivor.shared.AttackStyle; // or wherever your enum lives
 import survivor.runtime.UpgradeGenerator;
 import survivor.runtime.UpgradeType;
+import survivor.shared.IntLongMap;
 
 import java.util.*;
 
@@ -14,7 +15,7 @@ public class PlayerState implements
 
     private final int id;
     private Vec2 pos;
-    private Vec2 vel = new Vec2(0,0);
+    private double velX, velY;
     private Vec2 lastDir = new Vec2(1,0);
 
     private float moveX, moveY;
@@ -48,7 +49,7 @@ public class PlayerState implements
 
     // ---- Orbit weapon tracking ----
     private double orbitAngle = 0.0;  // Current angle of the orbiting orb (in radians)
-    private final Map<Integer, Long> orbitLastHitTime = new HashMap<>();  // Per-enemy cooldown tracking
+    private final IntLongMap orbitLastHitTime = new IntLongMap();  // Per-enemy cooldown tracking (no boxing)
 
     //simple circle hitbox for the player
     private final double radiusPx = 12.0;
@@ -63,15 +64,6 @@ public class PlayerState implements
     {
         // While choosing an upgrade, ignore movement inputs entirely
         if (choosingUpgrade) {
-            // #region agent log
-            try (var fw = new java.io.FileWriter("C:\\Users\\jh_dr\\OneDrive\\Desktop\\School\\Git\\3_rasel_6\\Backend\\Survivor_Backend\\.cursor\\debug.log", true);
-                 var bw = new java.io.BufferedWriter(fw)) {
-                String payload = "{\"sessionId\":\"debug-session\",\"runId\":\"run1\",\"hypothesisId\":\"H3\",\"location\":\"PlayerState.java:setMove\",\"message\":\"movement_ignored_while_choosing_upgrade\",\"data\":{\"id\":" + id + ",\"seq\":" + seq + "},\"timestamp\":" + System.currentTimeMillis() + "}";
-                bw.write(payload);
-                bw.newLine();
-                System.out.println(payload);
-            } catch (Exception ignored) {}
-            // #endregion
             return;
         }
 
@@ -87,8 +79,9 @@ public class PlayerState implements
     public float moveX(){ return moveX; }
     public float moveY(){ return moveY; }
     public void setPos(Vec2 p){ this.pos = p; }
-    public void setVel(Vec2 v){ this.vel = v; }
-    public Vec2 vel(){ return vel; }
+    public void setVel(Vec2 v){ setVel(v.x(), v.y()); }
+    public void setVel(double vx, double vy){ velX = vx; velY = vy; }
+    public Vec2 vel(){ return new Vec2(velX, velY); }
     public Vec2 lastDir(){ return lastDir; }
 
     public void applyDamage(int dmg){ if (dead) return; hp -= dmg; if (hp <= 0){ hp = 0; dead = true; } }
@@ -101,14 +94,18 @@ public class PlayerState implements
     @Override public AttackStyle effectiveStyle(){ return style; }
     @Override public long lastAttackAt(){ return lastAttackAt; }
     @Override public void setLastAttackAt(long t){ lastAttackAt = t; }
-    @Override public Vec2 aimDir(){ return (Math.abs(moveX)>0.0001 || Math.abs(moveY)>0.0001) ? new Vec2(moveX,moveY).norm() : lastDir; }
+    // setMove() keeps lastDir at the normalized move input whenever there is one, so this is the
+    // movement dir if moving, else the last non-zero one - without a Vec2 per call
+    @Override public Vec2 aimDir(){ return lastDir; }
     @Override public boolean isDead(){ return dead; }
 
     // ---- Orbit weapon methods for AttackSystem.PlayerView ----
     @Override public double orbitAngle(){ return orbitAngle; }
     @Override public void setOrbitAngle(double angle){ this.orbitAngle = angle; }
-    @Override public long getOrbitLastHitTime(int enemyId){ return orbitLastHitTime.getOrDefault(enemyId, 0L); }
+    @Override public long getOrbitLastHitTime(int enemyId){ return orbitLastHitTime.get(enemyId, 0L); }
     @Override public void setOrbitLastHitTime(int enemyId, long time){ orbitLastHitTime.put(enemyId, time); }
+    /** Drop orbit cooldown state for an enemy that no longer exists. */
+    public void forgetEnemy(int enemyId){ orbitLastHitTime.remove(enemyId, 0L); }
 
     // ---- EnemyAiSystem.PlayerActor ----
     @Override public double radiusPx(){ return radiusPx; }
@@ -156,16 +153,6 @@ public class PlayerState implements
         level++;
         xpToNext = 100 + level * 50;
 
-        // #region agent log
-        try (var fw = new java.io.FileWriter("C:\\Users\\jh_dr\\OneDrive\\Desktop\\School\\Git\\3_rasel_6\\Backend\\Survivor_Backend\\.cursor\\debug.log", true);
-             var bw = new java.io.BufferedWriter(fw)) {
-            String payload = "{\"sessionId\":\"debug-session\",\"runId\":\"run1\",\"hypothesisId\":\"H4\",\"location\":\"PlayerState.java:levelUp\",\"message\":\"level_up\",\"data\":{\"id\":" + id + ",\"level\":" + level + ",\"xp\":" + xp + ",\"xpToNext\":" + xpToNext + "},\"timestamp\":" + System.currentTimeMillis() + "}";
-            bw.write(payload);
-            bw.newLine();
-            System.out.println(payload);
-        } catch (Exception ignored) {}
-        // #endregion
-
         // Freeze + invincible during upgrade choice
         choosingUpgrade = true;
         invincible = true;
@@ -178,16 +165,6 @@ public class PlayerState implements
     public void applyUpgrade(UpgradeType type) {
         if (type == null) return;
 
-        // #region agent log
-        try (var fw = new java.io.FileWriter("C:\\Users\\jh_dr\\OneDrive\\Desktop\\School\\Git\\3_rasel_6\\Backend\\Survivor_Backend\\.cursor\\debug.log", true);
-             var bw = new java.io.BufferedWriter(fw)) {
-            String payload = "{\"sessionId\":\"debug-session\",\"runId\":\"run1\",\"hypothesisId\":\"H1\",\"location\":\"PlayerState.java:applyUpgrade\",\"message\":\"apply_upgrade_called\",\"data\":{\"id\":" + id + ",\"type\":\"" + type + "\",\"choosingUpgrade\":" + choosingUpgrade + ",\"invincible\":" + invincible + "},\"timestamp\":" + System.currentTimeMillis() + "}";
-            bw.write(payload);
-            bw.newLine();
-            System.out.println(payload);
-        } catch (Exception ignored) {}
-        // #endregion
-
         switch (type) {
             case DAMAGE_UP -> {
                 // +1% damage each time
@@ -213,15 +190,5 @@ public class PlayerState implements
         // Done choosing – unfreeze + remove invincibility
         choosingUpgrade = false;
         invincible = false;
-
-        // #region agent log
-        try (var fw = new java.io.FileWriter("C:\\Users\\jh_dr\\OneDrive\\Desktop\\School\\Git\\3_rasel_6\\Backend\\Survivor_Backend\\.cursor\\debug.log", true);
-             var bw = new java.io.BufferedWriter(fw)) {
-            String payload = "{\"sessionId\":\"debug-session\",\"runId\":\"run1\",\"hypothesisId\":\"H2\",\"location\":\"PlayerState.java:applyUpgrade\",\"message\":\"apply_upgrade_completed\",\"data\":{\"id\":" + id + ",\"type\":\"" + type + "\",\"choosingUpgrade\":" + choosingUpgrade + ",\"invincible\":" + invincible + "},\"timestamp\":" + System.currentTimeMillis() + "}";
-            bw.write(payload);
-            bw.newLine();
-            System.out.println(payload);
-        } catch (Exception ignored) {}
-        // #endregion
     }
 }
@@ -53,23 +53,18 @@ public class UserProgressController
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable Integer id, @Valid @RequestBody ProgressUpdateDTO req)
     {
-        var p = progressRepo.findById(id)
-                .orElseThrow(() -> new NotFoundException("Account progress not found"));
+        int c = req.getCoins() == null ? 0 : req.getCoins();
+        int s = req.getTotalScore() == null ? 0 : req.getTotalScore();
+        if (c < 0) throw new BadRequestException("coins must be >= 0");
+        if (s < 0) throw new BadRequestException("totalScore must be >= 0");
 
-        if (req.getCoins() != null)
-        {
-            int c = req.getCoins();
-            if (c < 0) throw new BadRequestException("coins must be >= 0");
-            p.setCoins(p.getCoins() + c);
-        }
-        if (req.getTotalScore() != null)
+        // Added in SQL, so a match ending or a purchase at the same time isn't overwritten
+        if (progressRepo.addById(id, c, s, java.time.LocalDateTime.now()) == 0)
         {
-            int s = req.getTotalScore();
-            if (s < 0) throw new BadRequestException("totalScore must be >= 0");
-            p.setTotalScore(p.getTotalScore() + s);
+            throw new NotFoundException("Account progress not found");
         }
-
-        var saved = progressRepo.save(p);
+        var saved = progressRepo.findById(id)
+                .orElseThrow(() -> new NotFoundException("Account progress not found"));
 
         var accountId = saved.getAccount().getId();
         long higher = progressRepo.countWithHigherScore(accountId);
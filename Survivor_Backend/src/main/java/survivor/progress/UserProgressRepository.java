@@ -2,7 +2,13 @@ package survivor.progress;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +34,56 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Inte
 
     // Deletes the UserProgress row whose foreign key account.id == :accountId
     void deleteByAccount_Id(Integer accountId);
+
+    // ----- Atomic mutations -----
+    // Coins and score only change in SQL (coins = coins + :delta), never read-modify-write in Java,
+    // so concurrent writers (match end, purchase, /progress) cannot lose each other's updates.
+    // Bulk updates skip @PreUpdate, hence the explicit updatedAt. Each returns the number of rows changed.
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+  update UserProgress p set p.coins = p.coins + :coins, p.totalScore = p.totalScore + :score, p.updatedAt = :now
+  where p.id = :id
+""")
+    int addById(@Param("id") Integer id, @Param("coins") int coins, @Param("score") int score,
+                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+  update UserProgress p set p.coins = p.coins + :coins, p.totalScore = p.totalScore + :score, p.updatedAt = :now
+  where p.account.id = :accountId
+""")
+    int addByAccount(@Param("accountId") Integer accountId, @Param("coins") int coins, @Param("score") int score,
+                     @Param("now") LocalDateTime now);
+
+    // Conditional debit: 0 rows if the balance is short (or there is no progress row)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+  update UserProgress p set p.coins = p.coins - :amount, p.updatedAt = :now
+  where p.account.id = :accountId and p.coins >= :amount
+""")
+    int debitCoins(@Param("accountId") Integer accountId, @Param("amount") int amount,
+                   @Param("now") LocalDateTime now);
+
+    // One statement per match: credits every listed player with the coinsEarned / score on their
+    // MatchParticipant row (written just before, in the same transaction)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+  update UserProgress p
+  set p.coins = p.coins + coalesce((select mp.coinsEarned from MatchParticipant mp
+                                    where mp.match.id = :matchId and mp.accountId = p.account.id), 0),
+      p.totalScore = p.totalScore + coalesce((select mp.score from MatchParticipant mp
+                                              where mp.match.id = :matchId and mp.accountId = p.account.id), 0),
+      p.updatedAt = :now
+  where p.account.id in :accountIds
+""")
+    int addMatchResults(@Param("matchId") long matchId, @Param("accountIds") Collection<Integer> accountIds,
+                        @Param("now") LocalDateTime now);
+
+    @Query("select p.coins from UserProgress p where p.account.id = :accountId")
+    Optional<Integer> findCoinsByAccount_Id(@Param("accountId") Integer accountId);
 }
@@ -1,8 +1,11 @@
 package survivor.runtime;
 
 import survivor.combat.AttackSystem;
+import survivor.combat.HitBuffer;
 import survivor.model.PlayerState;
 import survivor.model.EnemyState;
+import survivor.model.EnemyStore;
+import survivor.model.EnemyType;
 
 import java.util.*;
 
@@ -14,6 +17,7 @@ public final class CombatResolve
 {
     private CombatResolve(){}
 
+    /** Resolve hits against standalone EnemyState objects (each target found by scanning the list). */
     public static MatchEvents apply(
             List<AttackSystem.Hit> playerHits,
             List<AttackSystem.Hit> enemyHits,
@@ -21,33 +25,101 @@ public final class CombatResolve
             List<EnemyState> enemies
     )
     {
-        List<DamageEvent> damages = new ArrayList<>();
-        List<DeathEvent> deaths = new ArrayList<>();
+        var events = new MatchEvents(new ArrayList<>(), new ArrayList<>());
+        resolve(buffer(playerHits), buffer(enemyHits), players, new Targets() {
+            public int find(int id) {
+                for (int i = 0; i < enemies.size(); i++) if (enemies.get(i).id() == id) return i;
+                return -1;
+            }
+            public boolean isDead(int t) { return enemies.get(t).isDead(); }
+            public boolean damage(int t, int dmg) {
+                var e = enemies.get(t);
+                boolean wasAlive = !e.isDead();
+                e.applyDamage(dmg);
+                return wasAlive && e.isDead();
+            }
+            public EnemyType type(int t) { return enemies.get(t).type(); }
+        }, events);
+        return events;
+    }
+
+    /**
+     * Resolve one step's hits against a match's enemies, appending to `into` (whose lists must be
+     * mutable). Allocates nothing beyond the events themselves; MatchRuntime keeps one Targets per match.
+     */
+    static void apply(
+            HitBuffer playerHits,
+            HitBuffer enemyHits,
+            Map<Integer, PlayerState> players,
+            Targets enemies,
+            MatchEvents into
+    )
+    {
+        resolve(playerHits, enemyHits, players, enemies, into);
+    }
+
+    /** Targets over an EnemyStore (found through its id -> slot index). */
+    static Targets targets(EnemyStore enemies)
+    {
+        return new Targets() {
+            public int find(int id) { return enemies.slotOf(id); }
+            public boolean isDead(int t) { return enemies.isDead(t); }
+            public boolean damage(int t, int dmg) { return enemies.applyDamage(t, dmg); }
+            public EnemyType type(int t) { return enemies.type(t); }
+        };
+    }
+
+    private static HitBuffer buffer(List<AttackSystem.Hit> hits)
+    {
+        HitBuffer out = new HitBuffer(hits.size());
+        for (var h : hits) out.add(h.attackerId(), h.targetId(), h.damage());
+        return out;
+    }
+
+    /** The few enemy operations hit resolution needs, over either enemy representation. */
+    interface Targets
+    {
+        int find(int id);                   // -1 if absent
+        boolean isDead(int t);
+        boolean damage(int t, int dmg);     // true if this hit killed it
+        EnemyType type(int t);
+    }
+
+    private static void resolve(
+            HitBuffer playerHits,
+            HitBuffer enemyHits,
+            Map<Integer, PlayerState> players,
+            Targets enemies,
+            MatchEvents into
+    )
+    {
+        List<DamageEvent> damages = into.damages();
+        List<DeathEvent> deaths = into.deaths();
 
         // player → enemy
-        for (var h : playerHits)
+        for (int h = 0; h < playerHits.size(); h++)
         {
-            EnemyState e = findEnemy(enemies, h.targetId());
-            if (e == null || e.isDead()) continue;
+            int targetId = playerHits.targetId(h);
+            int t = enemies.find(targetId);
+            if (t < 0 || enemies.isDead(t)) continue;
 
-            PlayerState attacker = players.get(h.attackerId());
-            int appliedDamage = h.damage();
+            PlayerState attacker = players.get(playerHits.attackerId(h));
+            int appliedDamage = playerHits.damage(h);
             if (attacker != null) {
                 appliedDamage = (int)Math.round(appliedDamage * attacker.damageMultiplier());
             }
 
-            boolean wasAlive = !e.isDead();
-            e.applyDamage(appliedDamage);
-            damages.add(new DamageEvent(h.targetId(), "enemy", appliedDamage));
+            boolean killed = enemies.damage(t, appliedDamage);
+            damages.add(new DamageEvent(targetId, "enemy", appliedDamage));
             
             // Award coins, score, and XP for killing enemies
-            if (wasAlive && e.isDead()) {
-                deaths.add(new DeathEvent(h.targetId(), "enemy"));
+            if (killed) {
+                deaths.add(new DeathEvent(targetId, "enemy"));
                 
                 PlayerState killer = attacker;
                 if (killer != null && !killer.isDead()) {
                     // Score is always awarded
-                    int scoreReward = switch (e.type()) {
+                    int scoreReward = switch (enemies.type(t)) {
                         case BUMPER -> 20;  // Basic enemy
                         case SWIPER -> 30;  // Slightly tougher
                         default -> 20;
@@ -57,7 +129,7 @@ public final class CombatResolve
                     // Coins are chance-based (not guaranteed)
                     double coinDropChance = 0.4; // 40% chance for regular enemies
                     if (Math.random() < coinDropChance) {
-                        int coinReward = switch (e.type()) {
+                        int coinReward = switch (enemies.type(t)) {
                             case BUMPER -> 2;  // Basic enemy
                             case SWIPER -> 5;  // Slightly tougher
                             default -> 2;
@@ -73,26 +145,20 @@ public final class CombatResolve
         }
 
         // enemy → player
-        for (var h : enemyHits)
+        for (int h = 0; h < enemyHits.size(); h++)
         {
-            PlayerState p = players.get(h.targetId());
+            int targetId = enemyHits.targetId(h);
+            PlayerState p = players.get(targetId);
             if (p == null || p.isDead()) continue;
 
             // NEW: invincibility during upgrade choice
             if (p.isInvincible()) continue;
 
-            p.applyDamage(h.damage());
-            damages.add(new DamageEvent(h.targetId(), "player", h.damage()));
-            if (p.isDead()) deaths.add(new DeathEvent(h.targetId(), "player"));
+            int dmg = enemyHits.damage(h);
+            p.applyDamage(dmg);
+            damages.add(new DamageEvent(targetId, "player", dmg));
+            if (p.isDead()) deaths.add(new DeathEvent(targetId, "player"));
         }
-
-        return new MatchEvents(damages, deaths);
-    }
-
-    private static EnemyState findEnemy(List<EnemyState> enemies, int id)
-    {
-        for (var e : enemies) if (e.id()==id) return e;
-        return null;
     }
 
     // Simple event DTOs (broadcast over /topic/match.{id}.game as needed)
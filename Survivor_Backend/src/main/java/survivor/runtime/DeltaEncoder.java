@@ -0,0 +1,223 @@
+package survivor.runtime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import survivor.runtime.SnapshotBuilder.EntityView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delta-encodes snapshots against the last tick a viewer acknowledged.
+ *
+ * - Each viewer (a player's accountId) keeps a ring of its last HISTORY frames,
+ *   stored as sorted ids with quantized (whole px) positions and hp.
+ * - A frame is encoded against the acknowledged tick: entities that entered (full view), changed (only the
+ *   fields that differ) or left. Clients keep the frames they received and apply a delta to the one named
+ *   by baseTick.
+ * - A keyframe (everything, baseTick 0) goes out when there is no usable ack - none yet, or older than the
+ *   ring - and every KEYFRAME_INTERVAL ticks regardless.
+ *
+ * encode() runs on the match's tick thread; acknowledge() may be called from any thread.
+ */
+public final class DeltaEncoder
+{
+    public static final int HISTORY = 64;               // ~3 s at 20 Hz
+    public static final int KEYFRAME_INTERVAL = 100;    // 5 s at 20 Hz
+
+    private final Map<Integer, Viewer> viewers = new HashMap<>();
+    private final Map<Integer, Long> acks = new ConcurrentHashMap<>();
+
+    // encode() scratch
+    private long[] order = new long[64];
+    private EntityView[] sorted = new EntityView[64];
+
+    /** Viewer reports the newest tick it has received (older or repeated acks are ignored). */
+    public void acknowledge(int viewer, long tick)
+    {
+        acks.merge(viewer, tick, Math::max);
+    }
+
+    /** Newest tick the viewer acknowledged, or 0 if none. */
+    public long ackedTick(int viewer)
+    {
+        Long t = acks.get(viewer);
+        return t == null ? 0 : t;
+    }
+
+    public void forget(int viewer)
+    {
+        viewers.remove(viewer);
+        acks.remove(viewer);
+    }
+
+    /**
+     * Record this tick's entities for `viewer` and encode them against its frame at `baseTick`
+     * (0, or a tick no longer in the ring, gives a keyframe).
+     */
+    public Delta encode(int viewer, long tick, long baseTick, List<EntityView> players, List<EntityView> enemies)
+    {
+        Viewer v = viewers.computeIfAbsent(viewer, k -> new Viewer());
+        Frame base = v.base(baseTick, tick);
+        boolean keyframe = base == null;
+
+        Frame cur = v.frames[(int)(tick % HISTORY)];
+        cur.tick = tick;
+
+        Section p, e;
+        if (keyframe)
+        {
+            v.lastKeyframe = tick;
+            record(cur.players, players);
+            record(cur.enemies, enemies);
+            p = new Section(players, List.of(), NONE);
+            e = new Section(enemies, List.of(), NONE);
+            return new Delta(tick, 0, p, e);
+        }
+        p = diff(base.players, cur.players, players);
+        e = diff(base.enemies, cur.enemies, enemies);
+        return new Delta(tick, baseTick, p, e);
+    }
+
+    /**
+     * Enemies of the frame encode() will diff this viewer's `tick` against, or null if it will send a
+     * keyframe. Valid until that encode() call; SnapshotBudget costs its picks against it.
+     */
+    Quantized enemyBase(int viewer, long tick, long baseTick)
+    {
+        Viewer v = viewers.get(viewer);
+        Frame base = v == null ? null : v.base(baseTick, tick);
+        return base == null ? null : base.enemies;
+    }
+
+    // -------- internals --------
+
+    /** Fill `out` from `views` sorted by id; leaves the same views, in that order, in `sorted`. */
+    private void record(Quantized out, List<EntityView> views)
+    {
+        int n = views.size();
+        if (order.length < n)
+        {
+            order = new long[Math.max(n, order.length * 2)];
+            sorted = new EntityView[order.length];
+        }
+        for (int i = 0; i < n; i++) order[i] = ((long) views.get(i).id() << 32) | i;
+        Arrays.sort(order, 0, n);
+
+        out.ensure(n);
+        for (int k = 0; k < n; k++)
+        {
+            EntityView ev = views.get((int) order[k]);
+            sorted[k] = ev;
+            out.ids[k] = ev.id();
+            out.x[k] = (int) Math.round(ev.x());
+            out.y[k] = (int) Math.round(ev.y());
+            out.hp[k] = ev.hp();
+        }
+        out.size = n;
+    }
+
+    private Section diff(Quantized base, Quantized cur, List<EntityView> views)
+    {
+        record(cur, views);
+
+        List<EntityView> entered = new ArrayList<>();
+        List<EntityChange> changed = new ArrayList<>();
+        int[] left = NONE;
+        int leftCount = 0;
+
+        // merge-walk the two id-sorted sets
+        int i = 0, j = 0;
+        while (i < base.size || j < cur.size)
+        {
+            if (j == cur.size || (i < base.size && base.ids[i] < cur.ids[j]))
+            {
+                if (leftCount == left.length) left = Arrays.copyOf(left, Math.max(4, leftCount * 2));
+                left[leftCount++] = base.ids[i++];
+            }
+            else if (i == base.size || cur.ids[j] < base.ids[i])
+            {
+                entered.add(sorted[j++]);
+            }
+            else
+            {
+                boolean dx = base.x[i] != cur.x[j], dy = base.y[i] != cur.y[j], dhp = base.hp[i] != cur.hp[j];
+                if (dx || dy || dhp)
+                {
+                    changed.add(new EntityChange(cur.ids[j],
+                            dx ? cur.x[j] : null, dy ? cur.y[j] : null, dhp ? cur.hp[j] : null));
+                }
+                i++; j++;
+            }
+        }
+        return new Section(entered, changed, leftCount == 0 ? NONE : Arrays.copyOf(left, leftCount));
+    }
+
+    private static final int[] NONE = new int[0];
+
+    private static final class Viewer
+    {
+        final Frame[] frames = new Frame[HISTORY];
+        long lastKeyframe = Long.MIN_VALUE / 2;
+
+        Viewer() { for (int i = 0; i < HISTORY; i++) frames[i] = new Frame(); }
+
+        /** Frame to diff `now` against: the one at `baseTick`, or null when a keyframe is due. */
+        Frame base(long baseTick, long now)
+        {
+            Frame f = find(baseTick, now);
+            return f == null || now - lastKeyframe >= KEYFRAME_INTERVAL ? null : f;
+        }
+
+        /** Frame recorded at `tick`, if it is still in the ring and older than `now`. */
+        Frame find(long tick, long now)
+        {
+            if (tick <= 0 || tick >= now || now - tick >= HISTORY) return null;
+            Frame f = frames[(int)(tick % HISTORY)];
+            return f.tick == tick ? f : null;
+        }
+    }
+
+    private static final class Frame
+    {
+        long tick = -1;
+        final Quantized players = new Quantized(), enemies = new Quantized();
+    }
+
+    /** One entity set of a frame: ids ascending, positions rounded to whole px. */
+    static final class Quantized
+    {
+        int size;
+        int[] ids = new int[16], x = new int[16], y = new int[16], hp = new int[16];
+
+        /** Position of `id` in the set, or negative if it is not in it. */
+        int indexOf(int id)
+        {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        void ensure(int n)
+        {
+            if (ids.length >= n) return;
+            int cap = Math.max(n, ids.length * 2);
+            ids = new int[cap]; x = new int[cap]; y = new int[cap]; hp = new int[cap];
+        }
+    }
+
+    // -------- DTOs --------
+
+    /** baseTick 0 = keyframe: `entered` holds every entity and nothing changed or left. */
+    public record Delta(long tick, long baseTick, Section players, Section enemies)
+    {
+        public boolean keyframe() { return baseTick == 0; }
+    }
+
+    public record Section(List<EntityView> entered, List<EntityChange> changed, int[] left) {}
+
+    /** Only the fields that changed since the base frame are set (positions in whole px). */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record EntityChange(int id, Integer x, Integer y, Integer hp) {}
+}
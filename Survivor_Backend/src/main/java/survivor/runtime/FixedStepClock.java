@@ -0,0 +1,100 @@
+package survivor.runtime;
+
+/**
+ * Fixed-timestep accumulator for one match.
+ *
+ * - Real elapsed time (System.nanoTime) is accumulated and paid out in whole simulation steps.
+ * - A scheduler tick that arrives a little early (within a quarter step) still gets its step,
+ *   so normal timer jitter does not alternate 0/2 steps.
+ * - At most maxCatchUpSteps are run per advance; any backlog beyond that is dropped (clamped)
+ *   so a long GC pause cannot trigger a spiral of catch-up ticks.
+ *
+ * Counters separate "server is behind" (catchUpSteps, overruns) from
+ * "game time was lost" (droppedSteps).
+ */
+public final class FixedStepClock
+{
+    private final long stepNanos;
+    private final long earlyToleranceNanos;
+    private final int maxCatchUpSteps;
+
+    private long lastNanos;
+    private long accumulatorNanos;
+    private boolean running = false;
+
+    private long steps;
+    private long catchUpSteps;
+    private long overruns;
+    private long droppedSteps;
+    private long lastLagNanos;
+
+    public FixedStepClock(long stepNanos, int maxCatchUpSteps)
+    {
+        if (stepNanos <= 0) throw new IllegalArgumentException("stepNanos must be > 0");
+        this.stepNanos = stepNanos;
+        this.earlyToleranceNanos = stepNanos / 4;
+        this.maxCatchUpSteps = Math.max(1, maxCatchUpSteps);
+    }
+
+    public static FixedStepClock forRate(int hz, int maxCatchUpSteps)
+    {
+        return new FixedStepClock(1_000_000_000L / Math.max(1, hz), maxCatchUpSteps);
+    }
+
+    /** Start measuring from now; the first step becomes due one step later. */
+    public void start(long nowNanos)
+    {
+        lastNanos = nowNanos;
+        accumulatorNanos = 0;
+        running = true;
+    }
+
+    /**
+     * Account for real time elapsed since the last call and return how many
+     * fixed steps the simulation should run now (0..maxCatchUpSteps).
+     */
+    public int advance(long nowNanos)
+    {
+        if (!running) return 0;
+
+        long elapsed = nowNanos - lastNanos;
+        lastNanos = nowNanos;
+        if (elapsed > 0) accumulatorNanos += elapsed;
+
+        if (accumulatorNanos < stepNanos - earlyToleranceNanos) return 0;
+
+        long due = (accumulatorNanos + earlyToleranceNanos) / stepNanos;
+        accumulatorNanos -= due * stepNanos;
+        lastLagNanos = (due - 1) * stepNanos;
+
+        if (due > maxCatchUpSteps) {
+            overruns++;
+            droppedSteps += due - maxCatchUpSteps;
+            due = maxCatchUpSteps;
+        }
+        if (due > 1) catchUpSteps += due - 1;
+        steps += due;
+        return (int) due;
+    }
+
+    // -------- read-only diagnostics --------
+
+    public long getStepNanos() { return stepNanos; }
+    public double getStepSeconds() { return stepNanos / 1_000_000_000.0; }
+    public int getMaxCatchUpSteps() { return maxCatchUpSteps; }
+
+    /** Total simulation steps paid out. */
+    public long getSteps() { return steps; }
+
+    /** Extra steps run beyond one per advance (the server fell behind but caught up). */
+    public long getCatchUpSteps() { return catchUpSteps; }
+
+    /** Advances whose backlog exceeded maxCatchUpSteps. */
+    public long getOverruns() { return overruns; }
+
+    /** Steps discarded by the clamp; each one is game time that never happened. */
+    public long getDroppedSteps() { return droppedSteps; }
+
+    /** How far behind real time the last paying advance was, before clamping. */
+    public long getLastLagNanos() { return lastLagNanos; }
+}
@@ -0,0 +1,167 @@
+package survivor.runtime;
+
+import survivor.model.PlayerState;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-match inbox for player input, filled by the STOMP threads and drained by the match's tick thread
+ * at the start of every tick, so only the tick thread ever touches PlayerState.
+ *
+ * - offer() is lock-free and never blocks: a bounded ring (per-slot sequence numbers, producers claim a
+ *   slot with one CAS). When the ring is full the input is dropped and offer() returns false.
+ * - drain() coalesces moves to the highest seq per player (older moves within a tick are superseded
+ *   anyway) and applies upgrade picks in arrival order.
+ *
+ * Many producers, one consumer: only the owning tick thread calls drain().
+ */
+public final class InputMailbox
+{
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** One message from a client: a move (upgrade == null) or an upgrade pick. */
+    public record Input(int playerId, float moveX, float moveY, long seq, UpgradeType upgrade) {}
+
+    /** An upgrade pick that was applied this tick; confirmed to clients as "upgradeApplied". */
+    public record UpgradeApplied(int playerId, UpgradeType type) {}
+
+    public static Input move(int playerId, float moveX, float moveY, long seq)
+    {
+        return new Input(playerId, moveX, moveY, seq, null);
+    }
+
+    public static Input upgrade(int playerId, UpgradeType type)
+    {
+        return new Input(playerId, 0f, 0f, 0L, type);
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<Input> slots;
+    private final AtomicLongArray sequence;      // slot i is free for position p when sequence[i] == p
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long head;                           // consumer only
+    private long droppedReported;                // consumer only
+
+    // drain() scratch: latest move per player this tick (a handful of players, so a linear scan)
+    private Input[] latestMoves = new Input[4];
+    private int moveCount;
+
+    public InputMailbox()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** capacity is rounded up to a power of two. */
+    public InputMailbox(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+    }
+
+    /** Queue an input for the next tick. False if the mailbox is full and the input was dropped. */
+    public boolean offer(Input in)
+    {
+        long pos = tail.get();
+        while (true)
+        {
+            int i = (int) (pos & mask);
+            long diff = sequence.get(i) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(i, in);
+                    sequence.set(i, pos + 1);   // publishes the slot to the consumer
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Apply everything queued so far to `players`: upgrade picks in order (appended to `applied`),
+     * then each player's newest move. Inputs for players not in the map are ignored.
+     * Returns the number of inputs taken out of the mailbox.
+     */
+    public int drain(Map<Integer, PlayerState> players, List<UpgradeApplied> applied)
+    {
+        int taken = 0;
+        Input in;
+        while (taken <= mask && (in = poll()) != null)
+        {
+            taken++;
+            if (in.upgrade() != null) {
+                PlayerState p = players.get(in.playerId());
+                if (p == null) continue;
+                p.applyUpgrade(in.upgrade());
+                applied.add(new UpgradeApplied(in.playerId(), in.upgrade()));
+            } else {
+                keepLatest(in);
+            }
+        }
+
+        for (int i = 0; i < moveCount; i++)
+        {
+            Input m = latestMoves[i];
+            latestMoves[i] = null;
+            PlayerState p = players.get(m.playerId());
+            // setMove() drops input while choosing anyway; skipping it here keeps its logging off the tick
+            if (p == null || p.isChoosingUpgrade()) continue;
+            p.setMove(m.moveX(), m.moveY(), m.seq());
+        }
+        moveCount = 0;
+        return taken;
+    }
+
+    /** Inputs dropped because the mailbox was full. */
+    public long dropped()
+    {
+        return dropped.get();
+    }
+
+    /** Drops since the last call, for the game.input.dropped metric (consumer only). */
+    long newlyDropped()
+    {
+        long total = dropped.get();
+        long n = total - droppedReported;
+        droppedReported = total;
+        return n;
+    }
+
+    private Input poll()
+    {
+        int i = (int) (head & mask);
+        if (sequence.get(i) != head + 1) return null;
+        Input in = slots.get(i);
+        slots.lazySet(i, null);
+        sequence.set(i, head + mask + 1);   // free the slot for the producer one lap ahead
+        head++;
+        return in;
+    }
+
+    private void keepLatest(Input move)
+    {
+        for (int i = 0; i < moveCount; i++)
+        {
+            if (latestMoves[i].playerId() == move.playerId()) {
+                if (move.seq() >= latestMoves[i].seq()) latestMoves[i] = move;
+                return;
+            }
+        }
+        if (moveCount == latestMoves.length) latestMoves = Arrays.copyOf(latestMoves, moveCount * 2);
+        latestMoves[moveCount++] = move;
+    }
+}
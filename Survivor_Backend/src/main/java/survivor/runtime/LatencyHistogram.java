@@ -0,0 +1,77 @@
+package survivor.runtime;
+
+/**
+ * Fixed-size log-linear latency histogram (HdrHistogram-style, ~6% resolution).
+ *
+ * - Each power of two from 256 ns to ~17 s is split into 16 linear sub-buckets.
+ * - record() is a couple of bit operations and one array increment; no allocation.
+ * - Single writer (the match's tick thread); readers get a best-effort view.
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MIN_EXP = 8;    // values below 2^8 ns share the first bucket row
+    private static final int MAX_EXP = 34;   // values above 2^34 ns are clamped into the last row
+    private static final int ROWS = MAX_EXP - MIN_EXP + 1;
+
+    private final long[] counts = new long[ROWS * SUB_BUCKETS];
+    private long total;
+    private long sum;
+    private long max;
+
+    public void record(long nanos)
+    {
+        if (nanos < 0) nanos = 0;
+        counts[indexOf(nanos)]++;
+        total++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+    public double mean() { return total == 0 ? 0.0 : (double) sum / total; }
+
+    /** Upper bound (ns) of the bucket holding the given percentile (0..100). */
+    public long valueAtPercentile(double percentile)
+    {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    public void reset()
+    {
+        java.util.Arrays.fill(counts, 0);
+        total = 0; sum = 0; max = 0;
+    }
+
+    // -------- bucket math --------
+
+    private static int indexOf(long v)
+    {
+        int exp = 63 - Long.numberOfLeadingZeros(Math.max(v, 1));
+        if (exp < MIN_EXP) return 0;
+        if (exp > MAX_EXP) return ROWS * SUB_BUCKETS - 1;
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exp - MIN_EXP) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index)
+    {
+        int row = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        int exp = row + MIN_EXP;
+        long base = 1L << exp;
+        long width = base >>> SUB_BITS;
+        return base + (sub + 1L) * width - 1;
+    }
+}
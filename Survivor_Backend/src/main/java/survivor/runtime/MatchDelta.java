@@ -5,15 +5,20 @@ import survivor.runtime.SnapshotBuilder.PlayerSnapshot;
 
 /**
  * @author John Draa
- * @param events
- * @param snapshots
+ * @param events    this tick's damage/death events; the runtime refills these lists every tick,
+ *                  so consume them before the match ticks again
+ * @param upgrades  upgrade picks applied at the start of this tick (refilled every tick, like events)
+ * @param snapshots per-player views; their entity lists are reused by the next tick, like events
+ * @param tick      number of this snapshot within the match (1, 2, ...); clients acknowledge it
  */
 
 public record MatchDelta(
         CombatResolve.MatchEvents events,
+        java.util.List<InputMailbox.UpgradeApplied> upgrades,
         Map<Integer, PlayerSnapshot> snapshots,
-        boolean shouldEnd
+        boolean shouldEnd,
+        long tick
 )
 {
-    public static MatchDelta empty(){ return new MatchDelta(new CombatResolve.MatchEvents(java.util.List.of(), java.util.List.of()), java.util.Map.of(), false); }
+    public static MatchDelta empty(){ return new MatchDelta(new CombatResolve.MatchEvents(java.util.List.of(), java.util.List.of()), java.util.List.of(), java.util.Map.of(), false, 0); }
 }
@@ -2,10 +2,12 @@ package survivor.runtime;
 
 import survivor.combat.*;
 import survivor.model.EnemyState;
+import survivor.model.EnemyStore;
 import survivor.model.PlayerState;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
 
 /**
  * @author John Draa
@@ -13,35 +15,110 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class MatchRuntime {
     private static final int TILE_PX = 24;
-    private static final double DT = 1.0 / 20.0;
+    private static final int DEFAULT_HZ = 20;
+    private static final int DEFAULT_MAX_CATCH_UP_STEPS = 3;
+    private static final int GRID_CELL_PX = 64;
 
     private final long id;
     private final int R_LIGHT, R_WAKE, R_SLEEP;
 
-    private final Map<Integer, PlayerState> players = new ConcurrentHashMap<>();
-    private final List<EnemyState> enemies = Collections.synchronizedList(new ArrayList<>());
+    // Fixed simulation step; real time is paid out in these steps by the clock
+    private final FixedStepClock clock;
+    private final double dt;
+
+    // Per-phase timings of this match's ticks (written only by the tick thread)
+    private final TickProfile profile = new TickProfile();
+
+    // Single writer: only the tick shard that owns this match mutates these after start().
+    // Players are added by the lobby before start(); the volatile `started` write publishes them.
+    private final Map<Integer, PlayerState> players = new LinkedHashMap<>();
+    private final List<PlayerState> playerList = new ArrayList<>();   // same players, indexed for the systems
+
+    // Enemies live in parallel primitive arrays with their own id -> slot index
+    private final EnemyStore enemies = new EnemyStore(256);
+
+    // Enemy positions bucketed by cell; rebuilt every step once enemies have moved
+    private final SpatialGrid enemyGrid = new SpatialGrid(Physics.MAP_W, Physics.MAP_H, GRID_CELL_PX);
+
+    // Nearest player per enemy, found once per step by gating and reused for targeting
+    private final NearestPlayers nearest = new NearestPlayers();
+
+    // Recent snapshots per viewer, so each one is sent as a diff against what the client acknowledged
+    private final DeltaEncoder deltas = new DeltaEncoder();
+    private long tickNo;                         // snapshots built so far; numbers the next MatchDelta
+    private final SnapshotCodec codec = new SnapshotCodec();   // binary frames for .game.bin subscribers
+    private final ProgressTracker progress = new ProgressTracker();   // XP / upgrade options last sent per player
+    private final SnapshotBudget budget = new SnapshotBudget(deltas);   // per-viewer byte budget for enemy updates
+
+    // Moves and upgrade picks from the STOMP threads; applied by the tick thread at the start of each tick
+    private final InputMailbox inputs = new InputMailbox();
+    private final List<InputMailbox.UpgradeApplied> upgradesApplied = new ArrayList<>();   // refilled every tick
+
+    // Per-step scratch, cleared and refilled every step so the steady state allocates nothing
+    private final HitBuffer playerHits = new HitBuffer();
+    private final HitBuffer enemyHits = new HitBuffer();
+    private final CombatResolve.Targets enemyTargets = CombatResolve.targets(enemies);
+    private final SnapshotBuilder.Scratch snapshotScratch = new SnapshotBuilder.Scratch();
+
+    // This tick's events; refilled every tick, so a delta is only valid until the next tick
+    private final CombatResolve.MatchEvents events =
+            new CombatResolve.MatchEvents(new ArrayList<>(), new ArrayList<>());
 
     // Per-match world-level / wave manager (handles spawning and scaling)
     private final WorldLevelManager worldLevelManager = new WorldLevelManager();
 
-    private boolean started = false, ended = false;
+    private volatile boolean started = false, ended = false;
+    private final java.util.concurrent.atomic.AtomicBoolean endClaimed = new java.util.concurrent.atomic.AtomicBoolean();
     private long startTime;
 
+    // Simulation time since start; attack/contact cooldowns run on this, not the wall clock
+    private long simNanos;
+
     private int enemySeq = 1000;                 // simple id generator for enemies
     private int nextEnemyId() { return enemySeq++; }
 
+    // bound once: a method reference evaluated per step would allocate every time
+    private final IntSupplier enemyIds = this::nextEnemyId;
+    private final WorldLevelManager.EnemySink spawnEnemy = enemies::add;
+    private final IntConsumer forgetEnemy = enemyId -> {
+        for (int i = 0; i < playerList.size(); i++) playerList.get(i).forgetEnemy(enemyId);
+    };
+
     public MatchRuntime(long id, int light, int wake, int sleep)
+    {
+        this(id, light, wake, sleep, DEFAULT_HZ, DEFAULT_MAX_CATCH_UP_STEPS);
+    }
+
+    public MatchRuntime(long id, int light, int wake, int sleep, int tickHz, int maxCatchUpSteps)
     {
         this.id = id; this.R_LIGHT = light; this.R_WAKE = wake; this.R_SLEEP = sleep;
+        this.clock = FixedStepClock.forRate(tickHz, maxCatchUpSteps);
+        this.dt = clock.getStepSeconds();
     }
 
     public long id() { return id; }
     public Map<Integer, PlayerState> getPlayers() { return players; }
     public long getStartTime() { return startTime; }
+    public FixedStepClock clock() { return clock; }
+    public TickProfile profile() { return profile; }
+    public int enemyCount() { return enemies.size(); }
+    public DeltaEncoder deltas() { return deltas; }
+    public SnapshotCodec codec() { return codec; }
+    public ProgressTracker progress() { return progress; }
+    public long currentTick() { return tickNo; }
+    public InputMailbox inputs() { return inputs; }
+    public SnapshotBudget budget() { return budget; }
+    public double lightRadiusPx() { return R_LIGHT * (double)TILE_PX; }
 
     public boolean isStarted() { return started; }
     public boolean isEnded() { return ended; }
 
+    /**
+     * True for exactly one caller: the one that finishes the match (results, MATCH_ENDED). `ended` can't
+     * serve for this, since step() sets it on a natural end before the tick's delta is dispatched.
+     */
+    public boolean claimEnd() { return endClaimed.compareAndSet(false, true); }
+
     /** Expose current world level for websocket snapshots / clients. */
     public int getCurrentWorldLevel() {
         return worldLevelManager.getCurrentWorldLevel();
@@ -49,18 +126,32 @@ public class MatchRuntime {
 
     public void start()
     {
-        started = true;
         startTime = System.currentTimeMillis();
+        clock.start(System.nanoTime());
 
         // Start world level 1 and spawn the first wave.
         // Enemies spawn inactive; fog-of-war still controls when they wake up.
-        worldLevelManager.startFirstWave(enemies, players.values(), this::nextEnemyId);
+        worldLevelManager.startFirstWave(spawnEnemy, players.values(), enemyIds);
+        started = true;
     }
 
     public void stop()  { ended = true; }
 
-    public void addPlayer(PlayerState p) { players.put(p.id(), p); }
-    public void removePlayer(int accountId) { players.remove(accountId); }
+    public void addPlayer(PlayerState p)
+    {
+        var old = players.put(p.id(), p);
+        if (old != null) playerList.remove(old);
+        playerList.add(p);
+    }
+
+    public void removePlayer(int accountId)
+    {
+        var old = players.remove(accountId);
+        if (old != null) playerList.remove(old);
+        deltas.forget(accountId);
+        progress.forget(accountId);
+        budget.forget(accountId);
+    }
     public void addEnemy(EnemyState e) { enemies.add(e); }
 
     public java.util.Optional<survivor.model.PlayerState> player(int accountId)
@@ -68,30 +159,91 @@ public class MatchRuntime {
         return java.util.Optional.ofNullable(players.get(accountId));
     }
 
+    /**
+     * Advance by however many fixed steps real time says are due.
+     * Returns null when no step was due yet (nothing changed, nothing to send).
+     */
+    public MatchDelta advance(long nowNanos)
+    {
+        if (!started || ended) return MatchDelta.empty();
+        int steps = clock.advance(nowNanos);
+        return steps == 0 ? null : tick(steps);
+    }
+
+    /** Run exactly one fixed step. */
     public MatchDelta tick()
+    {
+        return tick(1);
+    }
+
+    /** Run `steps` fixed steps back to back, then build one snapshot of the result. */
+    public MatchDelta tick(int steps)
     {
         if (!started || ended) return MatchDelta.empty();
 
-        Physics.integrate(players.values(), DT);
-        Physics.integrateEnemies(enemies, DT);
+        profile.beginTick();
+
+        events.damages().clear();
+        events.deaths().clear();
+        upgradesApplied.clear();
+        inputs.drain(players, upgradesApplied);
+        for (int i = 0; i < steps && !ended; i++) step();
+
+        long t = System.nanoTime();
+        // the last step may have spawned a wave after the grid was built
+        if (enemyGrid.indexedLength() != enemies.size()) enemyGrid.rebuild(enemies);
+        var snaps  = SnapshotBuilder.build(playerList, enemies, enemyGrid, snapshotScratch, R_LIGHT * (double)TILE_PX);
+        t = profile.lap(TickPhase.SNAPSHOT, t);
+
+        // DEATH events and this tick's snapshot are built; the corpses can go
+        reclaimDeadEnemies();
+        profile.lap(TickPhase.RECLAIM, t);
+        profile.endTick();
+
+        return new MatchDelta(events, upgradesApplied, snaps, ended, ++tickNo);
+    }
+
+    /** One fixed step; its damage/death events are appended to `events`. */
+    private void step()
+    {
+        simNanos += clock.getStepNanos();
+        long now = startTime + simNanos / 1_000_000;
+
+        long t = System.nanoTime();
+        Physics.integrate(playerList, dt);
+        t = profile.lap(TickPhase.PHYSICS_PLAYERS, t);
+        Physics.integrateEnemies(enemies, dt);
+        t = profile.lap(TickPhase.PHYSICS_ENEMIES, t);
+        enemyGrid.rebuild(enemies);
+        t = profile.lap(TickPhase.GRID, t);
 
         EnemyAiSystem.gateActivity(
-                enemies, players.values(),
-                R_WAKE * (double)TILE_PX, R_SLEEP * (double)TILE_PX
+                enemies, playerList,
+                R_WAKE * (double)TILE_PX, R_SLEEP * (double)TILE_PX,
+                nearest
         );
+        t = profile.lap(TickPhase.AI_GATE, t);
 
-        var eHits = EnemyAiSystem.tick(
-                enemies, players.values(),
-                R_LIGHT * (double)TILE_PX, TILE_PX
+        enemyHits.clear();
+        EnemyAiSystem.tick(
+                enemies, nearest,
+                R_LIGHT * (double)TILE_PX, TILE_PX, now,
+                enemyHits
         );
+        t = profile.lap(TickPhase.AI_TICK, t);
 
-        var pHits = AttackSystem.resolveAuto(players.values(), enemies, TILE_PX);
+        playerHits.clear();
+        AttackSystem.resolveAuto(playerList, enemies, enemyGrid, TILE_PX, dt, now, playerHits);
+        t = profile.lap(TickPhase.ATTACKS, t);
 
-        var events = CombatResolve.apply(pHits, eHits, players, enemies);
+        int deathsBefore = events.deaths().size();
+        CombatResolve.apply(playerHits, enemyHits, players, enemyTargets, events);
+        t = profile.lap(TickPhase.COMBAT, t);
 
         // Check for match end condition (<1 players alive - all eliminated)
         // TODO change to <=1 players alive for production
-        long alivePlayers = players.values().stream().filter(p -> !p.isDead()).count();
+        int alivePlayers = 0;
+        for (int i = 0; i < playerList.size(); i++) if (!playerList.get(i).isDead()) alivePlayers++;
         boolean shouldEnd = alivePlayers < 1;
 
         // If match should end, mark runtime as ended immediately
@@ -102,16 +254,25 @@ public class MatchRuntime {
 
         // Update world-level progression based on enemy deaths, and spawn the
         // next wave if the current one is cleared (and the match is not ending).
-        worldLevelManager.handleDeaths(
-                events.deaths(),
-                enemies,
-                players.values(),
-                this::nextEnemyId,
-                shouldEnd
-        );
-
-        var snaps  = SnapshotBuilder.build(players.values(), enemies, R_LIGHT * (double)TILE_PX);
+        var deaths = events.deaths();
+        if (deaths.size() > deathsBefore) {
+            worldLevelManager.handleDeaths(
+                    deaths.subList(deathsBefore, deaths.size()),
+                    spawnEnemy,
+                    players.values(),
+                    enemyIds,
+                    shouldEnd
+            );
+        }
+        profile.lap(TickPhase.WORLD, t);
+    }
 
-        return new MatchDelta(events, snaps, shouldEnd);
+    /**
+     * Compact dead enemies out of the store (stable, in place; the store fixes its id index),
+     * so per-step work and memory follow live enemies rather than everything ever spawned.
+     */
+    private void reclaimDeadEnemies()
+    {
+        enemies.compact(forgetEnemy);
     }
 }
@@ -1,7 +1,9 @@
 package survivor.runtime;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import survivor.config.FogConfig;
+import survivor.model.PlayerState;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -14,10 +16,30 @@ public class MatchRuntimeRegistry
 {
     private final Map<Long, MatchRuntime> map = new ConcurrentHashMap<>();
 
+    // accountId -> matchId of the runtime the player is in, so per-player messages route without a scan
+    private final Map<Integer, Long> matchOfPlayer = new ConcurrentHashMap<>();
+
+    // Each match is pinned to one shard (by matchId) so exactly one tick worker ever writes to it
+    private final List<Map<Long, MatchRuntime>> shards;
+
+    private final int tickHz;
+    private final int maxCatchUpSteps;
+
+    public MatchRuntimeRegistry(@Value("${tick.workers:0}") int workers,
+                                @Value("${tick.rate.hz:20}") int tickHz,
+                                @Value("${tick.maxCatchUpSteps:3}") int maxCatchUpSteps)
+    {
+        this.tickHz = tickHz;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+        int n = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        List<Map<Long, MatchRuntime>> s = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) s.add(new ConcurrentHashMap<>());
+        this.shards = List.copyOf(s);
+    }
+
     public void startRuntime(long matchId, FogConfig fog)
     {
-        map.computeIfAbsent(matchId, id -> new MatchRuntime(id, fog.getLight(), fog.getWake(), fog.getSleep()))
-                .start();
+        register(matchId, fog).start();
     }
 
     /**
@@ -25,7 +47,7 @@ public class MatchRuntimeRegistry
      */
     public void createRuntime(long matchId, FogConfig fog)
     {
-        map.computeIfAbsent(matchId, id -> new MatchRuntime(id, fog.getLight(), fog.getWake(), fog.getSleep()));
+        register(matchId, fog);
     }
 
     /**
@@ -39,7 +61,66 @@ public class MatchRuntimeRegistry
         }
     }
 
+    private MatchRuntime register(long matchId, FogConfig fog)
+    {
+        return map.computeIfAbsent(matchId, id -> {
+            var rt = new MatchRuntime(id, fog.getLight(), fog.getWake(), fog.getSleep(), tickHz, maxCatchUpSteps);
+            shards.get(shardOf(id)).put(id, rt);
+            return rt;
+        });
+    }
+
     public Optional<MatchRuntime> get(long id){ return Optional.ofNullable(map.get(id)); }
     public Collection<MatchRuntime> active(){ return map.values(); }
-    public void end(long id){ map.remove(id); }
+
+    public void end(long id)
+    {
+        var rt = map.remove(id);
+        shards.get(shardOf(id)).remove(id);
+        if (rt != null) {
+            for (int accountId : List.copyOf(rt.getPlayers().keySet())) matchOfPlayer.remove(accountId, id);
+        }
+    }
+
+    // ---- players ----
+
+    /** Add a player to a registered runtime (before it starts) and index them. False if there is no such runtime. */
+    public boolean addPlayer(long matchId, PlayerState p)
+    {
+        var rt = map.get(matchId);
+        if (rt == null) return false;
+        rt.addPlayer(p);
+        matchOfPlayer.put(p.id(), matchId);
+        return true;
+    }
+
+    public void removePlayer(long matchId, int accountId)
+    {
+        var rt = map.get(matchId);
+        if (rt != null) rt.removePlayer(accountId);
+        matchOfPlayer.remove(accountId, matchId);
+    }
+
+    /** The runtime the player is currently in, if any. */
+    public Optional<MatchRuntime> forPlayer(int accountId)
+    {
+        Long matchId = matchOfPlayer.get(accountId);
+        return matchId == null ? Optional.empty() : get(matchId);
+    }
+
+    /** The runtime for a message a player addressed to `matchId`; empty if they are not in that match. */
+    public Optional<MatchRuntime> forPlayer(long matchId, int accountId)
+    {
+        Long current = matchOfPlayer.get(accountId);
+        return current != null && current == matchId ? get(matchId) : Optional.empty();
+    }
+
+    // ---- tick sharding ----
+
+    public int shardCount() { return shards.size(); }
+
+    public int shardOf(long matchId) { return Math.floorMod(Long.hashCode(matchId), shards.size()); }
+
+    /** Live view of the runtimes owned by one tick shard (no copy). */
+    public Collection<MatchRuntime> shard(int index) { return shards.get(index).values(); }
 }
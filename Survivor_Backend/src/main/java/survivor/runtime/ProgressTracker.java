@@ -0,0 +1,52 @@
+package survivor.runtime;
+
+import survivor.model.PlayerState;
+import survivor.shared.IntIntMap;
+import survivor.shared.IntLongMap;
+
+/**
+ * Per-match memory of the progress each player was last sent, so a tick's frame only carries
+ * an XP section when XP or level moved, and upgrade options once per level-up.
+ *
+ * Single writer: only the tick thread that owns the match calls this.
+ */
+public final class ProgressTracker
+{
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final IntLongMap sentXp = new IntLongMap();          // playerId -> level << 32 | xp
+    private final IntIntMap upgradeLevelSent = new IntIntMap();  // playerId -> level whose options went out
+
+    /** True (and remembered) if the player's XP or level differs from what they were last sent. */
+    public boolean xpChanged(PlayerState p)
+    {
+        long now = ((long) p.getLevel() << 32) | (p.getXp() & 0xFFFFFFFFL);
+        if (sentXp.get(p.id(), NONE) == now) return false;
+        sentXp.put(p.id(), now);
+        return true;
+    }
+
+    /**
+     * True (and remembered) the first time a player is seen choosing an upgrade at their current level.
+     * Once they have picked, the next level-up is due again.
+     */
+    public boolean upgradeDue(PlayerState p)
+    {
+        boolean choosing = p.isChoosingUpgrade()
+                && p.getCurrentUpgradeOptions() != null
+                && !p.getCurrentUpgradeOptions().isEmpty();
+        if (!choosing) {
+            upgradeLevelSent.remove(p.id(), 0);
+            return false;
+        }
+        if (upgradeLevelSent.get(p.id(), 0) == p.getLevel()) return false;
+        upgradeLevelSent.put(p.id(), p.getLevel());
+        return true;
+    }
+
+    public void forget(int playerId)
+    {
+        sentXp.remove(playerId, NONE);
+        upgradeLevelSent.remove(playerId, 0);
+    }
+}
@@ -0,0 +1,224 @@
+package survivor.runtime;
+
+import survivor.runtime.SnapshotBuilder.EntityView;
+import survivor.shared.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-viewer byte budget for the enemy part of a snapshot, with a priority accumulator.
+ *
+ * - Enemies are costed against the frame DeltaEncoder will diff against (the viewer's acked tick, or nothing
+ *   for a keyframe): one missing there enters in full, one whose whole-px state moved costs a change, the
+ *   rest cost nothing and gain nothing.
+ * - Every tick each costed enemy gains priority: a base amount (so nothing starves), more the closer it is
+ *   to the viewer, and more the further its position / hp drifted from the base.
+ * - Enemies refreshed since the base was sent go first (the client already shows that state, so holding one
+ *   back would snap it back), then the highest priorities, until the tick's bytes would pass the budget.
+ *   Refreshed enemies drop back to zero. The rest are handed to DeltaEncoder at their base state, so it sends
+ *   nothing for them; one missing from the base stays out until it wins.
+ * - A keyframe replaces the client's state, so it carries every enemy the viewer has been shown (not costed)
+ *   and admits new ones within the budget. The cap is on delta frames.
+ * - The budget adapts per viewer from acks (AIMD): halved while the viewer's ack trails the tick by more
+ *   than LAG_TICKS, otherwise grown back toward the maximum. Viewers that never ack keep the maximum.
+ *
+ * Works on the visible sets SnapshotBuilder produced, before delta encoding. Teammates are not budgeted.
+ * Single writer: only the tick thread that owns the match calls this.
+ */
+public final class SnapshotBudget
+{
+    public static final int LAG_TICKS = 10;           // ~0.5 s at 20 Hz
+
+    // priority gained per tick by a changed enemy
+    private static final double BASE_GAIN = 1.0;
+    private static final double NEAR_GAIN = 3.0;      // extra at distance 0, falling to nothing at the light radius
+    private static final double CHANGE_PX = 8.0;      // +1 per this many px drifted since the base
+    private static final double HP_GAIN = 2.0;
+
+    // what select() hands on for an enemy
+    private static final byte FRESH = 0, HOLD = 1, OMIT = 2;
+
+    // sort key: [in flight : 1][float priority bits : 31][row : 31], ascending
+    private static final long IN_FLIGHT = 1L << 62;
+    private static final long ROW = (1L << 31) - 1;
+
+    /** Estimated bytes for an enemy that enters the viewer's frame, and for a changed one. */
+    public record Cost(int entered, int changed)
+    {
+        public static final Cost JSON = new Cost(95, 30);
+        public static final Cost BINARY = new Cost(10, 6);
+    }
+
+    /**
+     * Accumulator rows for the enemies a viewer saw last tick (id -> row), rebuilt every tick from the
+     * visible list, so enemies that dropped out of sight start over if they come back.
+     */
+    private static final class Viewer
+    {
+        IntIntMap index = new IntIntMap(), nextIndex = new IntIntMap();
+        float[] priority = new float[16], nextPriority = new float[16];
+        long[] refreshed = new long[16], nextRefreshed = new long[16];    // tick last sent fresh, 0 = never
+        final List<EntityView> out = new ArrayList<>();
+        double budget;
+        long lastCut;         // tick of the last decrease; one cut per LAG_TICKS so an ack can catch up
+
+        void prepare(int n)
+        {
+            nextIndex.clear();
+            if (nextPriority.length < n) {
+                nextPriority = new float[Math.max(n, nextPriority.length * 2)];
+                nextRefreshed = new long[nextPriority.length];
+            }
+        }
+
+        void swap()
+        {
+            IntIntMap i = index; index = nextIndex; nextIndex = i;
+            float[] p = priority; priority = nextPriority; nextPriority = p;
+            long[] r = refreshed; refreshed = nextRefreshed; nextRefreshed = r;
+        }
+    }
+
+    private final DeltaEncoder deltas;
+    private final Map<Integer, Viewer> viewers = new HashMap<>();
+
+    // select() scratch, indexed by the enemy's position in the visible list
+    private long[] keys = new long[64];
+    private byte[] pick = new byte[64];
+    private int[] baseAt = new int[64];
+
+    public SnapshotBudget(DeltaEncoder deltas)
+    {
+        this.deltas = deltas;
+    }
+
+    /**
+     * The enemies to hand to DeltaEncoder for this viewer, in the order of `enemies`: fresh views for the
+     * unchanged ones and the ones that fit the budget, base-state views for the rest (call it right before
+     * encode() with the same ackedTick). The list is reused: valid until the next select() for this viewer.
+     *
+     * maxBytes <= 0 turns budgeting off and returns `enemies` as is.
+     */
+    public List<EntityView> select(int viewer, long tick, long ackedTick, double vx, double vy, double radiusPx,
+                                   List<EntityView> enemies, Cost cost, int maxBytes, int minBytes)
+    {
+        if (maxBytes <= 0) return enemies;
+
+        Viewer v = viewers.computeIfAbsent(viewer, k -> new Viewer());
+        if (v.budget == 0) v.budget = maxBytes;
+        adapt(v, tick, ackedTick, maxBytes, Math.max(cost.entered(), Math.min(minBytes, maxBytes)));
+
+        DeltaEncoder.Quantized base = deltas.enemyBase(viewer, tick, ackedTick);   // null: keyframe
+        int n = enemies.size();
+        v.prepare(n);
+        if (keys.length < n) {
+            keys = new long[Math.max(n, keys.length * 2)];
+            pick = new byte[keys.length];
+            baseAt = new int[keys.length];
+        }
+
+        int candidates = 0;
+        double r = Math.max(1.0, radiusPx);
+        for (int i = 0; i < n; i++)
+        {
+            EntityView e = enemies.get(i);
+            int row = v.index.get(e.id(), -1);
+            float priority = row < 0 ? 0 : v.priority[row];
+            long refreshed = row < 0 ? 0 : v.refreshed[row];
+            v.nextIndex.put(e.id(), i);
+            v.nextPriority[i] = priority;
+            v.nextRefreshed[i] = refreshed;
+
+            int at = base == null ? -1 : base.indexOf(e.id());
+            baseAt[i] = at;
+            if (base == null && refreshed > 0) {
+                // keyframe: keep what the client shows
+                pick[i] = FRESH;
+                v.nextPriority[i] = 0;
+                v.nextRefreshed[i] = tick;
+                continue;
+            }
+            double gain;
+            if (at < 0) {
+                gain = BASE_GAIN + NEAR_GAIN;
+                pick[i] = OMIT;
+            } else {
+                // in the whole px DeltaEncoder compares, so "unchanged" means no bytes at all
+                long dx = Math.abs(Math.round(e.x()) - base.x[at]);
+                long dy = Math.abs(Math.round(e.y()) - base.y[at]);
+                boolean hp = e.hp() != base.hp[at];
+                if (dx == 0 && dy == 0 && !hp) {
+                    pick[i] = FRESH;
+                    continue;
+                }
+                gain = BASE_GAIN + (dx + dy) / CHANGE_PX + (hp ? HP_GAIN : 0);
+                pick[i] = HOLD;
+            }
+            double dist = Math.hypot(e.x() - vx, e.y() - vy);
+            priority += (float) (gain + NEAR_GAIN * Math.max(0, 1 - dist / r));
+            v.nextPriority[i] = priority;
+
+            boolean inFlight = base != null && refreshed > ackedTick;
+            keys[candidates++] = (inFlight ? IN_FLIGHT : 0) | ((long) Float.floatToIntBits(priority) << 31) | i;
+        }
+
+        // refresh the most urgent first, as far as the budget goes
+        Arrays.sort(keys, 0, candidates);
+        double spent = 0;
+        for (int k = candidates - 1; k >= 0; k--)
+        {
+            int i = (int) (keys[k] & ROW);
+            int c = pick[i] == OMIT ? cost.entered() : cost.changed();
+            if (spent + c <= v.budget) {
+                spent += c;
+                pick[i] = FRESH;
+                v.nextPriority[i] = 0;
+                v.nextRefreshed[i] = tick;
+            }
+        }
+        v.swap();
+
+        v.out.clear();
+        for (int i = 0; i < n; i++)
+        {
+            EntityView e = enemies.get(i);
+            if (pick[i] == FRESH) {
+                v.out.add(e);
+            } else if (pick[i] == HOLD) {
+                int at = baseAt[i];
+                v.out.add(new EntityView(e.type(), e.id(), base.x[at], base.y[at], base.hp[at], e.enemyType()));
+            }
+        }
+        return v.out;
+    }
+
+    /** Current byte budget of a viewer (0 if budgeting never ran for them). */
+    public int budget(int viewer)
+    {
+        Viewer v = viewers.get(viewer);
+        return v == null ? 0 : (int) v.budget;
+    }
+
+    public void forget(int viewer)
+    {
+        viewers.remove(viewer);
+    }
+
+    private static void adapt(Viewer v, long tick, long ackedTick, int maxBytes, int minBytes)
+    {
+        if (ackedTick <= 0) {
+            v.budget = maxBytes;
+        } else if (tick - ackedTick > LAG_TICKS) {
+            if (tick - v.lastCut >= LAG_TICKS) {
+                v.budget = Math.max(minBytes, v.budget / 2);
+                v.lastCut = tick;
+            }
+        } else {
+            v.budget = Math.min(maxBytes, v.budget + maxBytes / 16.0);
+        }
+    }
+}
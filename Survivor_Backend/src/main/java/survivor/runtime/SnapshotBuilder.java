@@ -1,8 +1,9 @@
 package survivor.runtime;
-import survivor.combat.Vec2;
+import survivor.combat.SpatialGrid;
 import survivor.model.PlayerState;
-import survivor.model.EnemyState;
+import survivor.model.EnemyStore;
 import survivor.shared.AttackStyle;
+import survivor.shared.IntList;
 
 import java.util.*;
 
@@ -14,44 +15,82 @@ public final class SnapshotBuilder
 {
     private SnapshotBuilder(){}
 
-    /** Build per-player visibility-filtered snapshots (R_light already in px) */
-    public static Map<Integer, PlayerSnapshot> build(Collection<PlayerState> players,
-                                                     List<EnemyState> enemies,
+    /**
+     * Build per-player visibility-filtered snapshots (R_light already in px).
+     * - grid: enemy index rebuilt at current positions (null = scan every enemy)
+     * - scratch: per-match working buffers reused across ticks (null = allocate fresh ones)
+     * Each snapshot's entity list belongs to the scratch and is refilled next tick, so dispatch the
+     * snapshots before building again. Enter/leave diffs are DeltaEncoder's job (against the acked frame).
+     */
+    public static Map<Integer, PlayerSnapshot> build(List<PlayerState> players,
+                                                     EnemyStore enemies,
+                                                     SpatialGrid grid,
+                                                     Scratch scratch,
                                                      double rLightPx)
     {
+        double r2 = rLightPx * rLightPx;
+        if (scratch == null) scratch = new Scratch();
+        scratch.reset(enemies.size());
+
+        // teammates always visible (optional rule); one view per player, shared by every snapshot
+        List<EntityView> playerViews = new ArrayList<>(players.size());
+        for (int pi = 0; pi < players.size(); pi++)
+        {
+            var p = players.get(pi);
+            playerViews.add(new EntityView(
+                "player", 
+                p.id(), 
+                p.pos().x(), 
+                p.pos().y(), 
+                p.hp(),
+                null  // No enemy type for players
+                // Commented out attack timing fields for now:
+                // p.lastAttackAt(),
+                // p.stats().attackSpeed(),
+                // p.effectiveStyle()
+            ));
+        }
+
+        // enemy views are built at most once per tick, however many players see them
+        EntityView[] enemyViews = scratch.enemyViews;
+        IntList visibleIdx = scratch.visibleIdx;
+
         Map<Integer, PlayerSnapshot> out = new HashMap<>();
-        for (var me : players){
-            List<EntityView> visible = new ArrayList<>();
+        for (int pi = 0; pi < players.size(); pi++){
+            var me = players.get(pi);
+            double mx = me.pos().x(), my = me.pos().y();
+            visibleIdx.clear();
 
-            // teammates always visible (optional rule)
-            for (var p : players)
+            // enemies within R_light
+            IntList near = (grid == null) ? null : grid.query(mx, my, rLightPx);
+            int n = (near == null) ? enemies.size() : near.size();
+            for (int k = 0; k < n; k++)
             {
-                visible.add(new EntityView(
-                    "player", 
-                    p.id(), 
-                    p.pos().x(), 
-                    p.pos().y(), 
-                    p.hp(),
-                    null  // No enemy type for players
-                    // Commented out attack timing fields for now:
-                    // p.lastAttackAt(),
-                    // p.stats().attackSpeed(),
-                    // p.effectiveStyle()
-                ));
+                int i = (near == null) ? k : near.get(k);
+                if (enemies.isDead(i)) continue;
+                double dx = enemies.x(i) - mx, dy = enemies.y(i) - my;
+                if (dx * dx + dy * dy <= r2) visibleIdx.add(i);
             }
+            visibleIdx.sort();   // keep enemies in spawn order
 
-            // enemies within R_light
-            for (var e : enemies)
+            List<EntityView> visible = scratch.visible(pi);
+            visible.addAll(playerViews);
+            for (int k = 0; k < visibleIdx.size(); k++)
             {
-                if (!e.isDead() && dist(me.pos(), e.pos()) <= rLightPx)
-                    visible.add(new EntityView(
+                int i = visibleIdx.get(k);
+                if (enemyViews[i] == null)
+                {
+                    scratch.built.add(i);
+                    enemyViews[i] = new EntityView(
                         "enemy", 
-                        e.id(), 
-                        e.pos().x(), 
-                        e.pos().y(), 
-                        e.hp(),
-                        e.type().name()  // Include enemy type (BUMPER, SWIPER, etc.)
-                    ));
+                        enemies.id(i), 
+                        enemies.x(i), 
+                        enemies.y(i), 
+                        enemies.hp(i),
+                        enemies.type(i).name()  // Include enemy type (BUMPER, SWIPER, etc.)
+                    );
+                }
+                visible.add(enemyViews[i]);
             }
 
             out.put(me.id(), new PlayerSnapshot(me.id(), visible));
@@ -59,7 +98,32 @@ public final class SnapshotBuilder
         return out;
     }
 
-    private static double dist(Vec2 a, Vec2 b){ return Math.hypot(a.x()-b.x(), a.y()-b.y()); }
+    /** Working buffers for build(); one per match, touched only by its tick thread. */
+    public static final class Scratch
+    {
+        private EntityView[] enemyViews = new EntityView[64];
+        private final IntList built = new IntList();       // slots with a view this tick
+        private final IntList visibleIdx = new IntList();
+        private final List<List<EntityView>> visible = new ArrayList<>();   // per player, by list index
+
+        private void reset(int enemyCount)
+        {
+            // drop last tick's views (the snapshots that hold them have been sent)
+            for (int k = 0; k < built.size(); k++) enemyViews[built.get(k)] = null;
+            built.clear();
+            if (enemyViews.length < enemyCount)
+                enemyViews = new EntityView[Math.max(enemyCount, enemyViews.length * 2)];
+        }
+
+        /** The entity list of the player at index `pi`, emptied for this tick. */
+        private List<EntityView> visible(int pi)
+        {
+            while (visible.size() <= pi) visible.add(new ArrayList<>());
+            List<EntityView> list = visible.get(pi);
+            list.clear();
+            return list;
+        }
+    }
 
     // DTOs sent to clients (serialize via Jackson/Gson over STOMP)
     public record PlayerSnapshot(int accountId, List<EntityView> entities) {}
@@ -0,0 +1,240 @@
+package survivor.runtime;
+
+import survivor.model.EnemyType;
+import survivor.runtime.CombatResolve.DamageEvent;
+import survivor.runtime.CombatResolve.DeathEvent;
+import survivor.runtime.DeltaEncoder.EntityChange;
+import survivor.runtime.DeltaEncoder.Section;
+import survivor.runtime.SnapshotBuilder.EntityView;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a player's game frame, for clients that subscribe to
+ * /user/queue/match.{id}.game.bin. JSON on /user/queue/match.{id}.game stays the default.
+ *
+ * A frame is [u8 VERSION] followed by sections up to the end of the frame, each [u8 kind][body].
+ * "v" is an unsigned LEB128 varint, "s" a zigzag varint, "u8" one byte. Positions are whole px,
+ * the same quantization DeltaEncoder diffs on.
+ *
+ * - KEYFRAME:  v tick, v worldLevel, entities(players), entities(enemies)
+ * - DELTA:     v tick, v baseTick, v worldLevel, then for players and for enemies:
+ *              entities(entered), v n + n * (v idGap, u8 mask, [s x] [s y] [s hp]), v n + n * (v idGap)
+ *              mask bits say which fields follow (X, Y, HP); the second list is the ids that left
+ * - DAMAGE:    v n + n * (v targetId, u8 targetType, v damage)
+ * - DEATH:     v n + n * (v id, u8 type)
+ * - XP:        v playerId, v xp, v level, v xpToNext
+ * - UPGRADES:  v playerId, v level, v n + n * (u8 UpgradeType ordinal)
+ * - APPLIED:   v n + n * (v playerId, u8 UpgradeType ordinal)   upgrade picks applied this tick (any player)
+ *
+ * entities(...) = v n + n * (v id, u8 type, s x, s y, s hp). Entity types are 0 for a player and
+ * 1 + EnemyType ordinal for enemies; event target types are 0 player, 1 enemy.
+ * Id lists in a delta are ascending and sent as gaps (the first one as is).
+ *
+ * Usage: begin(), append sections, finish(). One codec per match, used only by its tick thread;
+ * finish() returns a fresh array for the broker.
+ */
+public final class SnapshotCodec
+{
+    public static final int VERSION = 3;
+
+    public static final int KIND_KEYFRAME = 1, KIND_DELTA = 2, KIND_DAMAGE = 3, KIND_DEATH = 4,
+                            KIND_XP = 5, KIND_UPGRADES = 6, KIND_APPLIED = 7;
+    public static final int FIELD_X = 1, FIELD_Y = 2, FIELD_HP = 4;
+    public static final int TYPE_PLAYER = 0;
+
+    private byte[] buf = new byte[1024];
+    private int len;
+
+    /** Start a new frame. */
+    public SnapshotCodec begin()
+    {
+        len = 0;
+        u8(VERSION);
+        return this;
+    }
+
+    /** The frame so far. */
+    public byte[] finish()
+    {
+        return Arrays.copyOf(buf, len);
+    }
+
+    /** The sections appended since begin(), without the version byte, for appending to other frames. */
+    public byte[] sections()
+    {
+        return Arrays.copyOfRange(buf, 1, len);
+    }
+
+    /** Sections taken from sections() of another frame. */
+    public SnapshotCodec raw(byte[] sections)
+    {
+        ensure(sections.length);
+        System.arraycopy(sections, 0, buf, len, sections.length);
+        len += sections.length;
+        return this;
+    }
+
+    /** A delta from DeltaEncoder as a KEYFRAME or DELTA section. */
+    public SnapshotCodec snapshot(DeltaEncoder.Delta d, int worldLevel)
+    {
+        u8(d.keyframe() ? KIND_KEYFRAME : KIND_DELTA);
+        varint(d.tick());
+        if (!d.keyframe()) varint(d.baseTick());
+        varint(worldLevel);
+        if (d.keyframe())
+        {
+            entities(d.players().entered());
+            entities(d.enemies().entered());
+        }
+        else
+        {
+            section(d.players());
+            section(d.enemies());
+        }
+        return this;
+    }
+
+    public SnapshotCodec damages(List<DamageEvent> damages)
+    {
+        u8(KIND_DAMAGE);
+        varint(damages.size());
+        for (int i = 0; i < damages.size(); i++)
+        {
+            var e = damages.get(i);
+            varint(e.targetId());
+            u8(targetType(e.targetType()));
+            varint(Math.max(0, e.damage()));
+        }
+        return this;
+    }
+
+    public SnapshotCodec deaths(List<DeathEvent> deaths)
+    {
+        u8(KIND_DEATH);
+        varint(deaths.size());
+        for (int i = 0; i < deaths.size(); i++)
+        {
+            var e = deaths.get(i);
+            varint(e.id());
+            u8(targetType(e.type()));
+        }
+        return this;
+    }
+
+    public SnapshotCodec xp(int playerId, int xp, int level, int xpToNext)
+    {
+        u8(KIND_XP);
+        varint(playerId);
+        varint(Math.max(0, xp));
+        varint(Math.max(0, level));
+        varint(Math.max(0, xpToNext));
+        return this;
+    }
+
+    public SnapshotCodec upgradeOptions(int playerId, int level, List<UpgradeType> options)
+    {
+        u8(KIND_UPGRADES);
+        varint(playerId);
+        varint(Math.max(0, level));
+        varint(options.size());
+        for (int i = 0; i < options.size(); i++) u8(options.get(i).ordinal());
+        return this;
+    }
+
+    public SnapshotCodec upgradesApplied(List<InputMailbox.UpgradeApplied> applied)
+    {
+        u8(KIND_APPLIED);
+        varint(applied.size());
+        for (int i = 0; i < applied.size(); i++)
+        {
+            var a = applied.get(i);
+            varint(a.playerId());
+            u8(a.type().ordinal());
+        }
+        return this;
+    }
+
+    /** 0 for players, 1 + EnemyType ordinal for enemies (views carry the enemy type name). */
+    static int entityType(EntityView v)
+    {
+        return v.enemyType() == null ? TYPE_PLAYER : 1 + EnemyType.valueOf(v.enemyType()).ordinal();
+    }
+
+    // -------- internals --------
+
+    private void section(Section s)
+    {
+        entities(s.entered());
+
+        List<EntityChange> changed = s.changed();
+        varint(changed.size());
+        int prev = 0;
+        for (int i = 0; i < changed.size(); i++)
+        {
+            var c = changed.get(i);
+            varint(c.id() - prev);
+            prev = c.id();
+            int mask = (c.x() != null ? FIELD_X : 0) | (c.y() != null ? FIELD_Y : 0) | (c.hp() != null ? FIELD_HP : 0);
+            u8(mask);
+            if (c.x() != null) zigzag(c.x());
+            if (c.y() != null) zigzag(c.y());
+            if (c.hp() != null) zigzag(c.hp());
+        }
+
+        int[] left = s.left();
+        varint(left.length);
+        prev = 0;
+        for (int id : left)
+        {
+            varint(id - prev);
+            prev = id;
+        }
+    }
+
+    private void entities(List<EntityView> views)
+    {
+        varint(views.size());
+        for (int i = 0; i < views.size(); i++)
+        {
+            var v = views.get(i);
+            varint(v.id());
+            u8(entityType(v));
+            zigzag((int) Math.round(v.x()));
+            zigzag((int) Math.round(v.y()));
+            zigzag(v.hp());
+        }
+    }
+
+    private static int targetType(String type)
+    {
+        return "player".equals(type) ? 0 : 1;
+    }
+
+    private void ensure(int extra)
+    {
+        if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(len + extra, buf.length * 2));
+    }
+
+    private void u8(int b)
+    {
+        if (len == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        buf[len++] = (byte) b;
+    }
+
+    private void varint(long v)
+    {
+        while ((v & ~0x7FL) != 0)
+        {
+            u8((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        u8((int) v);
+    }
+
+    private void zigzag(int v)
+    {
+        varint(((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,78 @@
+package survivor.runtime;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/ticks - live tick health: per-shard budget stats and per-match phase percentiles.
+ */
+@Component
+@Endpoint(id = "ticks")
+@RequiredArgsConstructor
+public class TickEndpoint
+{
+    private final MatchRuntimeRegistry registry;
+    private final TickService tickService;
+
+    @ReadOperation
+    public Map<String, Object> ticks()
+    {
+        List<Map<String, Object>> shards = new ArrayList<>();
+        for (TickShard s : tickService.shards()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("shard", s.getIndex());
+            m.put("matches", s.getLastMatchCount());
+            m.put("ticks", s.getTicks());
+            m.put("lastMs", ms(s.getLastTickNanos()));
+            m.put("maxMs", ms(s.getMaxTickNanos()));
+            m.put("budgetMs", ms(s.getBudgetNanos()));
+            m.put("overBudget", s.getOverBudget());
+            m.put("skipped", s.getSkipped());
+            shards.add(m);
+        }
+
+        List<Map<String, Object>> matches = new ArrayList<>();
+        for (MatchRuntime rt : registry.active()) {
+            FixedStepClock clock = rt.clock();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("matchId", rt.id());
+            m.put("shard", registry.shardOf(rt.id()));
+            m.put("steps", clock.getSteps());
+            m.put("catchUpSteps", clock.getCatchUpSteps());
+            m.put("overruns", clock.getOverruns());
+            m.put("droppedSteps", clock.getDroppedSteps());
+            m.put("lastLagMs", ms(clock.getLastLagNanos()));
+
+            Map<String, Object> phases = new LinkedHashMap<>();
+            for (TickPhase phase : TickPhase.values()) {
+                LatencyHistogram h = rt.profile().histogram(phase);
+                Map<String, Object> p = new LinkedHashMap<>();
+                p.put("count", h.count());
+                p.put("meanMs", ms((long) h.mean()));
+                p.put("p50Ms", ms(h.valueAtPercentile(50)));
+                p.put("p99Ms", ms(h.valueAtPercentile(99)));
+                p.put("maxMs", ms(h.max()));
+                phases.put(phase.tag(), p);
+            }
+            m.put("phases", phases);
+            matches.add(m);
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("shards", shards);
+        out.put("matches", matches);
+        return out;
+    }
+
+    private static double ms(long nanos)
+    {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,113 @@
+package survivor.runtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate tick metrics published through Micrometer (/actuator/metrics).
+ *
+ * - game.tick.phase{phase}: one sample per match tick per phase, with p50/p95/p99
+ * - game.tick.shard.*{shard}: last/max tick duration, match count, over-budget and skipped ticks
+ * - game.tick.catchup.steps / game.tick.dropped.steps / game.tick.overruns: fixed-step clock health
+ * - game.tick.serializations: JSON serializations per match tick (one per JSON player frame, plus shared sections)
+ * - game.input.dropped: client inputs dropped because a match's input mailbox was full
+ *
+ * Per-match breakdowns live in each runtime's TickProfile (see TickEndpoint).
+ */
+@Component
+public class TickMetrics
+{
+    private final MeterRegistry meters;
+    private final Timer[] phaseTimers = new Timer[TickPhase.COUNT];
+    private final Counter catchUpSteps;
+    private final Counter droppedSteps;
+    private final Counter overruns;
+    private final DistributionSummary serializations;
+    private final Counter droppedInputs;
+
+    public TickMetrics(MeterRegistry meters)
+    {
+        this.meters = meters;
+        for (TickPhase phase : TickPhase.values()) {
+            phaseTimers[phase.ordinal()] = Timer.builder("game.tick.phase")
+                    .description("Time spent in one phase of a match tick")
+                    .tag("phase", phase.tag())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meters);
+        }
+        catchUpSteps = Counter.builder("game.tick.catchup.steps")
+                .description("Extra fixed steps run to catch up after a late tick")
+                .register(meters);
+        droppedSteps = Counter.builder("game.tick.dropped.steps")
+                .description("Fixed steps discarded because a match fell too far behind")
+                .register(meters);
+        overruns = Counter.builder("game.tick.overruns")
+                .description("Ticks where a match hit the catch-up clamp")
+                .register(meters);
+        serializations = DistributionSummary.builder("game.tick.serializations")
+                .description("JSON serializations done to dispatch one match tick")
+                .register(meters);
+        droppedInputs = Counter.builder("game.input.dropped")
+                .description("Client inputs dropped because the match's input mailbox was full")
+                .register(meters);
+    }
+
+    /** Register gauges for the tick workers (called once they exist). */
+    void bindShards(List<TickShard> shards)
+    {
+        for (TickShard shard : shards) {
+            String tag = Integer.toString(shard.getIndex());
+            TimeGauge.builder("game.tick.shard.duration", shard, TimeUnit.NANOSECONDS, TickShard::getLastTickNanos)
+                    .description("Duration of the shard's most recent tick")
+                    .tag("shard", tag).register(meters);
+            TimeGauge.builder("game.tick.shard.duration.max", shard, TimeUnit.NANOSECONDS, TickShard::getMaxTickNanos)
+                    .description("Longest shard tick since startup")
+                    .tag("shard", tag).register(meters);
+            Gauge.builder("game.tick.shard.matches", shard, TickShard::getLastMatchCount)
+                    .description("Matches ticked by the shard on its last tick")
+                    .tag("shard", tag).register(meters);
+            FunctionCounter.builder("game.tick.shard.overbudget", shard, TickShard::getOverBudget)
+                    .description("Shard ticks that took longer than one tick period")
+                    .tag("shard", tag).register(meters);
+            FunctionCounter.builder("game.tick.shard.skipped", shard, TickShard::getSkipped)
+                    .description("Scheduler ticks skipped because the shard was still busy")
+                    .tag("shard", tag).register(meters);
+        }
+    }
+
+    /** Feed the aggregate phase timers from a match's most recent tick (tick thread only). */
+    void recordTick(TickProfile profile)
+    {
+        for (TickPhase phase : TickPhase.ALL) {
+            phaseTimers[phase.ordinal()].record(profile.lastTick(phase), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void recordClock(long catchUp, long dropped)
+    {
+        if (catchUp > 0) catchUpSteps.increment(catchUp);
+        if (dropped > 0) {
+            droppedSteps.increment(dropped);
+            overruns.increment();
+        }
+    }
+
+    void recordSerializations(int count)
+    {
+        serializations.record(count);
+    }
+
+    void recordDroppedInputs(long count)
+    {
+        if (count > 0) droppedInputs.increment(count);
+    }
+}
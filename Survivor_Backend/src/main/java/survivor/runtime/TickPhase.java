@@ -0,0 +1,29 @@
+package survivor.runtime;
+
+/**
+ * Phases of one match tick, in execution order (used for profiling tags).
+ */
+public enum TickPhase
+{
+    PHYSICS_PLAYERS("physics.players"),
+    PHYSICS_ENEMIES("physics.enemies"),
+    GRID("grid"),
+    AI_GATE("ai.gate"),
+    AI_TICK("ai.tick"),
+    ATTACKS("attacks"),
+    COMBAT("combat"),
+    WORLD("world"),
+    SNAPSHOT("snapshot"),
+    RECLAIM("reclaim"),
+    DISPATCH("dispatch");
+
+    // values() clones the array on every call; per-tick loops iterate this one (never write to it)
+    static final TickPhase[] ALL = values();
+    public static final int COUNT = ALL.length;
+
+    private final String tag;
+
+    TickPhase(String tag) { this.tag = tag; }
+
+    public String tag() { return tag; }
+}
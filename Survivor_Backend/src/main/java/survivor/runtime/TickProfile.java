@@ -0,0 +1,51 @@
+package survivor.runtime;
+
+/**
+ * Per-match tick profiler: how long each TickPhase took, per tick.
+ *
+ * - The tick thread brackets phases with lap(); durations of all steps in one tick are summed.
+ * - endTick() folds the tick's totals into one LatencyHistogram per phase.
+ * - lastTick() exposes the most recent tick's totals so TickService can feed the aggregate timers.
+ */
+public final class TickProfile
+{
+    private final LatencyHistogram[] histograms = new LatencyHistogram[TickPhase.COUNT];
+    private final long[] current = new long[TickPhase.COUNT];
+
+    public TickProfile()
+    {
+        for (int i = 0; i < histograms.length; i++) histograms[i] = new LatencyHistogram();
+    }
+
+    public void beginTick()
+    {
+        java.util.Arrays.fill(current, 0L);
+    }
+
+    /** Charge the time since `since` to `phase`; returns now so calls can be chained. */
+    public long lap(TickPhase phase, long since)
+    {
+        long now = System.nanoTime();
+        current[phase.ordinal()] += now - since;
+        return now;
+    }
+
+    /** Fold this tick's simulation phases into the histograms (DISPATCH is recorded separately). */
+    public void endTick()
+    {
+        for (TickPhase phase : TickPhase.ALL) {
+            if (phase != TickPhase.DISPATCH) histograms[phase.ordinal()].record(current[phase.ordinal()]);
+        }
+    }
+
+    /** Dispatch happens outside the runtime, after the tick; TickService reports it here. */
+    public void recordDispatch(long nanos)
+    {
+        current[TickPhase.DISPATCH.ordinal()] = nanos;
+        histograms[TickPhase.DISPATCH.ordinal()].record(nanos);
+    }
+
+    public long lastTick(TickPhase phase) { return current[phase.ordinal()]; }
+
+    public LatencyHistogram histogram(TickPhase phase) { return histograms[phase.ordinal()]; }
+}
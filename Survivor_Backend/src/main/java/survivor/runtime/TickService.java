@@ -1,5 +1,7 @@
 package survivor.runtime;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,25 +15,62 @@ public class TickService
 {
     private final MatchRuntimeRegistry registry;
     private final GameWs ws;
-    private final survivor.match.MatchStore matchStore;
+    private final survivor.match.MatchResultOutbox matchResults;
+    private final TickMetrics metrics;
+    private final survivor.ws.FrameSerializer serializer;
 
     @Value("${tick.rate.hz:20}") private int hz;
-    
-    // Track which players have already received upgrade events for their current level
-    // Key: "matchId:playerId", Value: level for which upgrade event was sent
-    private final java.util.Map<String, Integer> upgradeEventSent = new java.util.concurrent.ConcurrentHashMap<>();
+
+    // Per-client bytes per tick for enemy updates (SnapshotBudget); 0 = send every visible change
+    @Value("${snapshot.budget.maxBytesPerTick:0}") private int budgetMaxBytes;
+    @Value("${snapshot.budget.minBytesPerTick:0}") private int budgetMinBytes;
+
+    // One worker per registry shard; a match is only ever ticked by its shard's thread
+    private java.util.List<TickShard> shards = java.util.List.of();
+
+    @PostConstruct
+    void startShards()
+    {
+        long budgetNanos = 1_000_000_000L / Math.max(1, hz);
+        var list = new java.util.ArrayList<TickShard>(registry.shardCount());
+        for (int i = 0; i < registry.shardCount(); i++) {
+            list.add(new TickShard(i, budgetNanos, this::tickShard));
+        }
+        shards = java.util.List.copyOf(list);
+        metrics.bindShards(shards);
+    }
+
+    @PreDestroy
+    void stopShards()
+    {
+        shards.forEach(TickShard::shutdown);
+    }
+
+    /** Per-shard tick budget stats (read-only). */
+    public java.util.List<TickShard> shards() { return shards; }
 
     @Scheduled(fixedRateString = "#{1000/${tick.rate.hz:20}}")
     public void tickAll()
     {
-        var activeRuntimes = new java.util.ArrayList<>(registry.active()); // Create snapshot copy
-        
-        if (activeRuntimes.size() > 0) {
-            System.out.println("TICK #" + System.currentTimeMillis() + " - Processing " + activeRuntimes.size() + " runtime(s)");
+        // Per-tick progress is in /actuator/ticks and the game.tick.* metrics
+        if (registry.active().isEmpty()) return;
+
+        // Fan out: each shard ticks its own matches in parallel with the others
+        for (var shard : shards)
+        {
+            if (registry.shard(shard.getIndex()).isEmpty()) continue;
+            shard.trySubmit();   // false: still busy from the previous tick (counted in game.tick.shard.skipped)
         }
-        
-        for (var rt : activeRuntimes)
+    }
+
+    /** Runs on the shard's worker thread. */
+    void tickShard(int index)
+    {
+        int count = 0;
+        for (var rt : registry.shard(index))
         {
+            count++;
+
             // Double-check runtime still exists in registry (defensive)
             if (registry.get(rt.id()).isEmpty()) {
                 System.out.println("  -> Skipping match " + rt.id() + " - removed from registry");
@@ -44,15 +83,34 @@ public class TickService
                 System.out.println("  -> Skipping match " + rt.id() + " - marked as ended");
                 continue;
             }
-            
-            var delta = rt.tick();
-            dispatch(rt, delta);
+
+            try {
+                // Fixed timestep: 0 steps if the scheduler fired early, several if we fell behind
+                var clock = rt.clock();
+                long catchUp = clock.getCatchUpSteps(), dropped = clock.getDroppedSteps();
+
+                var delta = rt.advance(System.nanoTime());
+                metrics.recordClock(clock.getCatchUpSteps() - catchUp, clock.getDroppedSteps() - dropped);
+                metrics.recordDroppedInputs(rt.inputs().newlyDropped());
+                if (delta == null) continue;
+
+                long t = System.nanoTime();
+                dispatch(rt, delta);
+                rt.profile().recordDispatch(System.nanoTime() - t);
+                metrics.recordTick(rt.profile());
+            } catch (Exception e) {
+                // Keep one broken match from taking down the rest of the shard
+                System.err.println("Error ticking match " + rt.id() + " on shard " + index + ": " + e);
+                e.printStackTrace();
+            }
         }
+
+        shards.get(index).recordMatchCount(count);
     }
 
     private void dispatch(MatchRuntime rt, MatchDelta delta) {
-        // Don't dispatch anything if runtime has been stopped
-        if (rt.isEnded()) {
+        // Don't dispatch anything if runtime has been stopped; the delta that ended it still goes out
+        if (rt.isEnded() && !delta.shouldEnd()) {
             System.out.println("  -> dispatch() skipping match " + rt.id() + " - ended=true");
             return;
         }
@@ -63,88 +121,87 @@ public class TickService
             return;
         }
         
-        // events (damage / deaths) - wrap in proper format for frontend
-        // Broadcast these BEFORE handling match end so clients receive death notifications
-        if (!delta.events().damages().isEmpty()) {
-            java.util.Map<String, Object> damageEvent = new java.util.HashMap<>();
-            damageEvent.put("event", "DAMAGE");
-            damageEvent.put("damages", delta.events().damages());
-            ws.game(rt.id(), damageEvent);
-        }
-        if (!delta.events().deaths().isEmpty()) {
-            java.util.Map<String, Object> deathEvent = new java.util.HashMap<>();
-            deathEvent.put("event", "DEATH");
-            deathEvent.put("deaths", delta.events().deaths());
-            ws.game(rt.id(), deathEvent);
-        }
+        // One frame per player per tick: their snapshot plus this tick's events, in typed sections
+        // Sent BEFORE handling match end so clients receive death notifications
+        var damages = delta.events().damages();
+        var deaths = delta.events().deaths();
+        var applied = delta.upgrades();   // upgrade picks the tick applied from the input mailbox, shown to everyone
+        byte[] sharedBinary = null;   // DAMAGE / DEATH / APPLIED sections, encoded once for every binary player
+        Object damagesJson = null, deathsJson = null, appliedJson = null;   // the same as JSON, serialized once
+        int serializations = 0;
 
-        // Always send snapshots during gameplay (even if empty) so frontend receives state updates
-        // Aggregate per-player snapshots into unified format for broadcast
-        if (!delta.snapshots().isEmpty()) {
-            java.util.Map<String, Object> baseSnapshot = aggregateSnapshots(delta.snapshots());
-            java.util.Map<String, Object> unifiedSnapshot = new java.util.HashMap<>(baseSnapshot);
-            // Attach current world level so frontend can display it in the HUD.
-            unifiedSnapshot.put("worldLevel", rt.getCurrentWorldLevel());
-            ws.game(rt.id(), unifiedSnapshot);
-        } else {
-            // Send empty snapshot if match is started but no snapshots generated yet
-            // This ensures frontend receives periodic updates even during initialization
-            // Don't send snapshots if runtime has been manually stopped
-            if (rt.isStarted() && !rt.isEnded()) {
-                java.util.Map<String, Object> emptySnapshot = new java.util.HashMap<>();
-                emptySnapshot.put("players", java.util.List.of());
-                emptySnapshot.put("enemies", java.util.List.of());
-                emptySnapshot.put("worldLevel", rt.getCurrentWorldLevel());
-                ws.game(rt.id(), emptySnapshot);
-            }
-        }
+        for (var snap : delta.snapshots().values()) {
+            var p = rt.getPlayers().get(snap.accountId());
+            if (p == null) continue;
 
-        // ---- NEW: XP + Upgrade events ----
-        var players = rt.getPlayers().values();
-        for (survivor.model.PlayerState p : players) {
-            if (p == null || p.isDead()) continue;
-
-            // A. XP update
-            var xpEvent = new java.util.HashMap<String, Object>();
-            xpEvent.put("event", "xpUpdate");
-            xpEvent.put("playerId", p.id());
-            xpEvent.put("xp", p.getXp());
-            xpEvent.put("level", p.getLevel());
-            xpEvent.put("xpToNext", p.getXpToNext());
-            ws.game(rt.id(), xpEvent);
-
-            // B. Upgrade choices (send only once per level-up)
-            if (p.isChoosingUpgrade()
-                    && p.getCurrentUpgradeOptions() != null
-                    && !p.getCurrentUpgradeOptions().isEmpty()) {
-                
-                // Create a key for tracking: "matchId:playerId"
-                String key = rt.id() + ":" + p.id();
-                int currentLevel = p.getLevel();
-                
-                // Only send upgrade event if we haven't sent it for this level yet
-                if (!upgradeEventSent.containsKey(key) || upgradeEventSent.get(key) != currentLevel) {
-                    var upgEvent = new java.util.HashMap<String, Object>();
-                    upgEvent.put("event", "upgradeOptions");
-                    upgEvent.put("playerId", p.id());
-                    upgEvent.put("level", currentLevel);
-
-                    var options = p.getCurrentUpgradeOptions()
-                            .stream()
-                            .map(Enum::name) // "DAMAGE_UP", "ATKSPEED_UP", "MAX_HP_UP"
-                            .toList();
-
-                    upgEvent.put("options", options);
-                    ws.game(rt.id(), upgEvent);
-                    
-                    // Mark that we've sent the upgrade event for this level
-                    upgradeEventSent.put(key, currentLevel);
+            boolean binary = ws.wantsBinary(rt.id(), p.id());
+            var d = encodeSnapshot(rt, delta.tick(), snap, p, binary);
+            boolean xp = !p.isDead() && rt.progress().xpChanged(p);
+            boolean upgrades = !p.isDead() && rt.progress().upgradeDue(p);
+            // Frames that only refresh state may be replaced by the next one if the client falls behind
+            boolean latestWins = deaths.isEmpty() && applied.isEmpty() && !xp && !upgrades;
+
+            if (binary) {
+                if (sharedBinary == null) {
+                    rt.codec().begin();
+                    if (!damages.isEmpty()) rt.codec().damages(damages);
+                    if (!deaths.isEmpty()) rt.codec().deaths(deaths);
+                    if (!applied.isEmpty()) rt.codec().upgradesApplied(applied);
+                    sharedBinary = rt.codec().sections();
                 }
-            } else {
-                // Player is no longer choosing upgrade - clear tracking for next level-up
-                String key = rt.id() + ":" + p.id();
-                upgradeEventSent.remove(key);
+                var codec = rt.codec().begin().snapshot(d, rt.getCurrentWorldLevel()).raw(sharedBinary);
+                if (xp) codec.xp(p.id(), p.getXp(), p.getLevel(), p.getXpToNext());
+                if (upgrades) codec.upgradeOptions(p.id(), p.getLevel(), p.getCurrentUpgradeOptions());
+                ws.toPlayerBinary(rt.id(), p.id(), codec.finish(), latestWins);
+                continue;
+            }
+
+            java.util.Map<String, Object> frame = new java.util.HashMap<>();
+            frame.put("event", "FRAME");
+            frame.put("snapshot", snapshotJson(rt, d));
+            if (!damages.isEmpty()) {
+                if (damagesJson == null) { damagesJson = serializer.raw(damages); serializations++; }
+                frame.put("damages", damagesJson);
+            }
+            if (!deaths.isEmpty()) {
+                if (deathsJson == null) { deathsJson = serializer.raw(deaths); serializations++; }
+                frame.put("deaths", deathsJson);
+            }
+            if (!applied.isEmpty()) {
+                if (appliedJson == null) { appliedJson = serializer.raw(upgradesAppliedJson(applied)); serializations++; }
+                frame.put("upgradesApplied", appliedJson);
+            }
+            if (xp) {
+                var xpEvent = new java.util.HashMap<String, Object>();
+                xpEvent.put("playerId", p.id());
+                xpEvent.put("xp", p.getXp());
+                xpEvent.put("level", p.getLevel());
+                xpEvent.put("xpToNext", p.getXpToNext());
+                frame.put("xpUpdate", xpEvent);
             }
+            if (upgrades) {
+                var upgEvent = new java.util.HashMap<String, Object>();
+                upgEvent.put("playerId", p.id());
+                upgEvent.put("level", p.getLevel());
+                upgEvent.put("options", p.getCurrentUpgradeOptions()
+                        .stream()
+                        .map(Enum::name) // "DAMAGE_UP", "ATKSPEED_UP", "MAX_HP_UP"
+                        .toList());
+                frame.put("upgradeOptions", upgEvent);
+            }
+            ws.toPlayerJson(rt.id(), p.id(), serializer.json(frame), latestWins);
+            serializations++;
+        }
+        metrics.recordSerializations(serializations);
+
+        // Send empty snapshot if match is started but no snapshots generated yet
+        // This ensures frontend receives periodic updates even during initialization
+        if (delta.snapshots().isEmpty() && rt.isStarted() && !rt.isEnded()) {
+            java.util.Map<String, Object> emptySnapshot = new java.util.HashMap<>();
+            emptySnapshot.put("players", java.util.List.of());
+            emptySnapshot.put("enemies", java.util.List.of());
+            emptySnapshot.put("worldLevel", rt.getCurrentWorldLevel());
+            ws.game(rt.id(), emptySnapshot);
         }
 
         // Handle match end AFTER broadcasting events
@@ -153,48 +210,82 @@ public class TickService
             handleMatchEnd(rt);
             return; // Exit immediately after handling match end
         }
+    }
 
-        // later (with auth), switch to per-user queues:
-        // delta.snapshots().forEach((accountId, snap) -> ws.toPlayer(rt.id(), accountId, snap));
+    /** [{playerId, selected}] for the frame's upgradesApplied section. */
+    private static java.util.List<java.util.Map<String, Object>> upgradesAppliedJson(
+            java.util.List<InputMailbox.UpgradeApplied> applied) {
+        var out = new java.util.ArrayList<java.util.Map<String, Object>>(applied.size());
+        for (var u : applied) out.add(java.util.Map.of("playerId", u.playerId(), "selected", u.type().name()));
+        return out;
     }
 
     /**
-     * Aggregate per-player snapshots into unified format for broadcast.
-     * Collects all unique players and enemies from all per-player snapshots.
-     * This provides a single unified snapshot that all players receive via broadcast.
-     * 
-     * When switching to per-user queues, this aggregation can be removed and
-     * individual per-player snapshots can be sent directly to each player.
+     * One player's view, delta-encoded against the newest tick that player acknowledged
+     * (a keyframe if they never have, or their ack fell out of the history).
+     * Enemy updates first go through the player's byte budget, costed for the encoding they receive.
      */
-    private java.util.Map<String, Object> aggregateSnapshots(java.util.Map<Integer, SnapshotBuilder.PlayerSnapshot> snapshots) {
-        java.util.Map<Integer, SnapshotBuilder.EntityView> playersMap = new java.util.HashMap<>();
-        java.util.Map<Integer, SnapshotBuilder.EntityView> enemiesMap = new java.util.HashMap<>();
-
-        // Aggregate entities from all player snapshots
-        for (var playerSnapshot : snapshots.values()) {
-            for (var entity : playerSnapshot.entities()) {
-                if ("player".equals(entity.type())) {
-                    // Players are always included (use putIfAbsent to avoid duplicates)
-                    playersMap.putIfAbsent(entity.id(), entity);
-                } else if ("enemy".equals(entity.type())) {
-                    // For enemies, replace "enemy" type with actual enemy type (BUMPER, SWIPER)
-                    // Frontend expects enemy type in the "type" field
-                    SnapshotBuilder.EntityView enemyWithType = new SnapshotBuilder.EntityView(
-                        entity.enemyType() != null ? entity.enemyType() : "ENEMY",  // Use enemyType as type
-                        entity.id(),
-                        entity.x(),
-                        entity.y(),
-                        entity.hp(),
-                        entity.enemyType()  // Keep enemyType field as well
-                    );
-                    enemiesMap.putIfAbsent(entity.id(), enemyWithType);
-                }
-            }
+    private DeltaEncoder.Delta encodeSnapshot(MatchRuntime rt, long tick, SnapshotBuilder.PlayerSnapshot snap,
+                                              survivor.model.PlayerState p, boolean binary) {
+        var view = playerView(snap);
+        var encoder = rt.deltas();
+        long acked = encoder.ackedTick(snap.accountId());
+        var enemies = rt.budget().select(snap.accountId(), tick, acked, p.pos().x(), p.pos().y(), rt.lightRadiusPx(),
+                view.get("enemies"), binary ? SnapshotBudget.Cost.BINARY : SnapshotBudget.Cost.JSON,
+                budgetMaxBytes, budgetMinBytes);
+        return encoder.encode(snap.accountId(), tick, acked, view.get("players"), enemies);
+    }
+
+    /**
+     * JSON form of an encoded snapshot.
+     *
+     * - Keyframe: the full {players, enemies, worldLevel} snapshot plus "tick" and "keyframe": true, so clients
+     *   that never acknowledge keep working off keyframes alone.
+     * - Otherwise SNAPSHOT_DELTA: per section, entities that entered, changed (only the changed fields) or
+     *   left since "baseTick". Clients keep recent frames and apply the delta to the one at baseTick.
+     */
+    static java.util.Map<String, Object> snapshotJson(MatchRuntime rt, DeltaEncoder.Delta d) {
+        java.util.Map<String, Object> out = new java.util.HashMap<>();
+        if (d.keyframe()) {
+            out.put("players", d.players().entered());
+            out.put("enemies", d.enemies().entered());
+            out.put("keyframe", true);
+        } else {
+            out.put("event", "SNAPSHOT_DELTA");
+            out.put("baseTick", d.baseTick());
+            out.put("players", d.players());
+            out.put("enemies", d.enemies());
         }
+        out.put("tick", d.tick());
+        // Attach current world level so frontend can display it in the HUD.
+        out.put("worldLevel", rt.getCurrentWorldLevel());
+        return out;
+    }
+
+    /**
+     * Split one player's snapshot into the {players, enemies} shape the frontend expects.
+     * Enemies carry their enemy type (BUMPER, SWIPER) in the "type" field.
+     */
+    static java.util.Map<String, java.util.List<SnapshotBuilder.EntityView>> playerView(SnapshotBuilder.PlayerSnapshot snapshot) {
+        var entities = snapshot.entities();
+        java.util.List<SnapshotBuilder.EntityView> playersList = new java.util.ArrayList<>();
+        java.util.List<SnapshotBuilder.EntityView> enemiesList = new java.util.ArrayList<>(entities.size());
 
-        // Convert maps to lists for JSON serialization
-        java.util.List<SnapshotBuilder.EntityView> playersList = new java.util.ArrayList<>(playersMap.values());
-        java.util.List<SnapshotBuilder.EntityView> enemiesList = new java.util.ArrayList<>(enemiesMap.values());
+        for (var entity : entities) {
+            if ("player".equals(entity.type())) {
+                playersList.add(entity);
+            } else if ("enemy".equals(entity.type())) {
+                // Frontend expects enemy type in the "type" field
+                enemiesList.add(new SnapshotBuilder.EntityView(
+                    entity.enemyType() != null ? entity.enemyType() : "ENEMY",  // Use enemyType as type
+                    entity.id(),
+                    entity.x(),
+                    entity.y(),
+                    entity.hp(),
+                    entity.enemyType()  // Keep enemyType field as well
+                ));
+            }
+        }
 
         return java.util.Map.of(
                 "players", playersList,
@@ -204,8 +295,8 @@ public class TickService
 
     @Synchronized
     private void handleMatchEnd(MatchRuntime rt) {
-        // Prevent multiple calls - mark as ended immediately
-        if (rt.isEnded()) {
+        // Prevent multiple calls - only the first claim submits results
+        if (!rt.claimEnd()) {
             System.out.println("  -> handleMatchEnd() skipping match " + rt.id() + " - already ended");
             return;
         }
@@ -217,10 +308,6 @@ public class TickService
         // Mark runtime as ended to prevent any remaining operations
         rt.stop();
         
-        // Clean up upgrade event tracking for this match to prevent memory leaks
-        long matchId = rt.id();
-        upgradeEventSent.entrySet().removeIf(entry -> entry.getKey().startsWith(matchId + ":"));
-        
         try {
             // Safely get players - check for null
             var players = rt.getPlayers();
@@ -236,8 +323,7 @@ public class TickService
                     .findFirst()
                     .orElse(null);
 
-            // Mark match as ended in database
-            matchStore.markEnded(rt.id(), winnerId, java.time.Instant.now());
+            var endedAt = java.time.Instant.now();
 
             // Collect results from gameplay (coins earned from enemy drops, score from kills/time)
             var results = players.values().stream()
@@ -256,10 +342,11 @@ public class TickService
                     })
                     .toList();
 
-            // Persist results to UserProgress (only if we have results)
-            if (!results.isEmpty()) {
-                matchStore.writeResults(rt.id(), results);
+            // Match status, participants and UserProgress are written by the outbox's background writer,
+            // never on the tick thread (a slow database would stall every match on this shard)
+            matchResults.submit(new survivor.match.MatchResultOutbox.Entry(rt.id(), winnerId, endedAt, results));
 
+            if (!results.isEmpty()) {
                 // Broadcast match end to all players
                 ws.game(rt.id(), java.util.Map.of(
                         "event", "MATCH_ENDED",
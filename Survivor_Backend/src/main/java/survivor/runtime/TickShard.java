@@ -0,0 +1,93 @@
+package survivor.runtime;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * One tick worker thread and the budget stats for the matches pinned to it.
+ *
+ * - Every match hashes to exactly one shard, so its runtime only ever has a single writer.
+ * - A shard that is still busy when the next scheduler tick fires is skipped (not queued),
+ *   so a slow shard never builds a backlog or holds up the other shards.
+ */
+public final class TickShard
+{
+    private final int index;
+    private final long budgetNanos;
+    private final ExecutorService worker;
+    private final AtomicBoolean busy = new AtomicBoolean(false);
+    private final Runnable task;
+
+    // written by the worker thread only, read by monitoring
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+    private volatile int lastMatchCount;
+    private volatile long ticks;
+    private volatile long overBudget;
+    private volatile long skipped;
+
+    public TickShard(int index, long budgetNanos, IntConsumer body)
+    {
+        this.index = index;
+        this.budgetNanos = budgetNanos;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("tick-shard-" + index);
+            t.setDaemon(true);
+            return t;
+        });
+        this.task = () -> run(body);
+    }
+
+    /** Hand the shard to its worker; returns false (and counts a skip) if the previous tick is still running. */
+    public boolean trySubmit()
+    {
+        if (!busy.compareAndSet(false, true)) {
+            skipped++;
+            return false;
+        }
+        worker.execute(task);
+        return true;
+    }
+
+    private void run(IntConsumer body)
+    {
+        long t0 = System.nanoTime();
+        try {
+            body.accept(index);
+        } finally {
+            long took = System.nanoTime() - t0;
+            lastTickNanos = took;
+            if (took > maxTickNanos) maxTickNanos = took;
+            if (took > budgetNanos) overBudget++;   // reported via game.tick.* and /actuator/ticks
+            ticks++;
+            busy.set(false);
+        }
+    }
+
+    void recordMatchCount(int n) { lastMatchCount = n; }
+
+    public void shutdown()
+    {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------- read-only diagnostics --------
+
+    public int getIndex() { return index; }
+    public long getBudgetNanos() { return budgetNanos; }
+    public long getLastTickNanos() { return lastTickNanos; }
+    public long getMaxTickNanos() { return maxTickNanos; }
+    public int getLastMatchCount() { return lastMatchCount; }
+    public long getTicks() { return ticks; }
+    public long getOverBudget() { return overBudget; }
+    public long getSkipped() { return skipped; }
+}
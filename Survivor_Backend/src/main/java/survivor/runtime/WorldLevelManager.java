@@ -59,6 +59,16 @@ public class WorldLevelManager {
     );
     private static final double ENEMY_RADIUS = 12.0;
 
+    /** Where spawned enemies go (MatchRuntime passes its EnemyStore; a List works too). */
+    @FunctionalInterface
+    public interface EnemySink {
+        void spawn(int id, Vec2 pos, Stats stats, int hp, EnemyType type, double radiusPx);
+    }
+
+    private static EnemySink into(List<EnemyState> enemies) {
+        return (id, pos, stats, hp, type, radiusPx) -> enemies.add(new EnemyState(id, pos, stats, hp, type, radiusPx));
+    }
+
     /**
      * Initialize wave progression at world level 1 and spawn the first wave.
      * Called once from MatchRuntime.start().
@@ -66,6 +76,12 @@ public class WorldLevelManager {
     public void startFirstWave(List<EnemyState> enemies,
                                Collection<PlayerState> players,
                                IntSupplier idGenerator) {
+        startFirstWave(into(enemies), players, idGenerator);
+    }
+
+    public void startFirstWave(EnemySink enemies,
+                               Collection<PlayerState> players,
+                               IntSupplier idGenerator) {
         currentWorldLevel = 1;
         active = true;
         spawnWave(enemies, players, idGenerator);
@@ -75,7 +91,7 @@ public class WorldLevelManager {
      * Called once per tick from MatchRuntime.tick(), after CombatResolve.apply().
      *
      * @param deaths           combat death events for this tick
-     * @param enemies          shared enemy list for the match
+     * @param enemies          where a newly spawned wave goes
      * @param players          current players in the match
      * @param idGenerator      generator for unique enemy ids
      * @param matchEndingSoon  true if this tick has determined the match should end
@@ -86,11 +102,20 @@ public class WorldLevelManager {
                              Collection<PlayerState> players,
                              IntSupplier idGenerator,
                              boolean matchEndingSoon) {
+        handleDeaths(deaths, into(enemies), players, idGenerator, matchEndingSoon);
+    }
+
+    public void handleDeaths(List<CombatResolve.DeathEvent> deaths,
+                             EnemySink enemies,
+                             Collection<PlayerState> players,
+                             IntSupplier idGenerator,
+                             boolean matchEndingSoon) {
         if (!active) return;
 
-        long enemyDeaths = deaths.stream()
-                .filter(d -> "enemy".equals(d.type()))
-                .count();
+        long enemyDeaths = 0;
+        for (int i = 0; i < deaths.size(); i++) {
+            if ("enemy".equals(deaths.get(i).type())) enemyDeaths++;
+        }
         if (enemyDeaths == 0) return;
 
         if (remainingEnemiesInWave > 0) {
@@ -111,7 +136,7 @@ public class WorldLevelManager {
     /**
      * Compute and spawn the full wave for currentWorldLevel.
      */
-    private void spawnWave(List<EnemyState> enemies,
+    private void spawnWave(EnemySink enemies,
                            Collection<PlayerState> players,
                            IntSupplier idGenerator) {
 
@@ -135,14 +160,14 @@ public class WorldLevelManager {
             Stats stats = scaledStats(BUMPER_BASE);
             int hp = scaledHealth(BUMPER_BASE);
 
-            enemies.add(new EnemyState(
+            enemies.spawn(
                     idGenerator.getAsInt(),
                     pos,
                     stats,
                     hp,
                     EnemyType.BUMPER,
                     ENEMY_RADIUS
-            ));
+            );
         }
 
         // Spawn swipers
@@ -151,14 +176,14 @@ public class WorldLevelManager {
             Stats stats = scaledStats(SWIPER_BASE);
             int hp = scaledHealth(SWIPER_BASE);
 
-            enemies.add(new EnemyState(
+            enemies.spawn(
                     idGenerator.getAsInt(),
                     pos,
                     stats,
                     hp,
                     EnemyType.SWIPER,
                     ENEMY_RADIUS
-            ));
+            );
         }
     }
 
@@ -0,0 +1,124 @@
+package survivor.shared;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int -> int hash map (linear probing, no boxing).
+ *
+ * - Integer.MIN_VALUE is reserved as the empty-slot marker and cannot be used as a key.
+ * - remove() uses backward-shift deletion, so there are no tombstones to clean up.
+ * - Not thread-safe.
+ */
+public final class IntIntMap
+{
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntMap() { this(16); }
+
+    public IntIntMap(int expected)
+    {
+        int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        allocate(cap);
+    }
+
+    /** Value for key, or `missing` if absent. */
+    public int get(int key, int missing)
+    {
+        if (key == FREE) return missing;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == FREE) return missing;
+        }
+    }
+
+    public boolean containsKey(int key) { return indexOf(key) >= 0; }
+
+    public void put(int key, int value)
+    {
+        if (key == FREE) throw new IllegalArgumentException("Key " + FREE + " is reserved");
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) { values[i] = value; return; }
+            if (k == FREE) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) grow();
+                return;
+            }
+        }
+    }
+
+    /** Remove key; returns its value, or `missing` if it was absent. */
+    public int remove(int key, int missing)
+    {
+        int i = indexOf(key);
+        if (i < 0) return missing;
+        int old = values[i];
+
+        // shift later entries of the same probe run back into the hole
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            boolean movable = (hole <= j) ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = FREE;
+        size--;
+        return old;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear()
+    {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    // -------- internals --------
+
+    private int indexOf(int key)
+    {
+        if (key == FREE) return -1;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return i;
+            if (k == FREE) return -1;
+        }
+    }
+
+    private int slot(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int cap)
+    {
+        keys = new int[cap];
+        values = new int[cap];
+        Arrays.fill(keys, FREE);
+        mask = cap - 1;
+    }
+
+    private void grow()
+    {
+        int[] oldKeys = keys, oldValues = values;
+        allocate(keys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package survivor.shared;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints (no boxing). Meant to be kept and clear()ed between uses.
+ */
+public final class IntList
+{
+    private int[] data;
+    private int size;
+
+    public IntList() { this(16); }
+
+    public IntList(int capacity) { data = new int[Math.max(1, capacity)]; }
+
+    public void add(int v)
+    {
+        if (size == data.length) data = Arrays.copyOf(data, size * 2);
+        data[size++] = v;
+    }
+
+    public int get(int i)
+    {
+        if (i >= size) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        return data[i];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public void clear() { size = 0; }
+
+    public void sort() { Arrays.sort(data, 0, size); }
+
+    public int[] toArray() { return Arrays.copyOf(data, size); }
+}
@@ -0,0 +1,22 @@
+package survivor.ws;
+
+import java.security.Principal;
+
+/**
+ * The account a STOMP session connected as. Its name is the accountId, which is what
+ * GameWs.toPlayer addresses: /user/{accountId}/queue/... reaches this session.
+ */
+public record AccountPrincipal(int accountId) implements Principal
+{
+    /** The account behind a message's session Principal, or null for an anonymous session. */
+    public static Integer accountOf(Principal user)
+    {
+        return user instanceof AccountPrincipal p ? p.accountId() : null;
+    }
+
+    @Override
+    public String getName()
+    {
+        return String.valueOf(accountId);
+    }
+}
@@ -0,0 +1,42 @@
+package survivor.ws;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import survivor.accounts.AccountTokens;
+
+/**
+ * Binds an AccountPrincipal to the session from the "token" header of the STOMP CONNECT frame (issued by
+ * /accounts/login, checked by AccountTokens), so per-user destinations (/user/queue/match.{id}.game) route
+ * snapshots to that player only, and game messages are attributed to the session's account rather than to
+ * an id in the payload.
+ *
+ * Sessions that connect without a valid token stay anonymous: lobby and chat still work, but they
+ * receive no per-player snapshots and their game input is dropped.
+ */
+public class AccountPrincipalInterceptor implements ChannelInterceptor
+{
+    public static final String TOKEN_HEADER = "token";
+
+    private final AccountTokens tokens;
+
+    public AccountPrincipalInterceptor(AccountTokens tokens)
+    {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel)
+    {
+        var accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand()))
+        {
+            tokens.verify(accessor.getFirstNativeHeader(TOKEN_HEADER))
+                    .ifPresent(id -> accessor.setUser(new AccountPrincipal(id)));
+        }
+        return message;
+    }
+}
@@ -0,0 +1,37 @@
+package survivor.ws;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.List;
+
+/**
+ * Handshake for /ws that decides whether permessage-deflate may be negotiated.
+ *
+ * The servlet container (Tomcat) supports the extension and agrees to it whenever the client
+ * offers it (browsers always do). With ws.compression.enabled=false it is taken out of the
+ * client's offer, so frames go uncompressed.
+ */
+class DeflateHandshakeHandler extends DefaultHandshakeHandler
+{
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean compression;
+
+    DeflateHandshakeHandler(boolean compression)
+    {
+        this.compression = compression;
+    }
+
+    @Override
+    protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                 List<WebSocketExtension> requested,
+                                                                 List<WebSocketExtension> supported)
+    {
+        List<WebSocketExtension> offered = compression ? requested : requested.stream()
+                .filter(e -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(e.getName()))
+                .toList();
+        return super.filterRequestedExtensions(request, offered, supported);
+    }
+}
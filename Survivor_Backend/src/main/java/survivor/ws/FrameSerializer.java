@@ -0,0 +1,52 @@
+package survivor.ws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes game payloads to JSON once, so the broker fans out pre-encoded bytes instead of
+ * converting per send.
+ *
+ * - json(): a whole payload, handed to GameWs as bytes
+ * - raw(): a section shared by several payloads (e.g. a tick's damages), embedded verbatim in each
+ *
+ * Every call counts towards game.frames.serialized.
+ */
+@Component
+public class FrameSerializer
+{
+    private final ObjectMapper mapper;
+    private final Counter serialized;
+
+    public FrameSerializer(ObjectMapper mapper, MeterRegistry meters)
+    {
+        this.mapper = mapper;
+        this.serialized = Counter.builder("game.frames.serialized")
+                .description("Game payloads and shared sections serialized to JSON")
+                .register(meters);
+    }
+
+    public byte[] json(Object payload)
+    {
+        serialized.increment();
+        try {
+            return mapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize game payload", e);
+        }
+    }
+
+    public RawValue raw(Object section)
+    {
+        serialized.increment();
+        try {
+            return new RawValue(mapper.writeValueAsString(section));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize game payload section", e);
+        }
+    }
+}
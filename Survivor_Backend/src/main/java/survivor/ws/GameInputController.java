@@ -3,36 +3,41 @@ package survivor.ws;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.stereotype.Controller;
-import survivor.match.MatchStore;
+import survivor.runtime.InputMailbox;
 import survivor.runtime.MatchRuntimeRegistry;
-import survivor.runtime.UserActionQueueService; // <-- add this import
+import survivor.ws.dto.AckMsg;
 import survivor.ws.dto.InputMsg;
 
+import java.security.Principal;
+
 @Controller
 @RequiredArgsConstructor
 public class GameInputController
 {
     private final MatchRuntimeRegistry runtimes;
-    private final MatchStore store; // optional: to validate the player is in the match
-    private final UserActionQueueService userActions; // <-- add this field
 
     @MessageMapping("/match.input") // client sends to /app/match.input
-    public void onInput(InputMsg m)
+    public void onInput(InputMsg m, Principal user)
     {
-        // TODO Optional membership guard
-        //if (!store.isParticipant(m.matchId(), m.accountId())) return;
-
-        int userId = m.accountId();
+        // The player is the session's verified account; the payload's accountId is ignored
+        Integer userId = AccountPrincipal.accountOf(user);
+        if (userId == null) return;
         long matchId = m.matchId();
 
-        // enqueue the work for this user; runs FIFO on a single thread per user
-        userActions.enqueue(userId, () ->
-                runtimes.get(matchId).ifPresent(rt ->
-                        rt.player(userId).ifPresent(p ->
-                                p.setMove(clamp(m.moveX()), clamp(m.moveY()), m.seq())
-                        )
-                )
-        );
+        // Only players in that match (registry index) get through; the move is handed to the match's
+        // tick thread, which applies the newest one per player at the start of the next tick.
+        // A full mailbox drops it (counted in game.input.dropped)
+        runtimes.forPlayer(matchId, userId).ifPresent(rt ->
+                rt.inputs().offer(InputMailbox.move(userId, clamp(m.moveX()), clamp(m.moveY()), m.seq())));
+    }
+
+    @MessageMapping("/match.ack") // client sends to /app/match.ack
+    public void onAck(AckMsg m, Principal user)
+    {
+        Integer userId = AccountPrincipal.accountOf(user);
+        if (userId == null) return;
+        // thread-safe and order-free (newest tick wins), so no need to go through the input mailbox
+        runtimes.forPlayer(m.matchId(), userId).ifPresent(rt -> rt.deltas().acknowledge(userId, m.tick()));
     }
 
     private float clamp(float v)
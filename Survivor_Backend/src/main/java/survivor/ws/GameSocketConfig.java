@@ -0,0 +1,24 @@
+package survivor.ws;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Raw binary game channel (GameSocketHandler) at /ws/game, beside the STOMP endpoint at /ws.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class GameSocketConfig implements WebSocketConfigurer
+{
+    private final GameSocketHandler gameSocket;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry reg)
+    {
+        reg.addHandler(gameSocket, "/ws/game").setAllowedOriginPatterns("*");
+    }
+}
@@ -0,0 +1,156 @@
+package survivor.ws;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import survivor.accounts.AccountTokens;
+import survivor.runtime.InputMailbox;
+import survivor.runtime.MatchRuntime;
+import survivor.runtime.MatchRuntimeRegistry;
+import survivor.runtime.UpgradeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Raw binary WebSocket channel for in-match traffic (no STOMP), registered in GameSocketConfig.
+ * URL: ws://host:port/ws/game?matchId={matchId}&token={login token}
+ *
+ * - Server -> client: one SnapshotCodec frame per tick, the same bytes as /user/queue/match.{id}.game.bin.
+ * - Client -> server, one message per binary frame ("v" unsigned varint, "s8" signed byte):
+ *   INPUT    [u8 1][v seq][s8 moveX][s8 moveY]    move axes scaled to -127..127
+ *   ACK      [u8 2][v tick]
+ *   UPGRADE  [u8 3][u8 UpgradeType ordinal]
+ *
+ * The player is the account the token (AccountTokens) was issued to, and only a player in that match's
+ * runtime can connect; anything else is closed before it can replace that player's open channel.
+ * MATCH_ENDED, lobby and chat stay on STOMP. Outbound frames go through an OutboundMailbox like STOMP
+ * sessions do.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameSocketHandler extends BinaryWebSocketHandler
+{
+    public static final int KIND_INPUT = 1, KIND_ACK = 2, KIND_UPGRADE = 3;
+
+    private static final String TARGET = "game.target";
+
+    private final MatchRuntimeRegistry runtimes;
+    private final OutboundMailboxes mailboxes;
+    private final AccountTokens tokens;
+
+    /** One player's channel in one match. */
+    private record Target(long matchId, int accountId) {}
+
+    private final Map<Target, OutboundMailbox> channels = new ConcurrentHashMap<>();
+
+    /** The player has a raw game channel open for this match. */
+    public boolean isOpen(long matchId, int accountId)
+    {
+        return channels.containsKey(new Target(matchId, accountId));
+    }
+
+    /** Send a binary game frame on the player's raw channel. False if they have none. */
+    public boolean send(long matchId, int accountId, byte[] frame, boolean latestWins)
+    {
+        OutboundMailbox mailbox = channels.get(new Target(matchId, accountId));
+        if (mailbox == null) return false;
+        mailbox.send(new BinaryMessage(frame), latestWins ? OutboundMailbox.Kind.LATEST : OutboundMailbox.Kind.KEEP);
+        return true;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException
+    {
+        Target target = target(session);
+        if (target == null || runtimes.forPlayer(target.matchId(), target.accountId()).isEmpty()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Not a player in this match"));
+            return;
+        }
+
+        session.getAttributes().put(TARGET, target);
+        OutboundMailbox old = channels.put(target, new OutboundMailbox(session, mailboxes));
+        if (old != null) old.close(CloseStatus.NORMAL.withReason("Replaced by a newer connection"));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException
+    {
+        Target target = (Target) session.getAttributes().get(TARGET);
+        if (target == null) return;
+
+        // Routed per message so input stops as soon as the player leaves or the match ends
+        Optional<MatchRuntime> rt = runtimes.forPlayer(target.matchId(), target.accountId());
+        if (rt.isEmpty()) return;
+
+        ByteBuffer in = message.getPayload();
+        try {
+            switch (in.get() & 0xFF) {
+                case KIND_INPUT -> {
+                    long seq = varint(in);
+                    float mx = axis(in.get()), my = axis(in.get());
+                    rt.get().inputs().offer(InputMailbox.move(target.accountId(), mx, my, seq));
+                }
+                case KIND_ACK -> rt.get().deltas().acknowledge(target.accountId(), varint(in));
+                case KIND_UPGRADE -> {
+                    UpgradeType[] types = UpgradeType.values();
+                    int ordinal = in.get() & 0xFF;
+                    rt.get().inputs().offer(InputMailbox.upgrade(target.accountId(),
+                            ordinal < types.length ? types[ordinal] : UpgradeType.DAMAGE_UP));
+                }
+                default -> session.close(CloseStatus.BAD_DATA.withReason("Unknown message kind"));
+            }
+        } catch (RuntimeException e) {
+            // truncated frame (BufferUnderflowException) or overlong varint
+            session.close(CloseStatus.BAD_DATA.withReason("Malformed message"));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status)
+    {
+        Target target = (Target) session.getAttributes().get(TARGET);
+        if (target == null) return;
+        channels.computeIfPresent(target, (t, m) -> m.getDelegate() == session ? null : m);
+    }
+
+    // -------- wire format --------
+
+    /** Match and verified account from the URL; null if either is missing or the token doesn't verify. */
+    private Target target(WebSocketSession session)
+    {
+        if (session.getUri() == null) return null;
+        var params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+        OptionalInt accountId = tokens.verify(params.getFirst("token"));
+        if (accountId.isEmpty()) return null;
+        try {
+            return new Target(Long.parseLong(params.getFirst("matchId")), accountId.getAsInt());
+        } catch (NumberFormatException e) {   // also covers a missing parameter (null)
+            return null;
+        }
+    }
+
+    static float axis(byte b)
+    {
+        return Math.max(-1f, b / 127f);
+    }
+
+    static long varint(ByteBuffer in)
+    {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.get() & 0xFF;
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+}
@@ -0,0 +1,81 @@
+package survivor.ws;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Which players want binary game frames, so the tick only encodes the form each player receives.
+ *
+ * Clients pick the encoding at subscribe time: /user/queue/match.{id}.game (JSON, default) or
+ * /user/queue/match.{id}.game.bin. Only sessions with an AccountPrincipal can be told apart.
+ */
+@Component
+public class GameSubscriptions
+{
+    private static final Pattern BINARY_USER_GAME = Pattern.compile("^/user/queue/match\\.(\\d+)\\.game\\.bin$");
+
+    /** One player's binary frame queue in one match. */
+    private record Target(long matchId, int accountId) {}
+
+    // "sessionId:subscriptionId" -> target, for binary game subscriptions only
+    private final Map<String, Target> binarySubs = new ConcurrentHashMap<>();
+    private final Map<Target, Integer> binaryCounts = new ConcurrentHashMap<>();
+
+    /** The player is on their binary frame queue for this match. */
+    public boolean wantsBinary(long matchId, int accountId)
+    {
+        return binaryCounts.containsKey(new Target(matchId, accountId));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event)
+    {
+        var h = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        subscribe(h.getSessionId(), h.getSubscriptionId(), h.getDestination(), event.getUser());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event)
+    {
+        var h = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        unsubscribe(h.getSessionId() + ":" + h.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event)
+    {
+        String prefix = event.getSessionId() + ":";
+        for (String key : binarySubs.keySet()) {
+            if (key.startsWith(prefix)) unsubscribe(key);
+        }
+    }
+
+    void subscribe(String sessionId, String subscriptionId, String destination, Principal user)
+    {
+        if (destination == null || !(user instanceof AccountPrincipal account)) return;
+        var m = BINARY_USER_GAME.matcher(destination);
+        if (!m.matches()) return;
+
+        Target target = new Target(Long.parseLong(m.group(1)), account.accountId());
+        if (binarySubs.putIfAbsent(sessionId + ":" + subscriptionId, target) == null) {
+            binaryCounts.merge(target, 1, Integer::sum);
+        }
+    }
+
+    void unsubscribe(String key)
+    {
+        Target target = binarySubs.remove(key);
+        if (target != null) {
+            binaryCounts.computeIfPresent(target, (t, n) -> n > 1 ? n - 1 : null);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package survivor.ws;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
 
 /**
  * @author John Draa
@@ -13,6 +19,9 @@ import org.springframework.stereotype.Component;
 public class GameWs
 {
     private final SimpMessagingTemplate broker;
+    private final GameSubscriptions subscriptions;
+    private final GameSocketHandler gameSocket;
+    private final FrameSerializer serializer;
 
     // Lobby broadcast
     public void lobby(long matchId, Object payload)
@@ -26,17 +35,63 @@ public class GameWs
         broker.convertAndSend("/topic/match." + matchId + ".chat", payload);
     }
 
-    // Gameplay broadcast (snapshots/events)
+    // Gameplay broadcast (match-wide events: MATCH_ENDED)
+    // Serialized once here; every subscriber gets the same bytes
     public void game(long matchId, Object payload)
     {
-        broker.convertAndSend("/topic/match." + matchId + ".game", payload);
+        broker.send("/topic/match." + matchId + ".game",
+                encoded(serializer.json(payload), MimeTypeUtils.APPLICATION_JSON));
     }
 
-    // Per-user queue (requires an authenticated Principal whose name == accountId string)
-    // If you don't have auth yet, prefer game(...) broadcast instead.
+    // Per-user queue: reaches the sessions whose Principal name is accountId (AccountPrincipalInterceptor)
     public void toPlayer(long matchId, int accountId, Object payload)
     {
-        broker.convertAndSendToUser(String.valueOf(accountId),
-                "/queue/match." + matchId + ".game", payload);
+        broker.send("/user/" + accountId + "/queue/match." + matchId + ".game",
+                encoded(serializer.json(payload), MimeTypeUtils.APPLICATION_JSON));
+    }
+
+    // Per-user game frame already serialized by FrameSerializer
+    // latestWins: only a snapshot (and damages) - an unsent one may be replaced by the next (OutboundMailbox)
+    public void toPlayerJson(long matchId, int accountId, byte[] json, boolean latestWins)
+    {
+        broker.send("/user/" + accountId + "/queue/match." + matchId + ".game",
+                frame(json, MimeTypeUtils.APPLICATION_JSON, latestWins));
+    }
+
+    // Per-user binary game frame (SnapshotCodec): on the player's raw /ws/game channel if they have one,
+    // else their .game.bin queue
+    public void toPlayerBinary(long matchId, int accountId, byte[] frame, boolean latestWins)
+    {
+        if (gameSocket.send(matchId, accountId, frame, latestWins)) return;
+        broker.send("/user/" + accountId + "/queue/match." + matchId + ".game.bin",
+                frame(frame, MimeTypeUtils.APPLICATION_OCTET_STREAM, latestWins));
+    }
+
+    // Whether the player takes binary frames: a raw /ws/game channel, or a subscription to their binary queue
+    public boolean wantsBinary(long matchId, int accountId)
+    {
+        return gameSocket.isOpen(matchId, accountId) || subscriptions.wantsBinary(matchId, accountId);
+    }
+
+    // Pre-encoded payload: sent as is, skipping the template's message conversion
+    private static Message<byte[]> encoded(byte[] payload, MimeType type)
+    {
+        return MessageBuilder.createMessage(payload, headers(type).getMessageHeaders());
+    }
+
+    // Game frame, tagged for the session mailboxes as latest-wins or must-deliver
+    private static Message<byte[]> frame(byte[] payload, MimeType type, boolean latestWins)
+    {
+        var headers = headers(type);
+        headers.setNativeHeader(OutboundMailbox.FRAME_HEADER, latestWins ? OutboundMailbox.LATEST : OutboundMailbox.KEEP);
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+    }
+
+    private static SimpMessageHeaderAccessor headers(MimeType type)
+    {
+        var headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(type);
+        headers.setLeaveMutable(true);
+        return headers;
     }
 }
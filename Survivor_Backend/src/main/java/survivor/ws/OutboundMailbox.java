@@ -0,0 +1,243 @@
+package survivor.ws;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * One session's outbound mailbox, in front of the raw WebSocket session.
+ *
+ * - LATEST game frames (only a snapshot, maybe damages) are latest-wins: a newer frame replaces an unsent one.
+ * - Everything else is delivered in order. Any message queued after an unsent LATEST frame drops it, so
+ *   nothing is ever reordered behind a stale snapshot (e.g. MATCH_ENDED, chat); a KEEP frame carries a
+ *   newer snapshot anyway, and otherwise the next tick's frame brings the state.
+ * - sendMessage() never blocks: one sender thread at a time drains the mailbox onto the real session.
+ * - A session whose in-order backlog grows past the limits, or whose current send has been stuck too long,
+ *   is closed as slow, so it can't grow the heap or hold up anyone else.
+ *
+ * STOMP frames are told apart by the FRAME_HEADER header GameWs puts on game frames, which is stripped
+ * before the frame goes out; the raw game channel (GameSocketHandler) passes the kind to send() directly.
+ */
+final class OutboundMailbox extends WebSocketSessionDecorator
+{
+    public static final String FRAME_HEADER = "x-frame";
+    public static final String LATEST = "latest", KEEP = "keep";
+
+    enum Kind { LATEST, KEEP, OTHER }
+
+    private static final int MAX_HEADER_SCAN = 1024;
+    private static final String HEADER_LINE = "\n" + FRAME_HEADER + ":";   // a header line, from the '\n' before it
+
+    private final OutboundMailboxes owner;
+
+    private final ArrayDeque<WebSocketMessage<?>> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private WebSocketMessage<?> latest;
+    private boolean draining;
+    private volatile long sendStartedNanos;   // 0 while no send is in progress
+    private volatile boolean closing;
+
+    OutboundMailbox(WebSocketSession session, OutboundMailboxes owner)
+    {
+        super(session);
+        this.owner = owner;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException
+    {
+        Kind kind = classify(message);
+        send(kind == Kind.OTHER ? message : stripped(message), kind);
+    }
+
+    /** Same as sendMessage(), for frames without a STOMP header (the raw game channel says what they are). */
+    void send(WebSocketMessage<?> message, Kind kind)
+    {
+        if (closing) return;
+
+        boolean slow, schedule;
+        synchronized (this)
+        {
+            if (latest != null) {   // whatever comes next goes out after it: drop the stale snapshot
+                latest = null;
+                owner.onReplaced();
+            }
+            if (kind == Kind.LATEST) {
+                latest = message;
+            } else {
+                queue.add(message);
+                queuedBytes += message.getPayloadLength();
+            }
+
+            long started = sendStartedNanos;
+            slow = queue.size() > owner.maxQueued()
+                    || queuedBytes > owner.maxQueuedBytes()
+                    || (started != 0 && System.nanoTime() - started > owner.sendTimeLimitNanos());
+            schedule = !slow && !draining;
+            if (schedule) draining = true;
+        }
+
+        if (slow) closeSlow();
+        else if (schedule) owner.sender().execute(this::drain);
+    }
+
+    /** Messages waiting in order (not counting a pending LATEST frame). */
+    synchronized int queued()
+    {
+        return queue.size();
+    }
+
+    private void drain()
+    {
+        while (true)
+        {
+            WebSocketMessage<?> next;
+            synchronized (this)
+            {
+                next = queue.poll();
+                if (next != null) {
+                    queuedBytes -= next.getPayloadLength();
+                } else {
+                    next = latest;
+                    latest = null;
+                }
+                if (next == null || closing) {
+                    draining = false;
+                    return;
+                }
+            }
+
+            sendStartedNanos = System.nanoTime();
+            try {
+                getDelegate().sendMessage(next);
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) { draining = false; }
+                closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+                return;
+            } finally {
+                sendStartedNanos = 0;
+            }
+        }
+    }
+
+    private void closeSlow()
+    {
+        if (closing) return;
+        owner.onSlowClosed();
+        closeQuietly(CloseStatus.SESSION_NOT_RELIABLE.withReason("Slow consumer"));
+    }
+
+    private void closeQuietly(CloseStatus status)
+    {
+        closing = true;
+        synchronized (this)
+        {
+            queue.clear();
+            queuedBytes = 0;
+            latest = null;
+        }
+        try {
+            getDelegate().close(status);
+        } catch (IOException | RuntimeException ignored) {
+            // already gone
+        }
+    }
+
+    /** Reads the FRAME_HEADER value from the STOMP frame's header block, in place. */
+    static Kind classify(WebSocketMessage<?> message)
+    {
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            int at = headerAt(payload);
+            if (at < 0) return Kind.OTHER;
+            int from = at + HEADER_LINE.length();
+            int to = lineEnd(payload, from);
+            if (to - from == LATEST.length() && payload.startsWith(LATEST, from)) return Kind.LATEST;
+            if (to - from == KEEP.length() && payload.startsWith(KEEP, from)) return Kind.KEEP;
+        } else if (message instanceof BinaryMessage binary) {
+            ByteBuffer buf = binary.getPayload();
+            int at = headerAt(buf);
+            if (at < 0) return Kind.OTHER;
+            int from = at + HEADER_LINE.length();
+            int to = lineEnd(buf, from);
+            if (equalsAt(buf, from, to, LATEST)) return Kind.LATEST;
+            if (equalsAt(buf, from, to, KEEP)) return Kind.KEEP;
+        }
+        return Kind.OTHER;
+    }
+
+    /** The frame without its FRAME_HEADER line: the header is for the mailbox, not the client. */
+    static WebSocketMessage<?> stripped(WebSocketMessage<?> message)
+    {
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            int at = headerAt(payload);
+            if (at < 0) return message;
+            int next = Math.min(payload.length(), lineEnd(payload, at + HEADER_LINE.length()) + 1);
+            return new TextMessage(payload.substring(0, at + 1) + payload.substring(next), text.isLast());
+        }
+        if (message instanceof BinaryMessage binary) {
+            ByteBuffer buf = binary.getPayload();
+            int at = headerAt(buf);
+            if (at < 0) return message;
+            int next = Math.min(buf.remaining(), lineEnd(buf, at + HEADER_LINE.length()) + 1);
+            byte[] out = new byte[buf.remaining() - (next - at - 1)];
+            buf.duplicate().get(out, 0, at + 1);
+            buf.duplicate().position(buf.position() + next).get(out, at + 1, out.length - at - 1);
+            return new BinaryMessage(out, binary.isLast());
+        }
+        return message;
+    }
+
+    // -------- header scan (within the header block: up to the blank line, at most MAX_HEADER_SCAN) --------
+
+    /** Offset of the '\n' that starts the FRAME_HEADER line, or -1. */
+    private static int headerAt(String s)
+    {
+        int limit = Math.min(s.length(), MAX_HEADER_SCAN);
+        for (int i = 0; i < limit; i++) {
+            if (s.charAt(i) != '\n') continue;
+            if (i + 1 < limit && s.charAt(i + 1) == '\n') return -1;   // end of headers
+            if (s.startsWith(HEADER_LINE, i)) return i;
+        }
+        return -1;
+    }
+
+    private static int headerAt(ByteBuffer buf)
+    {
+        int limit = Math.min(buf.remaining(), MAX_HEADER_SCAN);
+        for (int i = 0; i < limit; i++) {
+            if (buf.get(buf.position() + i) != '\n') continue;
+            if (i + 1 < limit && buf.get(buf.position() + i + 1) == '\n') return -1;
+            if (equalsAt(buf, i, Math.min(i + HEADER_LINE.length(), buf.remaining()), HEADER_LINE)) return i;
+        }
+        return -1;
+    }
+
+    private static int lineEnd(String s, int from)
+    {
+        int to = s.indexOf('\n', from);
+        return to < 0 ? s.length() : to;
+    }
+
+    private static int lineEnd(ByteBuffer buf, int from)
+    {
+        for (int i = from; i < buf.remaining(); i++) if (buf.get(buf.position() + i) == '\n') return i;
+        return buf.remaining();
+    }
+
+    /** Bytes [from, to) of the buffer (relative to its position) are exactly the ASCII `s`. */
+    private static boolean equalsAt(ByteBuffer buf, int from, int to, String s)
+    {
+        if (to - from != s.length()) return false;
+        for (int i = 0; i < s.length(); i++) if (buf.get(buf.position() + from + i) != s.charAt(i)) return false;
+        return true;
+    }
+}
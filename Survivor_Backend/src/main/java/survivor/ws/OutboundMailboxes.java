@@ -0,0 +1,116 @@
+package survivor.ws;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Puts an OutboundMailbox in front of every /ws session (registered in WebSocketConfig), and owns
+ * what they share: the sender threads, the slow-consumer limits and the metrics.
+ *
+ * - ws.outbound.replaced: unsent snapshot frames replaced by a newer one
+ * - ws.outbound.slow.closed: sessions closed for falling too far behind
+ * - ws.outbound.sessions / ws.outbound.queued: open mailboxes and in-order messages waiting in them
+ */
+@Component
+public class OutboundMailboxes implements WebSocketHandlerDecoratorFactory
+{
+    private final int maxQueued;
+    private final long maxQueuedBytes;
+    private final long sendTimeLimitNanos;
+    private final ExecutorService sender;
+
+    private final Map<String, OutboundMailbox> open = new ConcurrentHashMap<>();
+    private final Counter replaced;
+    private final Counter slowClosed;
+
+    public OutboundMailboxes(@Value("${ws.outbound.maxQueued:256}") int maxQueued,
+                             @Value("${ws.outbound.maxQueuedBytes:1048576}") long maxQueuedBytes,
+                             @Value("${ws.outbound.sendTimeLimitMs:5000}") long sendTimeLimitMs,
+                             @Value("${ws.outbound.senders:0}") int senders,
+                             MeterRegistry meters)
+    {
+        this.maxQueued = maxQueued;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+
+        int threads = senders > 0 ? senders : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "ws-out-" + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+
+        replaced = Counter.builder("ws.outbound.replaced")
+                .description("Unsent snapshot frames replaced by a newer one")
+                .register(meters);
+        slowClosed = Counter.builder("ws.outbound.slow.closed")
+                .description("Sessions closed because they fell too far behind")
+                .register(meters);
+        Gauge.builder("ws.outbound.sessions", open, Map::size)
+                .description("Sessions with an outbound mailbox")
+                .register(meters);
+        Gauge.builder("ws.outbound.queued", this, OutboundMailboxes::queued)
+                .description("In-order messages waiting across all mailboxes")
+                .register(meters);
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        sender.shutdownNow();
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler)
+    {
+        return new WebSocketHandlerDecorator(handler)
+        {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception
+            {
+                OutboundMailbox mailbox = new OutboundMailbox(session, OutboundMailboxes.this);
+                open.put(session.getId(), mailbox);
+                super.afterConnectionEstablished(mailbox);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception
+            {
+                open.remove(session.getId());
+                super.afterConnectionClosed(session, status);
+            }
+        };
+    }
+
+    int maxQueued() { return maxQueued; }
+    long maxQueuedBytes() { return maxQueuedBytes; }
+    long sendTimeLimitNanos() { return sendTimeLimitNanos; }
+    ExecutorService sender() { return sender; }
+
+    void onReplaced() { replaced.increment(); }
+    void onSlowClosed() { slowClosed.increment(); }
+
+    private double queued()
+    {
+        long total = 0;
+        for (OutboundMailbox m : open.values()) total += m.queued();
+        return total;
+    }
+}
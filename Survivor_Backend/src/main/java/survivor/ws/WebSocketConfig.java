@@ -1,13 +1,29 @@
 package survivor.ws;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
+import survivor.accounts.AccountTokens;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer
 {
+    private final OutboundMailboxes mailboxes;
+    private final AccountTokens tokens;
+
+    @Value("${ws.outbound.channelThreads:0}") private int outboundThreads;
+
+    // Transport: permessage-deflate on /ws, and the limits of Spring's per-session layer
+    @Value("${ws.compression.enabled:true}") private boolean compression;
+    @Value("${ws.transport.messageSizeLimit:65536}") private int messageSizeLimit;
+    @Value("${ws.transport.sendBufferSizeLimit:524288}") private int sendBufferSizeLimit;
+    @Value("${ws.transport.sendTimeLimitMs:10000}") private int sendTimeLimitMs;
+
     @Override public void configureMessageBroker(MessageBrokerRegistry cfg)
     {
         cfg.enableSimpleBroker("/topic", "/queue");  // broker destinations
@@ -16,6 +32,25 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer
     }
     @Override public void registerStompEndpoints(StompEndpointRegistry reg)
     {
-        reg.addEndpoint("/ws").setAllowedOriginPatterns("*");
+        reg.addEndpoint("/ws")
+                .setHandshakeHandler(new DeflateHandshakeHandler(compression)) // permessage-deflate on/off
+                .setAllowedOriginPatterns("*");
+    }
+    @Override public void configureClientInboundChannel(ChannelRegistration reg)
+    {
+        reg.interceptors(new AccountPrincipalInterceptor(tokens)); // CONNECT header token -> session Principal
+    }
+    @Override public void configureClientOutboundChannel(ChannelRegistration reg)
+    {
+        // Only encodes STOMP frames and drops them in a session mailbox, so it never waits on a slow socket
+        int threads = outboundThreads > 0 ? outboundThreads : Runtime.getRuntime().availableProcessors();
+        reg.taskExecutor().corePoolSize(threads).maxPoolSize(threads);
+    }
+    @Override public void configureWebSocketTransport(WebSocketTransportRegistration reg)
+    {
+        reg.addDecoratorFactory(mailboxes); // per-session latest-wins snapshots, in-order events, slow sessions closed
+        reg.setMessageSizeLimit(messageSizeLimit);        // largest inbound STOMP message (client -> server)
+        reg.setSendBufferSizeLimit(sendBufferSizeLimit);  // bytes buffered per session in front of the mailbox
+        reg.setSendTimeLimit(sendTimeLimitMs);
     }
 }
@@ -0,0 +1,10 @@
+package survivor.ws.dto;
+
+/**
+ * Client's acknowledgement of the newest snapshot tick it has received.
+ * @param matchId
+ * @param accountId
+ * @param tick
+ */
+
+public record AckMsg(long matchId, int accountId, long tick) {}
@@ -0,0 +1,25 @@
+package survivor;
+
+import org.junit.Assume;
+
+/**
+ * Opt-in switch for the timing benchmarks that live beside the unit tests.
+ *
+ * They are skipped in a normal test run and only run with -Pbenchmarks (or -Dbenchmarks=true), since they
+ * take seconds to minutes and their timings only mean something on a quiet machine.
+ */
+public final class Benchmarks {
+
+    public static final String PROPERTY = "benchmarks";
+
+    private Benchmarks() {}
+
+    public static boolean enabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /** Skips (not fails) the calling test unless benchmarks are enabled. */
+    public static void assumeEnabled() {
+        Assume.assumeTrue("benchmark: run with -Pbenchmarks", enabled());
+    }
+}
@@ -17,13 +17,12 @@ import survivor.model.PlayerState;
 import survivor.runtime.*;
 import survivor.shared.AttackStyle;
 import survivor.combat.AttackSystem;
+import survivor.ws.AccountPrincipal;
 import survivor.ws.GameWs;
 import survivor.ws.UpgradeController;
 import survivor.ws.dto.UpgradePickDTO;
 
 import java.util.*;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -51,9 +50,6 @@ public class UpgradeEventIntegrationTest {
     @Autowired
     private UpgradeController upgradeController;
 
-    @Autowired
-    private UserActionQueueService userActions;
-
     private MatchRuntime matchRuntime;
     private PlayerState player;
     private GameWs gameWs;
@@ -74,15 +70,12 @@ public class UpgradeEventIntegrationTest {
         Stats baseStats = new Stats(100, 50, 30, 20, 5, 10);
         Vec2 spawn = new Vec2(100.0, 100.0);
         player = new PlayerState(1, spawn, baseStats, AttackStyle.AOE, baseStats.health());
-        matchRuntime.addPlayer(player);
+        registry.addPlayer(matchId, player);
         
         // Mock GameWs to capture WebSocket messages
         gameWs = mock(GameWs.class);
         messagingTemplate = mock(SimpMessagingTemplate.class);
         ReflectionTestUtils.setField(gameWs, "broker", messagingTemplate);
-        
-        // Inject mocked GameWs into UpgradeController
-        ReflectionTestUtils.setField(upgradeController, "ws", gameWs);
     }
 
     /**
@@ -158,23 +151,14 @@ public class UpgradeEventIntegrationTest {
         // Simulate client sending upgrade choice via STOMP
         UpgradePickDTO upgradePick = new UpgradePickDTO(player.id(), selectedUpgrade.name());
         
-        // Process upgrade choice (this simulates UpgradeController.onUpgradePick)
-        CountDownLatch latch = new CountDownLatch(1);
-        userActions.enqueue(player.id(), () -> {
-            matchRuntime.player(player.id()).ifPresent(p -> {
-                UpgradeType type;
-                try {
-                    type = UpgradeType.valueOf(upgradePick.selectedUpgrade());
-                } catch (IllegalArgumentException ex) {
-                    type = UpgradeType.DAMAGE_UP;
-                }
-                p.applyUpgrade(type);
-            });
-            latch.countDown();
-        });
-        
-        // Wait for upgrade to be processed
-        assertTrue("Upgrade should be processed", latch.await(2, TimeUnit.SECONDS));
+        // Send it through the controller as the player's session; the pick waits in the match's input mailbox
+        upgradeController.onUpgradePick(upgradePick, new AccountPrincipal(player.id()));
+        assertTrue("Upgrade waits for the tick", player.isChoosingUpgrade());
+
+        // Drain the mailbox the way the tick does at its start
+        List<InputMailbox.UpgradeApplied> applied = new ArrayList<>();
+        matchRuntime.inputs().drain(matchRuntime.getPlayers(), applied);
+        assertEquals("One upgrade applied", List.of(new InputMailbox.UpgradeApplied(player.id(), selectedUpgrade)), applied);
         
         // Verify upgrade was applied
         assertFalse("Player should no longer be choosing upgrade", player.isChoosingUpgrade());
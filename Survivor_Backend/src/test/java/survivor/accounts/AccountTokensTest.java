@@ -0,0 +1,86 @@
+package survivor.accounts;
+
+import org.junit.Test;
+import survivor.ws.AccountPrincipal;
+import survivor.ws.AccountPrincipalInterceptor;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.OptionalInt;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AccountTokens and the STOMP CONNECT binding that uses them.
+ *
+ * Coverage Goals:
+ * - issue() / verify() - round trip; tampered, foreign-key, malformed and expired tokens rejected
+ * - AccountPrincipalInterceptor - principal only from a valid token, never from a client-supplied id
+ *
+ * Strategy: Fixed clock for expiry; tokens edited by hand for the forgery cases
+ * Why: The per-player snapshot queue and game input are attributed to this principal
+ */
+public class AccountTokensTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AccountTokens tokens = tokens("secret", NOW);
+
+    @Test
+    public void testRoundTrip() {
+        assertEquals(OptionalInt.of(42), tokens.verify(tokens.issue(42)));
+    }
+
+    @Test
+    public void testRejectsForgeries() {
+        String token = tokens.issue(42);
+        String sig = token.substring(token.lastIndexOf('.'));
+
+        assertTrue("other account, same signature", tokens.verify("43" + token.substring(2)).isEmpty());
+        assertTrue("longer expiry, same signature",
+                tokens.verify("42." + (NOW.getEpochSecond() + 999_999) + sig).isEmpty());
+        assertTrue("signed with another key", tokens.verify(tokens("other", NOW).issue(42)).isEmpty());
+        assertTrue(tokens.verify(null).isEmpty());
+        assertTrue(tokens.verify("42").isEmpty());
+        assertTrue(tokens.verify("42.abc").isEmpty());
+        assertTrue(tokens.verify("..").isEmpty());
+    }
+
+    @Test
+    public void testExpires() {
+        String token = tokens.issue(42);
+        assertTrue(tokens("secret", NOW.plus(Duration.ofHours(23))).verify(token).isPresent());
+        assertTrue(tokens("secret", NOW.plus(Duration.ofHours(24))).verify(token).isEmpty());
+    }
+
+    @Test
+    public void testConnectBindsOnlyVerifiedAccount() {
+        var interceptor = new AccountPrincipalInterceptor(tokens);
+
+        assertEquals(new AccountPrincipal(7), user(interceptor, "token", tokens.issue(7)));
+        assertNull("client-supplied id alone", user(interceptor, "accountId", "7"));
+        assertNull("bad token", user(interceptor, "token", "7.9999999999.forged"));
+    }
+
+    // -------- helpers --------
+
+    private static AccountTokens tokens(String secret, Instant now) {
+        return new AccountTokens(secret, Duration.ofHours(24), Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static Object user(AccountPrincipalInterceptor interceptor, String header, String value) {
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.addNativeHeader(header, value);
+        connect.setLeaveMutable(true);
+        Message<byte[]> in = MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders());
+        Message<?> out = interceptor.preSend(in, null);
+        return StompHeaderAccessor.wrap(out).getUser();
+    }
+}
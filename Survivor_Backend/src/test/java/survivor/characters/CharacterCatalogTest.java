@@ -0,0 +1,104 @@
+package survivor.characters;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import survivor.shared.AttackStyle;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CharacterCatalog (immutable in-memory character table).
+ *
+ * Coverage Goals:
+ * - current() - loaded once on first use, then served from memory
+ * - byCode() / byId() - case-insensitive code, trimmed; unknown and null are empty
+ * - refresh() - version and ETag change only when the content does; ETag is the same after a restart
+ * - scheduledRefresh() - a failed reload keeps serving the current version
+ *
+ * Strategy: Mocked GameCharacterRepository; rows edited between refreshes
+ * Why: /characters answers 304 on the ETag, so an unchanged table must keep the same one
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CharacterCatalogTest {
+
+    @Mock
+    private GameCharacterRepository repo;
+
+    @InjectMocks
+    private CharacterCatalog catalog;
+
+    private GameCharacter wanderer, warrior;
+
+    @Before
+    public void setUp() {
+        wanderer = character(1, "WANDERER", 0);
+        warrior = character(2, "WARRIOR", 100);
+        when(repo.findAllByOrderByIdAsc()).thenReturn(List.of(wanderer, warrior));
+    }
+
+    @Test
+    public void testLoadsOnceThenServesFromMemory() {
+        assertEquals(2, catalog.all().size());
+        catalog.byCode("WARRIOR");
+        catalog.byId(1);
+        verify(repo, times(1)).findAllByOrderByIdAsc();
+    }
+
+    @Test
+    public void testLookups() {
+        assertEquals(Integer.valueOf(2), catalog.byCode(" warrior ").orElseThrow().characterId());
+        assertEquals("WANDERER", catalog.byId(1).orElseThrow().code());
+        assertTrue(catalog.byCode("NOPE").isEmpty());
+        assertTrue(catalog.byCode(null).isEmpty());
+        assertTrue(catalog.byId(99).isEmpty());
+        assertTrue(catalog.byId(null).isEmpty());
+    }
+
+    @Test
+    public void testVersionChangesOnlyWithContent() {
+        CharacterCatalog.Version first = catalog.current();
+        assertSame("unchanged table keeps the version", first, catalog.refresh());
+
+        warrior.setCost(150);
+        CharacterCatalog.Version second = catalog.refresh();
+        assertEquals(first.version() + 1, second.version());
+        assertNotEquals(first.etag(), second.etag());
+        assertEquals(150, catalog.byCode("WARRIOR").orElseThrow().cost());
+
+        // the old version is a snapshot: readers holding it still see what they started with
+        assertEquals(100, first.byCode().get("WARRIOR").cost());
+    }
+
+    @Test
+    public void testEtagFollowsContentAcrossRestarts() {
+        String etag = catalog.current().etag();
+        assertEquals("same table after a restart", etag, new CharacterCatalog(repo).current().etag());
+
+        warrior.setName("Warrior");
+        assertNotEquals(etag, new CharacterCatalog(repo).current().etag());
+    }
+
+    @Test
+    public void testFailedScheduledRefreshKeepsVersion() {
+        CharacterCatalog.Version v = catalog.current();
+        when(repo.findAllByOrderByIdAsc()).thenThrow(new RuntimeException("db down"));
+
+        catalog.scheduledRefresh();
+        assertSame(v, catalog.current());
+    }
+
+    // -------- helpers --------
+
+    private static GameCharacter character(int id, String code, int cost) {
+        return GameCharacter.builder().id(id).code(code).name(code).cost(cost)
+                .health(100).moveSpeed(10).attackSpeed(10).damageMult(10).critChance(10)
+                .attackStyle(AttackStyle.AOE).rangeUnits(1).build();
+    }
+}
@@ -0,0 +1,109 @@
+package survivor.combat;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.model.EnemyStore;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the fused nearest-player pass in EnemyAiSystem.
+ *
+ * Coverage Goals:
+ * - EnemyAiSystem.gateActivity() - nearest player + squared distance, wake/sleep thresholds
+ * - EnemyAiSystem.tick() - only awake enemies act, each against its nearest player
+ *
+ * Strategy: White-box, state validation with hand-placed entities
+ */
+public class EnemyAiSystemTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+    private static final double WAKE = 100, SLEEP = 150, LIGHT = 240;
+
+    private PlayerState near, far;
+    private NearestPlayers nearest;
+    private EnemyStore enemies;
+
+    @Before
+    public void setUp() {
+        near = new PlayerState(1, new Vec2(500, 500), STATS, AttackStyle.AOE, 100);
+        far = new PlayerState(2, new Vec2(1500, 1500), STATS, AttackStyle.AOE, 100);
+        nearest = new NearestPlayers();
+        enemies = new EnemyStore();
+    }
+
+    /**
+     * Test: gateActivity() - wake inside R_wake, sleep beyond R_sleep, hysteresis in between
+     * Coverage: gateActivity() - wake, sleep and keep branches; nearest player bookkeeping
+     * Strategy: Boundary values around both radii
+     */
+    @Test
+    public void testGateUsesNearestPlayer() {
+        int wakes = enemy(1000, 590, 500);     // 90 px from `near`
+        int stays = enemy(1001, 620, 500);     // 120 px: between wake and sleep
+        int sleeps = enemy(1002, 700, 500);    // 200 px
+        enemies.setActive(sleeps, true);
+
+        EnemyAiSystem.gateActivity(enemies, List.of(far, near), WAKE, SLEEP, nearest);
+
+        assertTrue(enemies.isActive(wakes));
+        assertFalse("Asleep enemy between radii stays asleep", enemies.isActive(stays));
+        assertFalse(enemies.isActive(sleeps));
+        assertSame("Nearest player should be found for every live enemy", near, nearest.player(1));
+        assertEquals(120.0 * 120.0, nearest.distSq(1), 1e-9);
+        assertEquals(1, nearest.awake().size());
+        assertEquals(0, nearest.awake().get(0));
+    }
+
+    /**
+     * Test: gateActivity() / tick() - dead and sleeping enemies never act
+     * Coverage: gateActivity() - isDead branch; tick() - awake-only iteration
+     * Strategy: Negative case
+     */
+    @Test
+    public void testOnlyAwakeEnemiesAct() {
+        int dead = enemy(1000, 505, 500);
+        enemies.setActive(dead, true);
+        enemies.applyDamage(dead, Integer.MAX_VALUE);
+        int asleep = enemy(1001, 1000, 1000);
+        enemy(1002, 510, 500);
+
+        EnemyAiSystem.gateActivity(enemies, List.of(near, far), WAKE, SLEEP, nearest);
+        HitBuffer hits = new HitBuffer();
+        EnemyAiSystem.tick(enemies, nearest, LIGHT, 24, 10_000L, hits);
+
+        assertNull("Dead enemies get no target", nearest.player(0));
+        assertEquals(1, nearest.awake().size());
+        assertEquals(1, hits.size());
+        assertEquals(1002, hits.attackerId(0));
+        assertEquals(near.id(), hits.targetId(0));
+        assertEquals("Sleeping enemy should not steer", 0.0, enemies.vx(asleep), 0.0);
+    }
+
+    /**
+     * Test: gateActivity() - no players left
+     * Coverage: gateActivity() - empty player collection
+     * Strategy: Boundary value
+     * Why: The old stream-based targeting threw on an empty player set
+     */
+    @Test
+    public void testNoPlayersNoTargets() {
+        enemies.setActive(enemy(1000, 500, 500), true);
+
+        EnemyAiSystem.gateActivity(enemies, List.of(), WAKE, SLEEP, nearest);
+
+        assertTrue(nearest.awake().isEmpty());
+        HitBuffer hits = new HitBuffer();
+        EnemyAiSystem.tick(enemies, nearest, LIGHT, 24, 10_000L, hits);
+        assertTrue(hits.isEmpty());
+    }
+
+    private int enemy(int id, double x, double y) {
+        return enemies.add(id, new Vec2(x, y), STATS, 100, EnemyType.BUMPER, 10.0);
+    }
+}
@@ -0,0 +1,205 @@
+package survivor.combat;
+
+import org.junit.Test;
+import survivor.Benchmarks;
+import survivor.model.EnemyStore;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+import survivor.shared.IntList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests and benchmark for SpatialGrid-backed AttackSystem queries.
+ *
+ * Coverage Goals:
+ * - SpatialGrid.rebuild() / query() - every live enemy within range is a candidate
+ * - AttackSystem.resolveAuto() - grid path hits exactly the same enemies as the full scan (AOE, CONE, ORBIT)
+ * - Candidates per query stay flat as total enemy count grows (250 to 10k)
+ *
+ * Strategy: Differential testing against the brute-force path; the timing benchmark is opt-in (-Pbenchmarks)
+ */
+public class SpatialGridTest {
+
+    private static final int TILE_PX = 24;
+    private static final double DT = 0.05;
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+
+    /**
+     * Test: query() - candidates are a superset of the exact circle
+     * Coverage: SpatialGrid.query() - multi-cell bounding box, clamped edges
+     * Strategy: Differential, random positions including map edges
+     */
+    @Test
+    public void testQueryCoversEveryEnemyInRange() {
+        EnemyStore enemies = scatter(new EnemyStore(), 2000, 0, 0, 2000, new SplittableRandom(7));
+        SpatialGrid grid = new SpatialGrid(2000, 2000, 64);
+        grid.rebuild(enemies);
+
+        double[][] probes = { {1000, 1000, 48}, {0, 0, 100}, {1999, 1999, 150}, {500, 1500, 10} };
+        for (double[] q : probes) {
+            Set<Integer> candidates = new TreeSet<>();
+            IntList near = grid.query(q[0], q[1], q[2]);
+            for (int k = 0; k < near.size(); k++) candidates.add(near.get(k));
+
+            for (int i = 0; i < enemies.size(); i++) {
+                if (Math.hypot(enemies.x(i) - q[0], enemies.y(i) - q[1]) <= q[2]) {
+                    assertTrue("Enemy " + i + " in range must be a candidate", candidates.contains(i));
+                }
+            }
+            assertTrue("Grid should prune most of the map", candidates.size() < enemies.size() / 4);
+        }
+    }
+
+    /**
+     * Test: rebuild() - dead enemies are not indexed
+     * Coverage: SpatialGrid.rebuild() - isDead branch
+     * Strategy: Negative case
+     */
+    @Test
+    public void testDeadEnemiesAreSkipped() {
+        EnemyStore enemies = scatter(new EnemyStore(), 10, 990, 990, 20, new SplittableRandom(1));
+        enemies.applyDamage(3, Integer.MAX_VALUE);
+        SpatialGrid grid = new SpatialGrid(2000, 2000, 64);
+        grid.rebuild(enemies);
+
+        assertEquals(9, grid.size());
+        IntList near = grid.query(1000, 1000, 100);
+        for (int k = 0; k < near.size(); k++) assertNotEquals(3, near.get(k));
+    }
+
+    /**
+     * Test: resolveAuto() - grid and full scan agree for every attack style
+     * Coverage: AttackSystem.resolveAuto() - AOE, CONE, ORBIT branches with and without grid
+     * Strategy: Differential testing over several steps (orbit rotates, cooldowns advance)
+     * Why: The grid must be a pure optimization with no gameplay change
+     */
+    @Test
+    public void testGridMatchesFullScan() {
+        EnemyStore enemies = scatter(new EnemyStore(), 3000, 0, 0, 2000, new SplittableRandom(42));
+        SpatialGrid grid = new SpatialGrid(2000, 2000, 64);
+        grid.rebuild(enemies);
+
+        List<PlayerState> scanPlayers = players();
+        List<PlayerState> gridPlayers = players();
+        for (int step = 1; step <= 40; step++) {
+            long now = step * 1_000L;
+            HitBuffer scanHits = new HitBuffer(), gridHits = new HitBuffer();
+            AttackSystem.resolveAuto(scanPlayers, enemies, null, TILE_PX, DT, now, scanHits);
+            AttackSystem.resolveAuto(gridPlayers, enemies, grid, TILE_PX, DT, now, gridHits);
+            var expected = targets(scanHits);
+            var actual = targets(gridHits);
+            assertEquals("Step " + step + " hit sets should match", expected, actual);
+        }
+    }
+
+    /**
+     * Test: query() candidates as enemy count grows 250 -> 10k
+     * Coverage: SpatialGrid.query() around the players
+     * Strategy: Fixed crowd of 250 enemies around the players; extra enemies spread over the far side
+     *           of the map, so the work a perfect index has to do is constant
+     * Why: Candidates examined per step must not grow with total enemy count
+     */
+    @Test
+    public void testCandidatesIgnoreFarEnemies() {
+        int baseCandidates = -1;
+        for (int n : COUNTS) {
+            SpatialGrid grid = new SpatialGrid(2000, 2000, 64);
+            grid.rebuild(crowd(n));
+            int candidates = candidates(grid);
+            if (baseCandidates < 0) baseCandidates = candidates;
+            assertEquals("Candidates near the players must not depend on far-away enemies", baseCandidates, candidates);
+        }
+    }
+
+    /**
+     * Benchmark (opt-in): resolveAuto() and rebuild() time, full scan vs grid, same crowds as above
+     * Coverage: AttackSystem.resolveAuto() with grid vs full scan
+     * Strategy: Warm up, then time 500 steps per layout; prints one row per enemy count
+     */
+    @Test
+    public void benchmarkQueryCost() {
+        Benchmarks.assumeEnabled();
+
+        System.out.println("enemies | scan us/step | grid us/step | rebuild us | candidates/step");
+        for (int n : COUNTS) {
+            EnemyStore enemies = crowd(n);
+            SpatialGrid grid = new SpatialGrid(2000, 2000, 64);
+            grid.rebuild(enemies);
+
+            double scanUs = timeSteps(enemies, null);
+            double gridUs = timeSteps(enemies, grid);
+
+            for (int i = 0; i < 200; i++) grid.rebuild(enemies);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < 200; i++) grid.rebuild(enemies);
+            double rebuildUs = (System.nanoTime() - t0) / 200 / 1_000.0;
+
+            System.out.printf("%7d | %12.1f | %12.1f | %10.1f | %d%n", n, scanUs, gridUs, rebuildUs, candidates(grid));
+        }
+    }
+
+    // -------- helpers --------
+
+    private static final int[] COUNTS = { 250, 1000, 2500, 5000, 10_000 };
+
+    /** 250 enemies around the players, the rest far away. */
+    private static EnemyStore crowd(int n) {
+        EnemyStore enemies = scatter(new EnemyStore(n), 250, 900, 900, 200, new SplittableRandom(1));
+        return scatter(enemies, n - 250, 1400, 0, 600, new SplittableRandom(n));
+    }
+
+    private static int candidates(SpatialGrid grid) {
+        int candidates = 0;
+        for (PlayerState p : players()) {
+            candidates += grid.query(p.pos().x(), p.pos().y(), 5 * TILE_PX).size();
+        }
+        return candidates;
+    }
+
+    private static double timeSteps(EnemyStore enemies, SpatialGrid grid) {
+        List<PlayerState> ps = players();
+        HitBuffer hits = new HitBuffer();
+        int warmup = 200, steps = 500;
+        for (int i = 1; i <= warmup; i++) {
+            hits.clear();
+            AttackSystem.resolveAuto(ps, enemies, grid, TILE_PX, DT, i * 1_000L, hits);
+        }
+        long t0 = System.nanoTime();
+        for (int i = warmup + 1; i <= warmup + steps; i++) {
+            hits.clear();
+            AttackSystem.resolveAuto(ps, enemies, grid, TILE_PX, DT, i * 1_000L, hits);
+        }
+        return (System.nanoTime() - t0) / (double) steps / 1_000.0;
+    }
+
+    private static List<PlayerState> players() {
+        List<PlayerState> ps = new ArrayList<>();
+        ps.add(new PlayerState(1, new Vec2(1000, 1000), STATS, AttackStyle.AOE, 100));
+        ps.add(new PlayerState(2, new Vec2(960, 1000), STATS, AttackStyle.CONE, 100));
+        ps.add(new PlayerState(3, new Vec2(1000, 960), STATS, AttackStyle.ORBIT, 100));
+        ps.add(new PlayerState(4, new Vec2(1040, 1040), STATS, AttackStyle.AOE, 100));
+        return ps;
+    }
+
+    private static EnemyStore scatter(EnemyStore out, int n, double x0, double y0, double size, SplittableRandom rnd) {
+        for (int i = 0; i < n; i++) {
+            Vec2 pos = new Vec2(x0 + rnd.nextDouble() * size, y0 + rnd.nextDouble() * size);
+            out.add(1000 + out.size(), pos, STATS, 1_000_000, EnemyType.BUMPER, 10.0);
+        }
+        return out;
+    }
+
+    private static Set<String> targets(HitBuffer hits) {
+        Set<String> out = new TreeSet<>();
+        for (int i = 0; i < hits.size(); i++) out.add(hits.attackerId(i) + "->" + hits.targetId(i));
+        return out;
+    }
+}
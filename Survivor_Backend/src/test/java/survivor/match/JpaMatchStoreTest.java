@@ -6,10 +6,11 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import survivor.characters.GameCharacter;
-import survivor.characters.GameCharacterRepository;
+import survivor.characters.CharacterCatalog;
+import survivor.characters.CharacterResponseDTO;
 import survivor.characters.UserCharacterUnlockRepository;
 import survivor.progress.UserProgressRepository;
+import survivor.shared.AttackStyle;
 import survivor.ws.dto.LobbyPlayer;
 import survivor.ws.dto.ParticipantResult;
 
@@ -31,7 +32,7 @@ public class JpaMatchStoreTest {
     private MatchParticipantRepository participantRepository;
 
     @Mock
-    private GameCharacterRepository characterRepository;
+    private CharacterCatalog characterCatalog;
 
     @Mock
     private UserProgressRepository progressRepository;
@@ -43,7 +44,7 @@ public class JpaMatchStoreTest {
     private JpaMatchStore matchStore;
 
     private Match testMatch;
-    private GameCharacter wanderer;
+    private CharacterResponseDTO wanderer;
 
     @Before
     public void setUp() {
@@ -53,9 +54,7 @@ public class JpaMatchStoreTest {
             .status(MatchStatus.LOBBY)
             .build();
 
-        wanderer = new GameCharacter();
-        wanderer.setId(1);
-        wanderer.setCode("WANDERER");
+        wanderer = character(1, "WANDERER");
     }
 
     /**
@@ -153,7 +152,7 @@ public class JpaMatchStoreTest {
         when(participantRepository.existsByMatchIdAndAccountId(1L, 100)).thenReturn(false);
         when(participantRepository.findByMatchId(1L)).thenReturn(List.of());
         when(matchRepository.findById(1L)).thenReturn(Optional.of(testMatch));
-        when(characterRepository.findByCodeIgnoreCase("WANDERER")).thenReturn(Optional.of(wanderer));
+        when(characterCatalog.byCode("WANDERER")).thenReturn(Optional.of(wanderer));
         when(participantRepository.save(any(MatchParticipant.class))).thenAnswer(invocation -> {
             MatchParticipant p = invocation.getArgument(0);
             p.setId(1L);
@@ -266,7 +265,7 @@ public class JpaMatchStoreTest {
         MatchParticipant participant = createParticipant(1L, 100, null);
         when(participantRepository.findByMatchId(1L)).thenReturn(List.of(participant));
         when(participantRepository.findById(participant.getId())).thenReturn(Optional.of(participant));
-        when(characterRepository.findByCodeIgnoreCase("WANDERER")).thenReturn(Optional.of(wanderer));
+        when(characterCatalog.byCode("WANDERER")).thenReturn(Optional.of(wanderer));
         when(participantRepository.save(any(MatchParticipant.class))).thenReturn(participant);
 
         boolean result = matchStore.lockCharacter(1L, 100, "WANDERER");
@@ -306,13 +305,11 @@ public class JpaMatchStoreTest {
     @Test
     public void testLockCharacter_NotOwned_ReturnsFalse() {
         MatchParticipant participant = createParticipant(1L, 100, null);
-        GameCharacter character = new GameCharacter();
-        character.setId(2);
-        character.setCode("PREMIUM");
+        CharacterResponseDTO character = character(2, "PREMIUM");
 
         when(participantRepository.findByMatchId(1L)).thenReturn(List.of(participant));
         when(participantRepository.findById(participant.getId())).thenReturn(Optional.of(participant));
-        when(characterRepository.findByCodeIgnoreCase("PREMIUM")).thenReturn(Optional.of(character));
+        when(characterCatalog.byCode("PREMIUM")).thenReturn(Optional.of(character));
         when(unlockRepository.existsByAccount_IdAndCharacter_Id(100, 2)).thenReturn(false);
 
         boolean result = matchStore.lockCharacter(1L, 100, "PREMIUM");
@@ -357,14 +354,8 @@ public class JpaMatchStoreTest {
     @Test
     public void testWriteResults_UpdatesParticipantsAndProgress() {
         MatchParticipant participant = createParticipant(1L, 100, null);
-        when(participantRepository.findByMatchId(1L)).thenReturn(List.of(participant));
-        when(participantRepository.save(any(MatchParticipant.class))).thenReturn(participant);
-
-        survivor.progress.UserProgress progress = new survivor.progress.UserProgress();
-        progress.setCoins(0);
-        progress.setTotalScore(0);
-        when(progressRepository.findByAccount_Id(100)).thenReturn(Optional.of(progress));
-        when(progressRepository.save(any(survivor.progress.UserProgress.class))).thenReturn(progress);
+        MatchParticipant other = createParticipant(1L, 200, null);
+        when(participantRepository.findByMatchId(1L)).thenReturn(List.of(participant, other));
 
         List<ParticipantResult> results = List.of(
             new ParticipantResult(100, 1000, 50, 5, 120000L)
@@ -375,8 +366,33 @@ public class JpaMatchStoreTest {
         assertEquals(Integer.valueOf(1000), participant.getScore());
         assertEquals(Integer.valueOf(50), participant.getCoinsEarned());
         assertEquals(Long.valueOf(120000L), participant.getTimeAliveMs());
-        verify(participantRepository).save(participant);
-        verify(progressRepository).save(progress);
+        assertNull("no result for 200: untouched", other.getScore());
+        verify(participantRepository).saveAll(List.of(participant));
+        // one atomic statement for the match, no read-modify-write of UserProgress
+        verify(progressRepository).addMatchResults(eq(1L), eq(List.of(100)), any());
+        verify(progressRepository, never()).save(any());
+    }
+
+    /**
+     * Test: recordEnd()
+     * Coverage: JpaMatchStore.recordEnd() - first call writes, replay is a no-op
+     * Strategy: White-box, branch coverage
+     * Equivalence: Same matchId recorded twice
+     */
+    @Test
+    public void testRecordEnd_IsIdempotent() {
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(testMatch));
+        when(participantRepository.findByMatchId(1L)).thenReturn(List.of(createParticipant(1L, 100, null)));
+        List<ParticipantResult> results = List.of(new ParticipantResult(100, 1000, 50, 5, 120000L));
+        Instant endTime = Instant.now();
+
+        assertTrue(matchStore.recordEnd(1L, 100, endTime, results));
+        assertEquals(MatchStatus.ENDED, testMatch.getStatus());
+        assertEquals(endTime, testMatch.getEndedAt());
+        assertNotNull(testMatch.getResultsWrittenAt());
+
+        assertFalse("already recorded", matchStore.recordEnd(1L, 100, endTime, results));
+        verify(progressRepository, times(1)).addMatchResults(eq(1L), any(), any());
     }
 
     private MatchParticipant createParticipant(long matchId, int accountId, Instant leftAt) {
@@ -390,4 +406,8 @@ public class JpaMatchStoreTest {
         p.setId((long) accountId);
         return p;
     }
+
+    private static CharacterResponseDTO character(int id, String code) {
+        return new CharacterResponseDTO(id, code, code, 0, 100, 10, 10, 10, 5, 1, AttackStyle.AOE);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package survivor.match;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import survivor.characters.CharacterCatalog;
+import survivor.characters.GameCharacter;
+import survivor.characters.GameCharacterRepository;
+import survivor.characters.UserCharacterUnlockRepository;
+import survivor.ws.dto.LobbyPlayer;
+import survivor.ws.dto.LobbySnapshot;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for Lobbies (in-memory lobby state, write-behind persistence).
+ *
+ * Coverage Goals:
+ * - join() / setReady() / select() - applied in memory with JpaMatchStore's rules, snapshot returned
+ * - select() - denial reasons; ownership asked of the database once, then remembered, never under the lobby lock
+ * - start() - LOBBY -> ACTIVE once, only with everyone ready and picked (checked under the lobby lock)
+ * - end() - ENDED in memory at once, markEnded queued behind a pending markActive
+ * - persistence - every change replayed through MatchStore in order, off the caller's thread
+ * - persistence - a failed write retried in order; the lobby stays in memory until it succeeds
+ * - load - an existing lobby comes back from the database on first touch
+ *
+ * Strategy: Mocked repositories and MatchStore; wait for the writer before verifying writes
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class LobbiesTest {
+
+    @Mock private MatchStore store;
+    @Mock private MatchRepository matchRepository;
+    @Mock private MatchParticipantRepository participantRepository;
+    @Mock private GameCharacterRepository characterRepository;
+    @Mock private UserCharacterUnlockRepository unlockRepository;
+
+    private Lobbies lobbies;
+
+    private GameCharacter wanderer, warrior;
+    private Match match;
+
+    @Before
+    public void setUp() {
+        wanderer = character(1, "WANDERER");
+        warrior = character(2, "WARRIOR");
+        when(characterRepository.findAllByOrderByIdAsc()).thenReturn(List.of(wanderer, warrior));
+        // a real catalog over the mocked table, so lookups behave as in production
+        lobbies = new Lobbies(store, matchRepository, participantRepository,
+                new CharacterCatalog(characterRepository), unlockRepository);
+        match = Match.builder().id(1L).joinCode("ABC123").status(MatchStatus.LOBBY).build();
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(participantRepository.findByMatchId(1L)).thenReturn(List.of());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        lobbies.shutdown();
+    }
+
+    @Test
+    public void testJoinReadyInMemory() throws Exception {
+        LobbySnapshot snap = lobbies.join(1L, 100);
+        assertEquals(List.of(new LobbyPlayer(100, "WANDERER", false)), snap.players());
+
+        snap = lobbies.setReady(1L, 100, true);
+        assertTrue(snap.players().get(0).ready());
+
+        awaitWrites();
+        InOrder order = inOrder(store);
+        order.verify(store).join(1L, 100);
+        order.verify(store).setReady(1L, 100, true);
+        verify(matchRepository, times(1)).findById(1L);   // loaded once, then memory only
+    }
+
+    @Test
+    public void testJoinCapsAtFourAndUnknownMatch() {
+        for (int i = 1; i <= 5; i++) lobbies.join(1L, i);
+        assertEquals(Lobbies.MAX_PLAYERS, lobbies.snapshot(1L).players().size());
+        assertNull(lobbies.join(99L, 1));
+    }
+
+    @Test
+    public void testSelectRules() throws Exception {
+        lobbies.join(1L, 100);
+        lobbies.setReady(1L, 100, true);
+
+        assertEquals("Character does not exist", lobbies.select(1L, 100, "NOPE").deniedReason());
+        assertEquals("Not in this lobby", lobbies.select(1L, 200, "WANDERER").deniedReason());
+        assertEquals("Character not owned", lobbies.select(1L, 100, "warrior").deniedReason());
+
+        when(unlockRepository.existsByAccount_IdAndCharacter_Id(100, 2)).thenReturn(true);
+        Lobbies.Selection ok = lobbies.select(1L, 100, "warrior");
+        assertTrue(ok.ok());
+        assertEquals(new LobbyPlayer(100, "WARRIOR", false), ok.snapshot().players().get(0));
+
+        lobbies.select(1L, 100, "WANDERER");
+        lobbies.select(1L, 100, "WARRIOR");
+        verify(unlockRepository, times(2)).existsByAccount_IdAndCharacter_Id(100, 2);   // denied once, owned once
+
+        assertNull(lobbies.select(1L, 100, " ").snapshot().players().get(0).characterCode());
+        awaitWrites();
+        verify(store).lockCharacter(1L, 100, null);
+    }
+
+    @Test
+    public void testOwnershipCheckedOutsideTheLobbyLock() throws Exception {
+        lobbies.join(1L, 100);
+        when(unlockRepository.existsByAccount_IdAndCharacter_Id(100, 2)).thenAnswer(inv ->
+                // another thread reads the lobby while the query is running
+                CompletableFuture.supplyAsync(() -> lobbies.snapshot(1L)).get(2, TimeUnit.SECONDS) != null);
+
+        assertTrue(lobbies.select(1L, 100, "WARRIOR").ok());
+    }
+
+    @Test
+    public void testFailedWriteRetriedBeforeEviction() throws Exception {
+        doThrow(new RuntimeException("db down"))
+                .doAnswer(inv -> { match.setStatus(MatchStatus.ACTIVE); return null; })
+                .when(store).markActive(eq(1L), any(Instant.class));
+        lobbies.join(1L, 100);
+        lobbies.leave(1L, 100);
+        lobbies.join(1L, 200);
+        lobbies.setReady(1L, 200, true);
+        assertEquals(1, lobbies.start(1L).players().size());
+
+        awaitWrites();   // includes the retry
+        assertFalse("memory kept ACTIVE while the write failed", lobbies.start(1L).ok());
+        verify(store, times(2)).markActive(eq(1L), any(Instant.class));
+        InOrder order = inOrder(store);
+        order.verify(store).join(1L, 100);
+        order.verify(store).leave(1L, 100);
+        order.verify(store).join(1L, 200);
+        order.verify(store).setReady(1L, 200, true);
+        order.verify(store, times(2)).markActive(eq(1L), any(Instant.class));
+    }
+
+    @Test
+    public void testStartOnce() throws Exception {
+        // the "database" follows the write, so a reload after the lobby is dropped sees ACTIVE too
+        doAnswer(inv -> { match.setStatus(MatchStatus.ACTIVE); return null; })
+                .when(store).markActive(eq(1L), any(Instant.class));
+        lobbies.join(1L, 100);
+        lobbies.setReady(1L, 100, true);
+        assertEquals(1, lobbies.start(1L).players().size());
+        assertEquals(MatchStatus.ACTIVE, lobbies.snapshot(1L).status());
+        assertEquals("second start does nothing", "Match already started", lobbies.start(1L).failedReason());
+
+        awaitWrites();
+        verify(store, times(1)).markActive(eq(1L), any(Instant.class));
+    }
+
+    @Test
+    public void testStartChecksEveryoneUnderTheLock() throws Exception {
+        assertEquals("No players in lobby", lobbies.start(1L).failedReason());
+        lobbies.join(1L, 100);
+        lobbies.join(1L, 200);
+        lobbies.setReady(1L, 100, true);
+
+        Lobbies.Start start = lobbies.start(1L);
+        assertEquals("Not all players ready", start.failedReason());
+        assertEquals(List.of(200), start.unready());
+
+        lobbies.setReady(1L, 200, true);
+        lobbies.select(1L, 200, null);   // clearing the pick un-readies too
+        lobbies.setReady(1L, 200, true);
+        start = lobbies.start(1L);
+        assertEquals("Not all players have selected characters", start.failedReason());
+        assertEquals(List.of(200), start.unpicked());
+        assertEquals(MatchStatus.LOBBY, lobbies.snapshot(1L).status());
+
+        lobbies.select(1L, 200, "WANDERER");
+        lobbies.setReady(1L, 200, true);
+        assertTrue(lobbies.start(1L).ok());
+        awaitWrites();
+        verify(store, times(1)).markActive(eq(1L), any(Instant.class));
+    }
+
+    @Test
+    public void testEndQueuedBehindPendingStart() throws Exception {
+        doThrow(new RuntimeException("db down"))
+                .doAnswer(inv -> { match.setStatus(MatchStatus.ACTIVE); return null; })
+                .when(store).markActive(eq(1L), any(Instant.class));
+        doAnswer(inv -> { match.setStatus(MatchStatus.ENDED); return null; })
+                .when(store).markEnded(eq(1L), any(), any(Instant.class));
+        lobbies.join(1L, 100);
+        lobbies.setReady(1L, 100, true);
+        assertTrue(lobbies.start(1L).ok());
+
+        var written = lobbies.end(1L, 100, Instant.now());
+        assertEquals(MatchStatus.ENDED, lobbies.snapshot(1L).status());
+        assertFalse("a lobby ended in memory can't start", lobbies.start(1L).ok());
+
+        written.get(5, TimeUnit.SECONDS);   // after the markActive retry
+        InOrder order = inOrder(store);
+        order.verify(store, times(2)).markActive(eq(1L), any(Instant.class));
+        order.verify(store).markEnded(eq(1L), eq(100), any(Instant.class));
+        assertEquals(MatchStatus.ENDED, match.getStatus());
+        assertNull("unknown match", lobbies.end(99L, null, Instant.now()));
+    }
+
+    @Test
+    public void testLoadsExistingLobby() {
+        MatchParticipant left = MatchParticipant.builder().id(1L).match(match).accountId(100)
+                .selectedCharacterCode("WANDERER").ready(true).leftAt(Instant.now()).build();
+        MatchParticipant here = MatchParticipant.builder().id(2L).match(match).accountId(200)
+                .selectedCharacterCode("WARRIOR").ready(true).build();
+        when(participantRepository.findByMatchId(1L)).thenReturn(List.of(here, left));
+
+        assertEquals(List.of(new LobbyPlayer(200, "WARRIOR", true)), lobbies.snapshot(1L).players());
+        lobbies.join(1L, 100);
+        assertEquals("left players can't rejoin", 1, lobbies.snapshot(1L).players().size());
+    }
+
+    // -------- helpers --------
+
+    private void awaitWrites() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (lobbies.pendingWrites() > 0) {
+            if (System.currentTimeMillis() > deadline) fail("writes never finished");
+            Thread.sleep(5);
+        }
+    }
+
+    private static GameCharacter character(int id, String code) {
+        GameCharacter gc = new GameCharacter();
+        gc.setId(id);
+        gc.setCode(code);
+        return gc;
+    }
+}
@@ -0,0 +1,147 @@
+package survivor.match;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import survivor.ws.dto.ParticipantResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MatchResultOutbox.
+ *
+ * Coverage Goals:
+ * - submit() - appends to the file only, the store is not touched until flush()
+ * - flush() - writes in batches of batchSize, retries a failing entry, truncates the file once drained
+ * - flush() - one fsync per flush covers every END line appended since the last, none when nothing was
+ * - replay() - entries without a DONE line survive a restart, written ones do not come back
+ *
+ * Strategy: Real file in a temporary folder, mocked MatchStore, flush() called directly (no writer thread)
+ */
+public class MatchResultOutboxTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private MatchStore store;
+    private Path file;
+    private SimpleMeterRegistry meters;   // of the last outbox made
+
+    @Before
+    public void setUp() throws Exception {
+        store = mock(MatchStore.class);
+        when(store.recordEnd(anyLong(), any(), any(), any())).thenReturn(true);
+        file = tmp.getRoot().toPath().resolve("outbox.log");
+    }
+
+    @Test
+    public void testSubmitOnlyTouchesTheFile() throws Exception {
+        MatchResultOutbox outbox = outbox(32);
+        outbox.submit(entry(7));
+
+        verifyNoInteractions(store);
+        assertEquals(1, outbox.pending());
+        assertTrue(Files.readString(file).contains("\"matchId\":7"));
+
+        assertEquals(1, outbox.flush());
+        verify(store).recordEnd(eq(7L), eq(1), any(Instant.class), eq(List.of(result(1))));
+        assertEquals(0, outbox.pending());
+        assertEquals("drained: file truncated", 0, Files.size(file));
+    }
+
+    @Test
+    public void testFlushesInBatches() throws Exception {
+        MatchResultOutbox outbox = outbox(2);
+        for (int i = 1; i <= 5; i++) outbox.submit(entry(i));
+
+        assertEquals(2, outbox.flush());
+        assertEquals(2, outbox.flush());
+        assertEquals(1, outbox.flush());
+        assertEquals(0, outbox.flush());
+        verify(store, times(5)).recordEnd(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    public void testGroupCommitBeforeFlush() throws Exception {
+        MatchResultOutbox outbox = outbox(2);
+        for (int i = 1; i <= 5; i++) outbox.submit(entry(i));
+        assertEquals("submit() never syncs", 0, syncs(), 0);
+
+        outbox.flush();
+        assertEquals("one sync for all five END lines", 1, syncs(), 0);
+        outbox.flush();
+        assertEquals("nothing appended since", 1, syncs(), 0);
+
+        outbox.submit(entry(6));
+        outbox.flush();
+        assertEquals(2, syncs(), 0);
+    }
+
+    @Test
+    public void testFailingEntryIsRetried() throws Exception {
+        when(store.recordEnd(eq(1L), any(), any(), any()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(true);
+        MatchResultOutbox outbox = outbox(32);
+        outbox.submit(entry(1));
+        outbox.submit(entry(2));
+
+        assertEquals("match 2 still goes through", 1, outbox.flush());
+        assertEquals(1, outbox.pending());
+        assertTrue("not written yet: still in the file", Files.size(file) > 0);
+
+        assertEquals(1, outbox.flush());
+        assertEquals(0, outbox.pending());
+        verify(store, times(2)).recordEnd(eq(1L), any(), any(), any());
+    }
+
+    @Test
+    public void testReplayAfterRestart() throws Exception {
+        when(store.recordEnd(eq(2L), any(), any(), any())).thenThrow(new RuntimeException("db down"));
+        MatchResultOutbox before = outbox(32);
+        before.submit(entry(1));
+        before.submit(entry(2));
+        before.flush();   // 1 written, 2 pending
+        before.submit(entry(3));
+        // crash: no shutdown()
+
+        reset(store);
+        when(store.recordEnd(anyLong(), any(), any(), any())).thenReturn(true);
+        MatchResultOutbox after = outbox(32);
+        after.replay();
+        assertEquals(2, after.pending());
+
+        assertEquals(2, after.flush());
+        verify(store, never()).recordEnd(eq(1L), any(), any(), any());
+        verify(store).recordEnd(eq(2L), eq(1), any(Instant.class), eq(List.of(result(1))));
+        verify(store).recordEnd(eq(3L), any(), any(), any());
+    }
+
+    // -------- helpers --------
+
+    private MatchResultOutbox outbox(int batchSize) {
+        meters = new SimpleMeterRegistry();
+        return new MatchResultOutbox(store, file.toString(), batchSize, 200, 0, 0, meters);
+    }
+
+    private double syncs() {
+        return meters.get("match.outbox.syncs").counter().count();
+    }
+
+    private static MatchResultOutbox.Entry entry(long matchId) {
+        return new MatchResultOutbox.Entry(matchId, 1, Instant.ofEpochMilli(1_700_000_000_000L), List.of(result(1)));
+    }
+
+    private static ParticipantResult result(int accountId) {
+        return new ParticipantResult(accountId, 1000, 50, 0, 120_000L);
+    }
+}
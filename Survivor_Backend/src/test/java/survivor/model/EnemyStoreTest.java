@@ -0,0 +1,230 @@
+package survivor.model;
+
+import org.junit.Test;
+import survivor.Benchmarks;
+import survivor.combat.EnemyAiSystem;
+import survivor.combat.NearestPlayers;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.runtime.Physics;
+import survivor.shared.AttackStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests and benchmark for the structure-of-arrays EnemyStore.
+ *
+ * Coverage Goals:
+ * - EnemyStore.add() / slotOf() / applyDamage() - same rules as EnemyState
+ * - EnemyStore.compact() - stable removal of the dead, id -> slot index fixed up
+ * - Per-step enemy work (gate, seek, integrate) on the store vs EnemyState objects at 250 and 5k enemies
+ *
+ * Strategy: State validation; differential testing against EnemyState; the throughput benchmark is opt-in
+ *           (-Pbenchmarks)
+ */
+public class EnemyStoreTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+    private static final double DT = 0.05, WAKE = 12 * 24.0, SLEEP = 14 * 24.0;
+    private static final double MAX_SPEED = 190.0, MAP = 2000;
+
+    /**
+     * Test: add(EnemyState) / applyDamage() - copied state and damage rules match EnemyState
+     * Coverage: add(EnemyState), applyDamage() - kill, overkill and already-dead branches
+     * Strategy: Differential against the object form
+     */
+    @Test
+    public void testDamageMatchesEnemyState() {
+        EnemyState obj = new EnemyState(1000, new Vec2(5, 6), STATS, 30, EnemyType.SWIPER, 12.0);
+        obj.setActive(true);
+        EnemyStore store = new EnemyStore();
+        int i = store.add(obj);
+
+        assertEquals(i, store.slotOf(1000));
+        assertEquals(-1, store.slotOf(1001));
+        assertEquals(EnemyType.SWIPER, store.type(i));
+        assertTrue(store.isActive(i));
+        assertEquals(5.0, store.x(i), 0.0);
+
+        for (int dmg : new int[] { 10, 25, 5 }) {
+            boolean wasAlive = !obj.isDead();
+            obj.applyDamage(dmg);
+            assertEquals("Kill flag for " + dmg, wasAlive && obj.isDead(), store.applyDamage(i, dmg));
+            assertEquals(obj.hp(), store.hp(i));
+            assertEquals(obj.isDead(), store.isDead(i));
+        }
+        assertEquals(1, store.deadCount());
+    }
+
+    /**
+     * Test: compact() - dead removed, survivors keep order and their fields, index follows them
+     * Coverage: compact() - move(), slots fix-up, onRemoved callback, no-op when nothing died
+     * Strategy: State validation
+     * Why: A stale slot would let a late hit land on a different enemy
+     */
+    @Test
+    public void testCompactKeepsSurvivorsInOrder() {
+        EnemyStore store = new EnemyStore(2);   // forces grow()
+        for (int k = 0; k < 6; k++) store.add(1000 + k, new Vec2(k, k), STATS, 50 + k, EnemyType.BUMPER, 10.0);
+        store.applyDamage(store.slotOf(1001), 1_000);
+        store.applyDamage(store.slotOf(1004), 1_000);
+
+        List<Integer> removed = new ArrayList<>();
+        assertEquals(2, store.compact(removed::add));
+
+        assertEquals(List.of(1001, 1004), removed);
+        assertEquals(4, store.size());
+        int[] expected = { 1000, 1002, 1003, 1005 };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], store.id(i));
+            assertEquals(i, store.slotOf(expected[i]));
+            assertEquals(50 + expected[i] - 1000, store.hp(i));
+            assertEquals(expected[i] - 1000, store.x(i), 0.0);
+        }
+        assertEquals(-1, store.slotOf(1001));
+        assertEquals(0, store.deadCount());
+        assertEquals(0, store.compact(removed::add));
+    }
+
+    /**
+     * Test: one enemy step on the store vs on EnemyState objects
+     * Coverage: EnemyAiSystem.gateActivity(), EnemyStore.seek(), Physics.integrateEnemies()
+     * Strategy: Differential testing over many steps
+     * Why: The store layout must be a pure optimization with no gameplay change
+     */
+    @Test
+    public void testStoreStepMatchesObjects() {
+        List<PlayerState> players = players();
+        List<EnemyState> objects = objects(500, new SplittableRandom(11));
+        EnemyStore store = new EnemyStore();
+        for (var e : objects) store.add(e);
+        NearestPlayers nearest = new NearestPlayers();
+
+        for (int step = 0; step < 50; step++) {
+            objectStep(objects, players);
+            storeStep(store, players, nearest);
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            assertEquals(objects.get(i).active(), store.isActive(i));
+            assertEquals(objects.get(i).pos().x(), store.x(i), 1e-9);
+            assertEquals(objects.get(i).pos().y(), store.y(i), 1e-9);
+        }
+    }
+
+    /**
+     * Benchmark (opt-in): enemy steps per second, EnemyState objects vs EnemyStore arrays
+     * Coverage: gate + seek + integrate at 250 and 5k enemies
+     * Strategy: Same enemies, players and loop shape on both sides, so only the data layout differs;
+     *           best of three warmed-up rounds
+     * Why: The per-enemy step work is the part of the tick that scales with enemy count
+     */
+    @Test
+    public void benchmarkObjectsVsStore() {
+        Benchmarks.assumeEnabled();
+
+        List<PlayerState> players = players();
+        System.out.println("enemies | objects us/step | store us/step | speedup");
+        for (int n : new int[] { 250, 5_000 }) {
+            List<EnemyState> objects = objects(n, new SplittableRandom(n));
+            EnemyStore store = new EnemyStore(n);
+            for (var e : objects) store.add(e);
+
+            double objectUs = Double.MAX_VALUE, storeUs = Double.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                objectUs = Math.min(objectUs, time(() -> objectStep(objects, players)));
+                storeUs = Math.min(storeUs, time(() -> storeLoopStep(store, players)));
+            }
+            System.out.printf("%7d | %15.1f | %13.1f | %6.2fx%n", n, objectUs, storeUs, objectUs / storeUs);
+        }
+    }
+
+    // -------- helpers --------
+
+    /** The per-enemy step as it ran on EnemyState objects (Vec2 per read and write). */
+    private static void objectStep(List<EnemyState> enemies, List<PlayerState> players) {
+        double wake2 = WAKE * WAKE, sleep2 = SLEEP * SLEEP;
+        for (var e : enemies) {
+            if (e.isDead()) continue;
+            PlayerState best = null;
+            double bestD2 = Double.MAX_VALUE;
+            for (var p : players) {
+                double dx = p.pos().x() - e.pos().x(), dy = p.pos().y() - e.pos().y();
+                double d2 = dx * dx + dy * dy;
+                if (d2 < bestD2) { bestD2 = d2; best = p; }
+            }
+            if (!e.active() && bestD2 <= wake2) e.setActive(true);
+            else if (e.active() && bestD2 >= sleep2) e.setActive(false);
+            if (e.active() && best != null) e.seek(best.pos());
+        }
+        for (var e : enemies) {
+            if (e.isDead()) continue;
+            Vec2 v = e.vel();
+            double sp = Math.hypot(v.x(), v.y());
+            if (sp > MAX_SPEED) v = new Vec2(v.x() * MAX_SPEED / sp, v.y() * MAX_SPEED / sp);
+            Vec2 next = new Vec2(e.pos().x() + v.x() * DT, e.pos().y() + v.y() * DT);
+            e.setPos(new Vec2(Math.max(0, Math.min(MAP - 1, next.x())), Math.max(0, Math.min(MAP - 1, next.y()))));
+        }
+    }
+
+    /** objectStep() over the store: same loop shape, primitive fields instead of objects. */
+    private static void storeLoopStep(EnemyStore enemies, List<PlayerState> players) {
+        double wake2 = WAKE * WAKE, sleep2 = SLEEP * SLEEP;
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            if (enemies.isDead(i)) continue;
+            double ex = enemies.x(i), ey = enemies.y(i);
+            PlayerState best = null;
+            double bestD2 = Double.MAX_VALUE;
+            for (var p : players) {
+                double dx = p.pos().x() - ex, dy = p.pos().y() - ey;
+                double d2 = dx * dx + dy * dy;
+                if (d2 < bestD2) { bestD2 = d2; best = p; }
+            }
+            boolean active = enemies.isActive(i);
+            if (!active && bestD2 <= wake2) active = true;
+            else if (active && bestD2 >= sleep2) active = false;
+            enemies.setActive(i, active);
+            if (active && best != null) enemies.seek(i, best.pos().x(), best.pos().y());
+        }
+        Physics.integrateEnemies(enemies, DT);
+    }
+
+    private static void storeStep(EnemyStore enemies, List<PlayerState> players, NearestPlayers nearest) {
+        EnemyAiSystem.gateActivity(enemies, players, WAKE, SLEEP, nearest);
+        var awake = nearest.awake();
+        for (int k = 0; k < awake.size(); k++) {
+            int i = awake.get(k);
+            Vec2 target = nearest.player(i).pos();
+            enemies.seek(i, target.x(), target.y());
+        }
+        Physics.integrateEnemies(enemies, DT);
+    }
+
+    private static double time(Runnable step) {
+        for (int i = 0; i < 2_000; i++) step.run();
+        int steps = 2_000;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < steps; i++) step.run();
+        return (System.nanoTime() - t0) / (double) steps / 1_000.0;
+    }
+
+    private static List<PlayerState> players() {
+        List<PlayerState> ps = new ArrayList<>();
+        ps.add(new PlayerState(1, new Vec2(600, 600), STATS, AttackStyle.AOE, 100));
+        ps.add(new PlayerState(2, new Vec2(1400, 600), STATS, AttackStyle.AOE, 100));
+        ps.add(new PlayerState(3, new Vec2(1000, 1400), STATS, AttackStyle.AOE, 100));
+        return ps;
+    }
+
+    private static List<EnemyState> objects(int n, SplittableRandom rnd) {
+        List<EnemyState> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Vec2 pos = new Vec2(rnd.nextDouble() * MAP, rnd.nextDouble() * MAP);
+            out.add(new EnemyState(1000 + i, pos, STATS, 100, EnemyType.BUMPER, 12.0));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,211 @@
+package survivor.progress;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import survivor.Benchmarks;
+import survivor.accounts.Account;
+import survivor.accounts.AccountRepository;
+import survivor.match.MatchStore;
+import survivor.ws.dto.ParticipantResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Concurrency benchmark: read-modify-write vs atomic SQL updates of UserProgress.coins.
+ *
+ * Coverage Goals:
+ * - UserProgressRepository.addByAccount() - no lost increments under contention, and at least the
+ *   throughput of the old read-modify-write
+ * - UserProgressRepository.debitCoins() - concurrent debits never overdraw
+ * - JpaMatchStore.writeResults() + debits on the same account - credits and purchases both land
+ *
+ * Strategy: THREADS writers hammer a few hot rows on the test database. The old pattern (find, add in Java,
+ *           save, in one transaction) runs first for comparison
+ * Why: Opt-in (-Pbenchmarks): thousands of contended transactions are too slow for every test pass. Final
+ *      balances are asserted exactly; throughput only relative to read-modify-write on the same database
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles({"test"})
+public class ProgressConcurrencyBenchmarkTest {
+
+    private static final int THREADS = 8, ROWS = 4, OPS_PER_THREAD = 250;
+
+    @Autowired
+    private UserProgressRepository progressRepo;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private MatchStore matchStore;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private TransactionTemplate tx;
+    private final List<Integer> accounts = new ArrayList<>();
+
+    @BeforeClass
+    public static void onlyWhenBenchmarking() {
+        Benchmarks.assumeEnabled();   // before the Spring context starts
+    }
+
+    @Before
+    public void setUp() {
+        tx = new TransactionTemplate(txManager);
+        accounts.clear();
+        long nonce = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Account a = new Account();
+            a.setEmail("bench" + nonce + "_" + i + "@example.com");
+            a.setUsername("bench" + nonce + "_" + i);
+            a.setPassword("password");
+            a = accountRepo.save(a);
+            progressRepo.save(UserProgress.builder().account(a).coins(0).totalScore(0).build());
+            accounts.add(a.getId());
+        }
+    }
+
+    @Test
+    public void testAtomicIncrementsLoseNothing() throws Exception {
+        int expected = THREADS * OPS_PER_THREAD;
+
+        AtomicInteger failed = new AtomicInteger();
+        long rmwNanos = hammer(op -> {
+            try {
+                tx.executeWithoutResult(s -> {
+                    var p = progressRepo.findByAccount_Id(account(op)).orElseThrow();
+                    p.setCoins(p.getCoins() + 1);
+                    progressRepo.save(p);
+                });
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();   // lock timeout / write conflict: the increment is gone too
+            }
+        });
+        int rmwLost = expected - totalCoins();
+
+        reset();
+        long atomicNanos = hammer(op -> progressRepo.addByAccount(account(op), 1, 0, LocalDateTime.now()));
+        int atomicLost = expected - totalCoins();
+
+        System.out.printf("progress +1 coin, %d threads x %d ops on %d rows:%n", THREADS, OPS_PER_THREAD, ROWS);
+        report("read-modify-write", rmwNanos, rmwLost, failed.get());
+        report("atomic update", atomicNanos, atomicLost, 0);
+
+        assertEquals("atomic increments must not be lost", 0, atomicLost);
+        assertTrue("atomic updates should be at least as fast as read-modify-write", atomicNanos <= rmwNanos);
+    }
+
+    @Test
+    public void testConcurrentDebitsNeverOverdraw() throws Exception {
+        int account = accounts.get(0), cost = 7, start = 100;
+        progressRepo.addByAccount(account, start, 0, LocalDateTime.now());
+
+        AtomicInteger bought = new AtomicInteger();
+        hammer(op -> {
+            if (progressRepo.debitCoins(account, cost, LocalDateTime.now()) == 1) bought.incrementAndGet();
+        });
+
+        assertEquals("exactly as many purchases as the balance covers", start / cost, bought.get());
+        assertEquals(start % cost, (int) progressRepo.findCoinsByAccount_Id(account).orElseThrow());
+    }
+
+    @Test
+    public void testMatchCreditsAndPurchasesBothLand() throws Exception {
+        int account = accounts.get(0), earned = 5, cost = 3, matches = 40;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < matches; i++) {
+            long id = matchStore.createLobby().getId();
+            matchStore.join(id, account);
+            ids.add(id);
+        }
+        progressRepo.addByAccount(account, 1_000, 0, LocalDateTime.now());
+
+        // half the threads end matches, the other half buy things, all on the same row
+        AtomicInteger nextMatch = new AtomicInteger(), bought = new AtomicInteger();
+        hammer(op -> {
+            if (op % 2 == 0) {
+                int m = nextMatch.getAndIncrement();
+                if (m < matches) {
+                    matchStore.writeResults(ids.get(m), List.of(new ParticipantResult(account, 10, earned, 0, 1_000L)));
+                }
+            } else if (progressRepo.debitCoins(account, cost, LocalDateTime.now()) == 1) {
+                bought.incrementAndGet();
+            }
+        });
+
+        int credited = Math.min(matches, nextMatch.get());
+        int balance = progressRepo.findCoinsByAccount_Id(account).orElseThrow();
+        assertEquals(1_000 + credited * earned - bought.get() * cost, balance);
+        assertEquals(credited * 10, progressRepo.findByAccount_Id(account).orElseThrow().getTotalScore());
+    }
+
+    // -------- helpers --------
+
+    private interface Op {
+        void run(int op) throws Exception;
+    }
+
+    /** THREADS threads, OPS_PER_THREAD ops each, started together; returns wall time. */
+    private long hammer(Op body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int base = t * OPS_PER_THREAD;
+            done.add(pool.submit(() -> {
+                go.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) body.run(base + i);
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        go.countDown();
+        for (Future<?> f : done) f.get(2, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    private int account(int op) {
+        return accounts.get(op % ROWS);
+    }
+
+    private int totalCoins() {
+        int sum = 0;
+        for (int a : accounts) sum += progressRepo.findCoinsByAccount_Id(a).orElseThrow();
+        return sum;
+    }
+
+    private void reset() {
+        for (int a : accounts) {
+            int coins = progressRepo.findCoinsByAccount_Id(a).orElseThrow();
+            progressRepo.addByAccount(a, -coins, 0, LocalDateTime.now());
+        }
+    }
+
+    private static void report(String name, long nanos, int lost, int failed) {
+        int ops = THREADS * OPS_PER_THREAD;
+        System.out.printf("  %-18s %8.0f ops/s | lost %5d (%d failed)%n",
+                name, ops / (nanos / 1e9), lost, failed);
+    }
+}
@@ -0,0 +1,154 @@
+package survivor.runtime;
+
+import org.junit.Test;
+import survivor.Benchmarks;
+import survivor.combat.AttackSystem;
+import survivor.combat.HitBuffer;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.EnemyState;
+import survivor.model.EnemyStore;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests and microbenchmark for indexed enemy lookup in CombatResolve.
+ *
+ * Coverage Goals:
+ * - CombatResolve.apply() on an EnemyStore gives the same events as the list scan
+ * - Unknown ids and ids compacted out of the store are ignored
+ * - Lookup cost: store id -> slot index vs list scan as the enemy count grows
+ *
+ * Strategy: Differential testing; the lookup timing benchmark is opt-in (-Pbenchmarks)
+ */
+public class CombatResolveTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+
+    /**
+     * Test: apply() - store vs list scan
+     * Coverage: CombatResolve.apply() - both Targets implementations
+     * Strategy: Differential testing with identical enemies
+     */
+    @Test
+    public void testIndexedLookupMatchesScan() {
+        List<AttackSystem.Hit> hits = randomHits(500, 2000, new SplittableRandom(5));
+        hits.add(new AttackSystem.Hit(1, 999_999, 10, true));   // unknown id
+
+        var scanEnemies = enemies(2000, 100);
+        var scan = CombatResolve.apply(hits, List.of(), players(), scanEnemies);
+        var indexed = applyToStore(hits, players(), store(scanEnemies.size(), 100));
+
+        assertEquals(scan.damages(), indexed.damages());
+        assertEquals(scan.deaths(), indexed.deaths());
+    }
+
+    /**
+     * Test: apply() - hit on an enemy that was compacted out of the store
+     * Coverage: CombatResolve.apply() - slotOf() miss after EnemyStore.compact()
+     * Strategy: Negative case
+     * Why: Survivors move to new slots; a late hit must never land on a different enemy
+     */
+    @Test
+    public void testCompactedEnemyIsIgnored() {
+        EnemyStore store = store(3, 100);
+        store.applyDamage(1, Integer.MAX_VALUE);   // id 1001
+        store.compact(null);
+
+        var events = applyToStore(
+                List.of(new AttackSystem.Hit(1, 1001, 5, true), new AttackSystem.Hit(1, 1002, 5, true)),
+                players(), store);
+
+        assertEquals(1, events.damages().size());
+        assertEquals(1002, events.damages().get(0).targetId());
+        assertEquals(100, store.hp(store.slotOf(1000)));
+        assertEquals(95, store.hp(store.slotOf(1002)));
+    }
+
+    /**
+     * Benchmark (opt-in): hit resolution cost vs enemy list size
+     * Coverage: CombatResolve.apply() - list scan vs EnemyStore slot index
+     * Strategy: 200 hits per step against 250 -> 10k enemies (high HP so nothing dies)
+     * Why: Scan is O(hits x enemies); the index should stay flat
+     */
+    @Test
+    public void benchmarkLookup() {
+        Benchmarks.assumeEnabled();
+
+        System.out.println("enemies | scan us/step | index us/step");
+        for (int n : new int[] { 250, 1000, 2500, 10_000 }) {
+            var list = enemies(n, Integer.MAX_VALUE);
+            var store = store(n, Integer.MAX_VALUE);
+            var hits = randomHits(200, n, new SplittableRandom(n));
+            var players = players();
+
+            double scanUs = time(() -> CombatResolve.apply(hits, List.of(), players, list));
+            HitBuffer buffered = buffer(hits), none = new HitBuffer();
+            var targets = CombatResolve.targets(store);
+            var events = new CombatResolve.MatchEvents(new ArrayList<>(), new ArrayList<>());
+            double indexUs = time(() -> {
+                events.damages().clear();
+                CombatResolve.apply(buffered, none, players, targets, events);
+            });
+            System.out.printf("%7d | %12.1f | %13.1f%n", n, scanUs, indexUs);
+        }
+    }
+
+    // -------- helpers --------
+
+    private static double time(Runnable step) {
+        for (int i = 0; i < 300; i++) step.run();
+        int steps = 1000;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < steps; i++) step.run();
+        return (System.nanoTime() - t0) / (double) steps / 1_000.0;
+    }
+
+    private static List<EnemyState> enemies(int n, int hp) {
+        List<EnemyState> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new EnemyState(1000 + i, new Vec2(i % 2000, i / 2000.0), STATS, hp, EnemyType.BUMPER, 12.0));
+        }
+        return out;
+    }
+
+    private static CombatResolve.MatchEvents applyToStore(List<AttackSystem.Hit> hits,
+                                                          Map<Integer, PlayerState> players, EnemyStore store) {
+        var events = new CombatResolve.MatchEvents(new ArrayList<>(), new ArrayList<>());
+        CombatResolve.apply(buffer(hits), new HitBuffer(), players, CombatResolve.targets(store), events);
+        return events;
+    }
+
+    private static HitBuffer buffer(List<AttackSystem.Hit> hits) {
+        HitBuffer out = new HitBuffer();
+        for (var h : hits) out.add(h.attackerId(), h.targetId(), h.damage());
+        return out;
+    }
+
+    private static EnemyStore store(int n, int hp) {
+        EnemyStore out = new EnemyStore(n);
+        for (var e : enemies(n, hp)) out.add(e);
+        return out;
+    }
+
+    private static List<AttackSystem.Hit> randomHits(int count, int enemies, SplittableRandom rnd) {
+        List<AttackSystem.Hit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) hits.add(new AttackSystem.Hit(1, 1000 + rnd.nextInt(enemies), 7, true));
+        return hits;
+    }
+
+    private static Map<Integer, PlayerState> players() {
+        Map<Integer, PlayerState> ps = new HashMap<>();
+        ps.put(1, new PlayerState(1, new Vec2(0, 0), STATS, AttackStyle.AOE, 100));
+        return ps;
+    }
+}
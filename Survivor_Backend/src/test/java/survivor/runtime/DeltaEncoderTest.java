@@ -0,0 +1,117 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.runtime.SnapshotBuilder.EntityView;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for DeltaEncoder.
+ *
+ * Coverage Goals:
+ * - DeltaEncoder.encode() - keyframe vs delta, entered/changed/left, periodic keyframe
+ * - DeltaEncoder.acknowledge() - newest tick wins
+ *
+ * Strategy: Unit testing with hand-built EntityView lists
+ */
+public class DeltaEncoderTest {
+
+    private DeltaEncoder enc;
+
+    @Before
+    public void setUp() {
+        enc = new DeltaEncoder();
+    }
+
+    private static EntityView enemy(int id, double x, double y, int hp) {
+        return new EntityView("enemy", id, x, y, hp, "BUMPER");
+    }
+
+    /**
+     * Test: encode() - no ack yet
+     * Coverage: DeltaEncoder.encode() - keyframe branch
+     * Strategy: Equivalence class (fresh client)
+     */
+    @Test
+    public void testFirstFrameIsKeyframe() {
+        var d = enc.encode(1, 1, enc.ackedTick(1), List.of(), List.of(enemy(5, 1, 1, 10)));
+        assertTrue(d.keyframe());
+        assertEquals(1, d.enemies().entered().size());
+        assertEquals(0, d.enemies().left().length);
+    }
+
+    /**
+     * Test: encode() - against an acknowledged frame
+     * Coverage: DeltaEncoder.encode() - diff: entered, changed fields only, left, unchanged skipped
+     * Strategy: White-box (merge walk over all three cases)
+     */
+    @Test
+    public void testDeltaAgainstAckedFrame() {
+        enc.encode(1, 1, 0, List.of(), List.of(enemy(3, 10, 10, 5), enemy(7, 20, 20, 5), enemy(9, 0, 0, 5)));
+        enc.acknowledge(1, 1);
+
+        var d = enc.encode(1, 2, enc.ackedTick(1), List.of(),
+                List.of(enemy(9, 0.2, 0, 5), enemy(7, 21, 20, 4), enemy(11, 5, 5, 5)));
+
+        assertFalse(d.keyframe());
+        assertEquals(1, d.baseTick());
+        assertEquals(1, d.enemies().entered().size());
+        assertEquals(11, d.enemies().entered().get(0).id());
+        assertArrayEquals(new int[]{3}, d.enemies().left());
+
+        // 9 moved less than a pixel, so only 7 counts as changed
+        assertEquals(1, d.enemies().changed().size());
+        var c = d.enemies().changed().get(0);
+        assertEquals(7, c.id());
+        assertEquals(Integer.valueOf(21), c.x());
+        assertNull(c.y());
+        assertEquals(Integer.valueOf(4), c.hp());
+    }
+
+    /**
+     * Test: acknowledge() - stale acks
+     * Coverage: DeltaEncoder.acknowledge() - max merge
+     * Strategy: Boundary value (out-of-order acks)
+     */
+    @Test
+    public void testOlderAckIgnored() {
+        enc.acknowledge(1, 8);
+        enc.acknowledge(1, 5);
+        assertEquals(8, enc.ackedTick(1));
+        enc.forget(1);
+        assertEquals(0, enc.ackedTick(1));
+    }
+
+    /**
+     * Test: encode() - base fell out of the ring
+     * Coverage: DeltaEncoder.Viewer.find() - too-old branch
+     * Strategy: Boundary value (ack older than HISTORY)
+     */
+    @Test
+    public void testAckOlderThanHistoryGivesKeyframe() {
+        for (long t = 1; t <= DeltaEncoder.HISTORY + 1; t++) {
+            enc.encode(1, t, t == 1 ? 0 : 1, List.of(), List.of(enemy(1, t, 0, 5)));
+        }
+        var d = enc.encode(1, DeltaEncoder.HISTORY + 2, 1, List.of(), List.of(enemy(1, 0, 0, 5)));
+        assertTrue(d.keyframe());
+    }
+
+    /**
+     * Test: encode() - periodic keyframe
+     * Coverage: DeltaEncoder.encode() - KEYFRAME_INTERVAL branch
+     * Strategy: Boundary value (every tick acked)
+     */
+    @Test
+    public void testPeriodicKeyframe() {
+        int keyframes = 0;
+        for (long t = 1; t <= DeltaEncoder.KEYFRAME_INTERVAL; t++) {
+            if (enc.encode(1, t, t - 1, List.of(), List.of(enemy(1, t, 0, 5))).keyframe()) keyframes++;
+        }
+        assertEquals("Only the first frame should be a keyframe", 1, keyframes);
+        assertTrue(enc.encode(1, DeltaEncoder.KEYFRAME_INTERVAL + 1, DeltaEncoder.KEYFRAME_INTERVAL,
+                List.of(), List.of(enemy(1, 0, 0, 5))).keyframe());
+    }
+}
@@ -0,0 +1,111 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FixedStepClock.
+ *
+ * Coverage Goals:
+ * - FixedStepClock.advance() - step payout, early-tick tolerance, catch-up, clamp
+ * - Overrun / dropped-step counters
+ *
+ * Strategy: Unit testing with a synthetic nanoTime source (50 ms step = 20 Hz)
+ */
+public class FixedStepClockTest {
+
+    private static final long STEP = 50_000_000L;
+
+    private FixedStepClock clock;
+
+    @Before
+    public void setUp() {
+        clock = new FixedStepClock(STEP, 3);
+        clock.start(0L);
+    }
+
+    /**
+     * Test: advance() - not started
+     * Coverage: FixedStepClock.advance() - !running branch
+     * Strategy: Negative case
+     */
+    @Test
+    public void testNoStepsBeforeStart() {
+        FixedStepClock idle = new FixedStepClock(STEP, 3);
+        assertEquals(0, idle.advance(10 * STEP));
+    }
+
+    /**
+     * Test: advance() - one step per on-time tick
+     * Coverage: FixedStepClock.advance() - single step branch
+     * Strategy: Equivalence class (scheduler on time)
+     */
+    @Test
+    public void testOneStepPerTick() {
+        for (int i = 1; i <= 10; i++) {
+            assertEquals("Tick " + i + " should pay one step", 1, clock.advance(i * STEP));
+        }
+        assertEquals(10, clock.getSteps());
+        assertEquals(0, clock.getCatchUpSteps());
+        assertEquals(0, clock.getOverruns());
+    }
+
+    /**
+     * Test: advance() - jittery scheduler still averages one step per tick
+     * Coverage: FixedStepClock.advance() - early tolerance branch
+     * Strategy: Boundary value (tick fires 5 ms early, then 5 ms late)
+     * Why: Timer jitter must not produce 0/2 step alternation
+     */
+    @Test
+    public void testJitterDoesNotAlternate() {
+        long t = 0;
+        for (int i = 0; i < 10; i++) {
+            t += (i % 2 == 0) ? STEP - 5_000_000L : STEP + 5_000_000L;
+            assertEquals("Jittery tick " + i + " should still pay one step", 1, clock.advance(t));
+        }
+    }
+
+    /**
+     * Test: advance() - early tick gets nothing
+     * Coverage: FixedStepClock.advance() - accumulator below threshold branch
+     * Strategy: Boundary value (half a step)
+     */
+    @Test
+    public void testTooEarlyPaysNothing() {
+        assertEquals(0, clock.advance(STEP / 2));
+        assertEquals(1, clock.advance(STEP));
+    }
+
+    /**
+     * Test: advance() - catch-up after a short stall
+     * Coverage: FixedStepClock.advance() - multi-step branch
+     * Strategy: Equivalence class (stall within maxCatchUpSteps)
+     * Why: A short pause must not slow down game time
+     */
+    @Test
+    public void testCatchUpWithinLimit() {
+        assertEquals(3, clock.advance(3 * STEP));
+        assertEquals(2, clock.getCatchUpSteps());
+        assertEquals(0, clock.getOverruns());
+        assertEquals(0, clock.getDroppedSteps());
+    }
+
+    /**
+     * Test: advance() - long stall is clamped
+     * Coverage: FixedStepClock.advance() - overrun / clamp branch
+     * Strategy: Boundary value (10 steps due, max 3)
+     * Why: Prevents a spiral of catch-up ticks after a GC pause; lost time is counted
+     */
+    @Test
+    public void testLongStallIsClampedAndCounted() {
+        assertEquals(3, clock.advance(10 * STEP));
+        assertEquals(1, clock.getOverruns());
+        assertEquals(7, clock.getDroppedSteps());
+        assertEquals(9 * STEP, clock.getLastLagNanos());
+
+        // backlog was dropped, so the next on-time tick pays a single step again
+        assertEquals(1, clock.advance(11 * STEP));
+    }
+}
@@ -0,0 +1,154 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for InputMailbox.
+ *
+ * Coverage Goals:
+ * - drain() - moves coalesce to the highest seq per player, upgrade picks applied in order
+ * - drain() - inputs for unknown players ignored, moves skipped while choosing an upgrade
+ * - offer() - bounded: drops once full (reported once by newlyDropped()), slots reused after a drain
+ * - offer() - many producers, nothing lost or duplicated
+ * - MatchRuntime.tick() - mailbox drained at tick start, picks reported in the MatchDelta
+ *
+ * Strategy: Drive the mailbox directly with real PlayerStates; one concurrency test with producer threads
+ */
+public class InputMailboxTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+
+    private InputMailbox mailbox;
+    private Map<Integer, PlayerState> players;
+    private List<InputMailbox.UpgradeApplied> applied;
+
+    @Before
+    public void setUp() {
+        mailbox = new InputMailbox(8);
+        players = new HashMap<>();
+        players.put(1, player(1));
+        players.put(2, player(2));
+        applied = new ArrayList<>();
+    }
+
+    @Test
+    public void testMovesCoalesceToHighestSeq() {
+        mailbox.offer(InputMailbox.move(1, 1f, 0f, 5));
+        mailbox.offer(InputMailbox.move(1, 0f, 1f, 7));
+        mailbox.offer(InputMailbox.move(1, -1f, 0f, 6));   // arrived late, older seq
+        mailbox.offer(InputMailbox.move(2, 0f, -1f, 1));
+
+        assertEquals(4, mailbox.drain(players, applied));
+        assertEquals(0f, players.get(1).moveX(), 0f);
+        assertEquals(1f, players.get(1).moveY(), 0f);
+        assertEquals(-1f, players.get(2).moveY(), 0f);
+        assertTrue(applied.isEmpty());
+
+        assertEquals(0, mailbox.drain(players, applied));
+    }
+
+    @Test
+    public void testUpgradePickAppliedBeforeMoves() {
+        var p = players.get(1);
+        p.addXp(150);
+        assertTrue(p.isChoosingUpgrade());
+
+        mailbox.offer(InputMailbox.move(1, 1f, 0f, 1));
+        mailbox.offer(InputMailbox.upgrade(1, UpgradeType.DAMAGE_UP));
+        mailbox.drain(players, applied);
+
+        assertFalse(p.isChoosingUpgrade());
+        assertEquals(List.of(new InputMailbox.UpgradeApplied(1, UpgradeType.DAMAGE_UP)), applied);
+        assertEquals("move from the same tick lands once the player is unfrozen", 1f, p.moveX(), 0f);
+    }
+
+    @Test
+    public void testUnknownPlayerIgnored() {
+        mailbox.offer(InputMailbox.move(9, 1f, 0f, 1));
+        mailbox.offer(InputMailbox.upgrade(9, UpgradeType.DAMAGE_UP));
+
+        assertEquals(2, mailbox.drain(players, applied));
+        assertTrue(applied.isEmpty());
+    }
+
+    @Test
+    public void testBoundedAndReused() {
+        for (int i = 0; i < 8; i++) assertTrue(mailbox.offer(InputMailbox.move(1, 0f, 0f, i)));
+        assertFalse(mailbox.offer(InputMailbox.move(1, 0f, 0f, 8)));
+        assertEquals(1, mailbox.dropped());
+        assertEquals(1, mailbox.newlyDropped());
+        assertEquals("already reported", 0, mailbox.newlyDropped());
+
+        assertEquals(8, mailbox.drain(players, applied));
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 8; i++) assertTrue(mailbox.offer(InputMailbox.move(2, 0f, 0f, i)));
+            assertEquals(8, mailbox.drain(players, applied));
+        }
+        assertEquals(1, mailbox.dropped());
+    }
+
+    @Test
+    public void testManyProducers() throws Exception {
+        var big = new InputMailbox(1 << 16);
+        int threads = 4, perThread = 5_000;
+        var start = new CountDownLatch(1);
+        var done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int id = 10 + t;
+            players.put(id, player(id));
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int s = 1; s <= perThread; s++) assertTrue(big.offer(InputMailbox.move(id, 1f, 0f, s)));
+                } catch (InterruptedException ignored) {
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+
+        int taken = 0;
+        while (done.getCount() > 0) taken += big.drain(players, applied);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        taken += big.drain(players, applied);
+
+        assertEquals(threads * perThread, taken);
+        assertEquals(0, big.dropped());
+        for (int t = 0; t < threads; t++) assertEquals(1f, players.get(10 + t).moveX(), 0f);
+    }
+
+    @Test
+    public void testTickDrainsMailbox() {
+        var rt = new MatchRuntime(1L, 10, 12, 14);
+        var p = player(1);
+        rt.addPlayer(p);
+        rt.start();
+        p.addXp(150);
+
+        rt.inputs().offer(InputMailbox.upgrade(1, UpgradeType.MAX_HP_UP));
+        MatchDelta delta = rt.tick();
+
+        assertFalse(p.isChoosingUpgrade());
+        assertEquals(List.of(new InputMailbox.UpgradeApplied(1, UpgradeType.MAX_HP_UP)), delta.upgrades());
+        assertTrue(rt.tick().upgrades().isEmpty());
+    }
+
+    private static PlayerState player(int id) {
+        return new PlayerState(id, new Vec2(100, 100), STATS, AttackStyle.AOE, STATS.health());
+    }
+}
@@ -0,0 +1,83 @@
+package survivor.runtime;
+
+import org.junit.Test;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for LatencyHistogram and the per-match TickProfile.
+ *
+ * Coverage Goals:
+ * - LatencyHistogram.record() / valueAtPercentile() - bucket resolution and ordering
+ * - MatchRuntime.tick() - every simulation phase gets one sample per tick
+ *
+ * Strategy: Unit testing with synthetic latencies and a real runtime
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Test: valueAtPercentile() - uniform 1..1000 µs
+     * Coverage: LatencyHistogram.record(), valueAtPercentile()
+     * Strategy: Boundary value (p50 / p99 / p100) within bucket resolution
+     * Why: Percentiles must be close enough (<7%) to read tick budgets from
+     */
+    @Test
+    public void testPercentilesWithinResolution() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int us = 1; us <= 1000; us++) h.record(us * 1_000L);
+
+        assertEquals(1000, h.count());
+        assertEquals(1_000_000L, h.max());
+        assertEquals(500_000.0, h.valueAtPercentile(50), 500_000 * 0.07);
+        assertEquals(990_000.0, h.valueAtPercentile(99), 990_000 * 0.07);
+        assertEquals(1_000_000L, h.valueAtPercentile(100));
+        assertTrue(h.valueAtPercentile(50) <= h.valueAtPercentile(99));
+    }
+
+    /**
+     * Test: record() - extreme values
+     * Coverage: LatencyHistogram.indexOf() - below-min and above-max clamps
+     * Strategy: Boundary value (0 ns, 1 minute)
+     */
+    @Test
+    public void testExtremeValuesAreClamped() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(0);
+        h.record(-5);
+        h.record(60_000_000_000L);
+
+        assertEquals(3, h.count());
+        assertEquals(60_000_000_000L, h.max());
+        assertTrue(h.valueAtPercentile(50) < 1_000);
+
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.valueAtPercentile(99));
+    }
+
+    /**
+     * Test: MatchRuntime.tick() - profile gets one sample per phase per tick
+     * Coverage: TickProfile.beginTick() / lap() / endTick()
+     * Strategy: White-box, state validation
+     * Why: A tick with several catch-up steps is still one sample
+     */
+    @Test
+    public void testRuntimeRecordsEveryPhase() {
+        MatchRuntime rt = new MatchRuntime(1L, 10, 12, 14);
+        Stats stats = new Stats(100, 50, 30, 20, 5, 10);
+        rt.addPlayer(new PlayerState(1, new Vec2(100.0, 100.0), stats, AttackStyle.AOE, stats.health()));
+        rt.start();
+
+        rt.tick();
+        rt.tick(3);
+
+        for (TickPhase phase : TickPhase.values()) {
+            long expected = phase == TickPhase.DISPATCH ? 0 : 2;
+            assertEquals("Samples for " + phase, expected, rt.profile().histogram(phase).count());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.EnemyState;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for dead-enemy reclamation in MatchRuntime.
+ *
+ * Coverage Goals:
+ * - MatchRuntime.reclaimDeadEnemies() - corpses leave the enemy store at the end of the tick
+ * - Enemy id index stays valid for survivors whose slots moved
+ *
+ * Strategy: White-box, state validation through a real runtime
+ */
+public class MatchRuntimeReclaimTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+
+    private MatchRuntime rt;
+
+    @Before
+    public void setUp() {
+        rt = new MatchRuntime(1L, 10, 12, 14);
+        rt.addPlayer(new PlayerState(1, new Vec2(1000, 1000), STATS, AttackStyle.AOE, 100_000));
+        rt.start();
+    }
+
+    /**
+     * Test: tick() - killed enemies are compacted out, DEATH events still emitted
+     * Coverage: MatchRuntime.tick() -> reclaimDeadEnemies()
+     * Strategy: Enemies with 1 HP placed on the player die on the first AOE pulse
+     * Why: Per-tick cost must follow live enemies, not everything ever spawned
+     */
+    @Test
+    public void testDeadEnemiesAreReclaimedAfterDeathEvents() {
+        int wave = rt.enemyCount();
+        for (int i = 0; i < 3; i++) rt.addEnemy(enemy(900_000 + i, 1_000 + i, 1));
+        assertEquals(wave + 3, rt.enemyCount());
+
+        MatchDelta delta = rt.tick();
+
+        assertEquals("DEATH events go out for reclaimed enemies", 3,
+                delta.events().deaths().stream().filter(d -> "enemy".equals(d.type())).count());
+        assertEquals("Corpses should be compacted out", wave, rt.enemyCount());
+    }
+
+    /**
+     * Test: tick() - survivor behind a reclaimed slot is still hittable
+     * Coverage: reclaimDeadEnemies() - id -> slot fix-up
+     * Strategy: Kill an enemy in front of a tanky one, then keep attacking
+     * Why: A stale index would silently make the survivor immune
+     */
+    @Test
+    public void testSurvivorIndexIsFixedUp() {
+        rt.addEnemy(enemy(900_000, 1_000, 1));
+        rt.addEnemy(enemy(900_001, 1_000, 1_000_000));
+
+        rt.tick();
+        long hitsOnTank = 0;
+        for (int i = 0; i < 40; i++) {
+            hitsOnTank += rt.tick().events().damages().stream().filter(d -> d.targetId() == 900_001).count();
+        }
+
+        assertTrue("Survivor should keep taking AOE damage", hitsOnTank > 0);
+    }
+
+    private static EnemyState enemy(int id, double x, int hp) {
+        return new EnemyState(id, new Vec2(x, 1000), STATS, hp, EnemyType.BUMPER, 12.0);
+    }
+}
@@ -0,0 +1,159 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.config.FogConfig;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for MatchRuntimeRegistry tick sharding and TickShard scheduling.
+ *
+ * Coverage Goals:
+ * - MatchRuntimeRegistry.shardOf() / shard() - every match pinned to exactly one shard
+ * - MatchRuntimeRegistry.end() - runtime removed from its shard
+ * - MatchRuntimeRegistry.addPlayer() / removePlayer() / forPlayer() - accountId -> match index
+ * - TickShard.trySubmit() - busy shard is skipped instead of queued
+ *
+ * Strategy: Unit testing without Spring context
+ */
+public class MatchRuntimeRegistryTest {
+
+    private MatchRuntimeRegistry registry;
+    private FogConfig fog;
+
+    @Before
+    public void setUp() {
+        registry = new MatchRuntimeRegistry(4, 20, 3);
+        fog = new FogConfig();
+        fog.setLight(10);
+        fog.setWake(12);
+        fog.setSleep(14);
+    }
+
+    /**
+     * Test: createRuntime() - runtime lands in exactly one shard
+     * Coverage: MatchRuntimeRegistry.register(), shardOf(), shard()
+     * Strategy: White-box, membership validation
+     * Why: A match in two shards would be ticked by two writers
+     */
+    @Test
+    public void testEachRuntimeOwnedByOneShard() {
+        for (long id = 1; id <= 20; id++) registry.createRuntime(id, fog);
+
+        assertEquals("Should have 4 shards", 4, registry.shardCount());
+        int total = 0;
+        for (int i = 0; i < registry.shardCount(); i++) {
+            for (MatchRuntime rt : registry.shard(i)) {
+                assertEquals("Runtime should sit in its hashed shard", i, registry.shardOf(rt.id()));
+            }
+            total += registry.shard(i).size();
+        }
+        assertEquals("Every runtime should be in exactly one shard", 20, total);
+    }
+
+    /**
+     * Test: end() - runtime removed from registry and shard
+     * Coverage: MatchRuntimeRegistry.end()
+     * Strategy: White-box, state validation
+     * Why: Ended matches must stop being ticked by their worker
+     */
+    @Test
+    public void testEndRemovesFromShard() {
+        registry.createRuntime(7L, fog);
+        int shard = registry.shardOf(7L);
+        assertEquals(1, registry.shard(shard).size());
+
+        registry.end(7L);
+
+        assertTrue("Runtime should be gone from registry", registry.get(7L).isEmpty());
+        assertTrue("Runtime should be gone from its shard", registry.shard(shard).isEmpty());
+    }
+
+    /**
+     * Test: forPlayer() - players routed to their own match only
+     * Coverage: MatchRuntimeRegistry.addPlayer(), forPlayer(int), forPlayer(long, int)
+     * Strategy: White-box, index lookups across two matches
+     * Why: Per-player messages must reach the sender's match, and nothing else
+     */
+    @Test
+    public void testForPlayerRoutesToOwnMatch() {
+        registry.createRuntime(1L, fog);
+        registry.createRuntime(2L, fog);
+        assertTrue(registry.addPlayer(1L, player(10)));
+        assertTrue(registry.addPlayer(2L, player(20)));
+        assertFalse("No runtime, nothing to add to", registry.addPlayer(3L, player(30)));
+
+        assertEquals(1L, registry.forPlayer(10).orElseThrow().id());
+        assertEquals(2L, registry.forPlayer(2L, 20).orElseThrow().id());
+        assertTrue("Player is not in match 1", registry.forPlayer(1L, 20).isEmpty());
+        assertTrue("Unknown player", registry.forPlayer(30).isEmpty());
+    }
+
+    /**
+     * Test: removePlayer() / end() - index entries dropped
+     * Coverage: MatchRuntimeRegistry.removePlayer(), end()
+     * Strategy: White-box, state validation
+     * Why: Messages from players who left or whose match ended must be rejected
+     */
+    @Test
+    public void testIndexClearedOnLeaveAndEnd() {
+        registry.createRuntime(1L, fog);
+        registry.addPlayer(1L, player(10));
+        registry.addPlayer(1L, player(11));
+
+        registry.removePlayer(1L, 10);
+        assertTrue(registry.forPlayer(10).isEmpty());
+        assertTrue(registry.get(1L).orElseThrow().player(10).isEmpty());
+
+        registry.end(1L);
+        assertTrue(registry.forPlayer(11).isEmpty());
+        assertTrue(registry.forPlayer(1L, 11).isEmpty());
+    }
+
+    /**
+     * Test: trySubmit() - second submit while busy is skipped
+     * Coverage: TickShard.trySubmit() - busy branch, skipped counter
+     * Strategy: Concurrency, latch-controlled worker
+     * Why: A slow shard must not queue up a backlog of ticks
+     */
+    @Test
+    public void testBusyShardIsSkipped() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        TickShard shard = new TickShard(0, TimeUnit.MILLISECONDS.toNanos(50), i -> {
+            runs.incrementAndGet();
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+
+        assertTrue("First submit should run", shard.trySubmit());
+        assertFalse("Second submit should be skipped while busy", shard.trySubmit());
+        release.countDown();
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        shard.shutdown();
+
+        assertEquals("Body should run once", 1, runs.get());
+        assertEquals("One skip should be recorded", 1, shard.getSkipped());
+        assertEquals("One tick should be recorded", 1, shard.getTicks());
+    }
+
+    private static PlayerState player(int id) {
+        Stats stats = new Stats(100, 50, 30, 20, 5, 10);
+        return new PlayerState(id, new Vec2(100, 100), stats, AttackStyle.AOE, stats.health());
+    }
+}
@@ -0,0 +1,62 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ProgressTracker.
+ *
+ * Coverage Goals:
+ * - xpChanged() - first frame, unchanged, XP gain
+ * - upgradeDue() - once per level-up, due again after a pick
+ *
+ * Strategy: Drive a real PlayerState through XP gains and upgrade picks
+ */
+public class ProgressTrackerTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+
+    private ProgressTracker progress;
+    private PlayerState p;
+
+    @Before
+    public void setUp() {
+        progress = new ProgressTracker();
+        p = new PlayerState(1, new Vec2(0, 0), STATS, AttackStyle.AOE, 100);
+    }
+
+    @Test
+    public void testXpOnlyWhenChanged() {
+        assertTrue("First frame carries XP", progress.xpChanged(p));
+        assertFalse(progress.xpChanged(p));
+
+        p.addXp(10);
+        assertTrue(progress.xpChanged(p));
+        assertFalse(progress.xpChanged(p));
+
+        progress.forget(p.id());
+        assertTrue(progress.xpChanged(p));
+    }
+
+    @Test
+    public void testUpgradeOptionsOncePerLevel() {
+        assertFalse(progress.upgradeDue(p));
+
+        p.addXp(p.getXpToNext());
+        assertTrue(p.isChoosingUpgrade());
+        assertTrue(progress.upgradeDue(p));
+        assertFalse("Sent once while the player is choosing", progress.upgradeDue(p));
+
+        p.applyUpgrade(UpgradeType.DAMAGE_UP);
+        assertFalse(progress.upgradeDue(p));
+
+        p.addXp(p.getXpToNext());
+        assertTrue("Next level-up is due again", progress.upgradeDue(p));
+    }
+}
@@ -0,0 +1,148 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.runtime.SnapshotBuilder.EntityView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SnapshotBudget.
+ *
+ * Coverage Goals:
+ * - select() - budget off passes the list through; unchanged enemies cost nothing
+ * - select() - refreshes per tick capped by the budget, new enemies held back until they fit
+ * - select() - near enemies refreshed more often, far ones never starve
+ * - select() - cap holds on what DeltaEncoder sends while acks trail; unacked refreshes keep their slot
+ * - select() - budget halved while acks lag, grown back once they catch up
+ *
+ * Strategy: Enemies on a line away from the viewer at (0, 0), all moving every tick, run through a real
+ * DeltaEncoder; count fresh views and encoded bytes per tick
+ */
+public class SnapshotBudgetTest {
+
+    private static final SnapshotBudget.Cost COST = new SnapshotBudget.Cost(10, 10);
+    private static final double RADIUS = 1000;
+
+    private DeltaEncoder deltas;
+    private SnapshotBudget budget;
+
+    @Before
+    public void setUp() {
+        deltas = new DeltaEncoder();
+        budget = new SnapshotBudget(deltas);
+    }
+
+    @Test
+    public void testOffPassesThrough() {
+        List<EntityView> enemies = enemies(5, 0);
+        assertSame(enemies, budget.select(1, 1, 0, 0, 0, RADIUS, enemies, COST, 0, 0));
+    }
+
+    @Test
+    public void testNewEnemiesHeldBackUntilTheyFit() {
+        List<EntityView> out = send(1, 0, enemies(20, 0), 50);
+        assertEquals("5 x 10 B fit in 50 B", 5, out.size());
+
+        // nothing moves: the 5 acked cost nothing, 5 more come in
+        out = send(2, 1, enemies(20, 0), 50);
+        assertEquals(10, out.size());
+    }
+
+    @Test
+    public void testRefreshesCappedAndNobodyStarves() {
+        int n = 40;
+        send(1, 0, enemies(n, 0), 10_000);   // everyone sent once
+
+        Map<Integer, Integer> refreshed = new HashMap<>();
+        Map<Integer, Integer> lastRefresh = new HashMap<>();
+        int maxGap = 0;
+        for (int t = 2; t <= 200; t++) {
+            List<EntityView> now = enemies(n, t);
+            List<EntityView> out = send(t, t - 1, now, 80);   // client acks every frame
+            assertEquals("every known enemy stays in the frame", n, out.size());
+            if (lastKeyframe) continue;   // periodic resync: everything shown, not capped
+            assertTrue("at most 80 B encoded", lastBytes <= 80);
+
+            int fresh = 0;
+            for (int i = 0; i < n; i++) {
+                if (out.get(i) == now.get(i)) {
+                    fresh++;
+                    refreshed.merge(i, 1, Integer::sum);
+                    maxGap = Math.max(maxGap, t - lastRefresh.getOrDefault(i, 1));
+                    lastRefresh.put(i, t);
+                }
+            }
+            assertTrue("at most 8 x 10 B per tick", fresh <= 8);
+        }
+
+        assertEquals("every enemy refreshed at some point", n, refreshed.size());
+        assertTrue("no enemy waits too long: " + maxGap, maxGap <= 20);
+        assertTrue("near enemies refreshed more often than far ones",
+                refreshed.get(0) > refreshed.get(n - 1));
+    }
+
+    @Test
+    public void testCapHoldsWhileAcksTrail() {
+        int n = 40;
+        send(1, 0, enemies(n, 0), 10_000);   // everyone sent once, then the client stops acking past tick 1
+
+        Set<Integer> first = null;
+        for (int t = 2; t <= 60; t++) {
+            List<EntityView> now = enemies(n, t);
+            List<EntityView> out = send(t, 1, now, 80);
+            assertEquals(n, out.size());
+            assertTrue("tick " + t + ": " + lastBytes + " B over the budget", lastBytes <= budget.budget(1));
+
+            Set<Integer> fresh = new HashSet<>();
+            for (int i = 0; i < n; i++) if (out.get(i) == now.get(i)) fresh.add(i);
+            if (first == null) first = fresh;
+            else if (t <= 1 + SnapshotBudget.LAG_TICKS) assertEquals("unacked refreshes keep their slot", first, fresh);
+        }
+        assertTrue("budget cut while the ack trails", budget.budget(1) < 80);
+    }
+
+    @Test
+    public void testBudgetFollowsAckLag() {
+        List<EntityView> e = enemies(1, 0);
+        budget.select(1, 1, 0, 0, 0, RADIUS, e, COST, 1000, 100);
+        assertEquals("no acks: full budget", 1000, budget.budget(1));
+
+        budget.select(1, 50, 30, 0, 0, RADIUS, e, COST, 1000, 100);
+        assertEquals("ack 20 ticks behind: halved", 500, budget.budget(1));
+        budget.select(1, 51, 30, 0, 0, RADIUS, e, COST, 1000, 100);
+        assertEquals("one cut per LAG_TICKS", 500, budget.budget(1));
+        for (int t = 60; t <= 120; t += SnapshotBudget.LAG_TICKS) budget.select(1, t, 30, 0, 0, RADIUS, e, COST, 1000, 100);
+        assertEquals("never below the minimum", 100, budget.budget(1));
+
+        for (int t = 121; t < 200; t++) budget.select(1, t, t - 1, 0, 0, RADIUS, e, COST, 1000, 100);
+        assertEquals("caught up: back to the maximum", 1000, budget.budget(1));
+    }
+
+    private int lastBytes;
+    private boolean lastKeyframe;
+
+    /** One tick for viewer 1: budget, then encode against `acked` as TickService does; records the enemy bytes. */
+    private List<EntityView> send(long tick, long acked, List<EntityView> enemies, int maxBytes) {
+        List<EntityView> out = new ArrayList<>(budget.select(1, tick, acked, 0, 0, RADIUS, enemies, COST, maxBytes, 0));
+        DeltaEncoder.Delta delta = deltas.encode(1, tick, acked, List.of(), out);
+        DeltaEncoder.Section sent = delta.enemies();
+        lastKeyframe = delta.keyframe();
+        lastBytes = sent.entered().size() * COST.entered() + sent.changed().size() * COST.changed();
+        return out;
+    }
+
+    /** n enemies on the x axis, 20 px apart; `t` shifts them all 2 px down per tick. */
+    private static List<EntityView> enemies(int n, int t) {
+        List<EntityView> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(new EntityView("BUMPER", 1000 + i, 20.0 * i, 2.0 * t, 10, "BUMPER"));
+        return out;
+    }
+}
@@ -0,0 +1,109 @@
+package survivor.runtime;
+
+import org.junit.Test;
+import survivor.combat.SpatialGrid;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.EnemyStore;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for grid-backed fog-of-war snapshots.
+ *
+ * Coverage Goals:
+ * - SnapshotBuilder.build() - grid path sees exactly what the full scan sees
+ * - SnapshotBuilder.Scratch - per-player entity lists reused across ticks without stale entries
+ *
+ * Strategy: Differential testing against the full scan; state validation over moving entities
+ */
+public class SnapshotBuilderTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+    private static final double R_LIGHT_PX = 10 * 24.0;
+
+    /**
+     * Test: build() - grid vs full scan
+     * Coverage: SnapshotBuilder.build() - grid query + squared-distance filter
+     * Strategy: Differential testing with random positions
+     * Why: The index must not change what a player is allowed to see
+     */
+    @Test
+    public void testGridMatchesFullScan() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        EnemyStore enemies = new EnemyStore();
+        for (int i = 0; i < 1500; i++) {
+            enemy(enemies, 1000 + i, rnd.nextDouble() * 2000, rnd.nextDouble() * 2000);
+        }
+        enemies.applyDamage(10, Integer.MAX_VALUE);
+        List<PlayerState> players = List.of(player(1, 300, 300), player(2, 1000, 1000), player(3, 1990, 10));
+
+        SpatialGrid grid = new SpatialGrid(2000, 2000, 64);
+        grid.rebuild(enemies);
+
+        var scan = SnapshotBuilder.build(players, enemies, null, null, R_LIGHT_PX);
+        var indexed = SnapshotBuilder.build(players, enemies, grid, new SnapshotBuilder.Scratch(), R_LIGHT_PX);
+
+        for (PlayerState p : players) {
+            assertEquals("Player " + p.id() + " should see the same entities",
+                    ids(scan, p.id()), ids(indexed, p.id()));
+        }
+    }
+
+    /**
+     * Test: build() - scratch reused across ticks
+     * Coverage: SnapshotBuilder.Scratch.visible() - cleared and refilled every tick
+     * Strategy: State validation (enemy walks into the light, then out), one scratch for every tick
+     * Why: The per-player lists are reused, so a tick must never show what only an earlier tick saw
+     */
+    @Test
+    public void testScratchReusedAcrossTicks() {
+        List<PlayerState> players = List.of(player(1, 1000, 1000), player(2, 1300, 1000));
+        EnemyStore enemies = new EnemyStore();
+        int walker = enemy(enemies, 2000, 1000 + R_LIGHT_PX + 50, 1000);
+        enemy(enemies, 2001, 1010, 1000);
+        SpatialGrid grid = new SpatialGrid(2000, 2000, 64);
+        SnapshotBuilder.Scratch scratch = new SnapshotBuilder.Scratch();
+
+        grid.rebuild(enemies);
+        var first = SnapshotBuilder.build(players, enemies, grid, scratch, R_LIGHT_PX);
+        assertEquals(List.of(1, 2, 2001), ids(first, 1));
+        assertEquals(List.of(1, 2, 2000), ids(first, 2));
+
+        enemies.setPos(walker, 1000 + R_LIGHT_PX - 1, 1000);
+        grid.rebuild(enemies);
+        var second = SnapshotBuilder.build(players, enemies, grid, scratch, R_LIGHT_PX);
+        assertEquals(List.of(1, 2, 2000, 2001), ids(second, 1));
+        assertSame("Entity lists should be reused", first.get(1).entities(), second.get(1).entities());
+
+        enemies.setPos(walker, 1000 - R_LIGHT_PX - 1, 1000);
+        grid.rebuild(enemies);
+        var third = SnapshotBuilder.build(players, enemies, grid, scratch, R_LIGHT_PX);
+        assertEquals(List.of(1, 2, 2001), ids(third, 1));
+        assertEquals(List.of(1, 2), ids(third, 2));
+    }
+
+    // -------- helpers --------
+
+    private static List<Integer> ids(Map<Integer, SnapshotBuilder.PlayerSnapshot> snaps, int playerId) {
+        List<Integer> out = new ArrayList<>();
+        for (var e : snaps.get(playerId).entities()) out.add(e.id());
+        return out;
+    }
+
+    private static PlayerState player(int id, double x, double y) {
+        return new PlayerState(id, new Vec2(x, y), STATS, AttackStyle.AOE, 100);
+    }
+
+    private static int enemy(EnemyStore store, int id, double x, double y) {
+        return store.add(id, new Vec2(x, y), STATS, 100, EnemyType.BUMPER, 10.0);
+    }
+}
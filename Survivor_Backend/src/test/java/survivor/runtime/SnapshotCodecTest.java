@@ -0,0 +1,193 @@
+package survivor.runtime;
+
+import org.junit.Before;
+import org.junit.Test;
+import survivor.runtime.CombatResolve.DamageEvent;
+import survivor.runtime.CombatResolve.DeathEvent;
+import survivor.runtime.SnapshotBuilder.EntityView;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SnapshotCodec.
+ *
+ * Coverage Goals:
+ * - SnapshotCodec.snapshot() - keyframe and delta layouts, field mask, id gaps
+ * - SnapshotCodec.damages() / deaths() / xp() / upgradeOptions() / upgradesApplied() - event sections
+ * - SnapshotCodec.sections() / raw() - shared sections spliced into several frames
+ *
+ * Strategy: Decode the frames with a minimal reader that follows the documented layout
+ */
+public class SnapshotCodecTest {
+
+    private SnapshotCodec codec;
+
+    @Before
+    public void setUp() {
+        codec = new SnapshotCodec();
+    }
+
+    /** Reads the varints the codec writes. */
+    private static final class Reader {
+        final ByteBuffer in;
+        Reader(byte[] frame) { in = ByteBuffer.wrap(frame); }
+        int u8() { return in.get() & 0xFF; }
+        long v() {
+            long out = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = u8();
+                out |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return out;
+            }
+        }
+        int s() { int z = (int) v(); return (z >>> 1) ^ -(z & 1); }
+        boolean done() { return !in.hasRemaining(); }
+    }
+
+    /**
+     * Test: snapshot() - keyframe
+     * Coverage: SnapshotCodec.snapshot() - KEYFRAME branch, entity types, quantized positions
+     * Strategy: Round trip through the reader
+     */
+    @Test
+    public void testKeyframeLayout() {
+        var players = List.of(new EntityView("player", 7, 100.4, -3.6, 85, null));
+        var enemies = List.of(new EntityView("SWIPER", 1001, 300.5, 20.0, 60, "SWIPER"));
+        var d = new DeltaEncoder().encode(7, 1, 0, players, enemies);
+
+        Reader r = new Reader(codec.begin().snapshot(d, 3).finish());
+        assertEquals(SnapshotCodec.VERSION, r.u8());
+        assertEquals(SnapshotCodec.KIND_KEYFRAME, r.u8());
+        assertEquals(1, r.v());
+        assertEquals(3, r.v());
+
+        assertEquals(1, r.v());
+        assertEquals(7, r.v());
+        assertEquals(SnapshotCodec.TYPE_PLAYER, r.u8());
+        assertEquals(100, r.s());
+        assertEquals(-4, r.s());
+        assertEquals(85, r.s());
+
+        assertEquals(1, r.v());
+        assertEquals(1001, r.v());
+        assertEquals(1 + survivor.model.EnemyType.SWIPER.ordinal(), r.u8());
+        assertEquals(301, r.s());
+        assertEquals(20, r.s());
+        assertEquals(60, r.s());
+        assertTrue(r.done());
+    }
+
+    /**
+     * Test: snapshot() - delta
+     * Coverage: SnapshotCodec.section() - entered, changed with field mask, left, id gaps
+     * Strategy: Round trip through the reader
+     */
+    @Test
+    public void testDeltaLayout() {
+        var enc = new DeltaEncoder();
+        enc.encode(7, 1, 0, List.of(), List.of(
+                new EntityView("BUMPER", 1001, 10, 10, 5, "BUMPER"),
+                new EntityView("BUMPER", 1003, 20, 20, 5, "BUMPER"),
+                new EntityView("BUMPER", 1005, 30, 30, 5, "BUMPER")));
+        var d = enc.encode(7, 2, 1, List.of(), List.of(
+                new EntityView("BUMPER", 1003, 20, 25, 4, "BUMPER"),
+                new EntityView("BUMPER", 1005, 30, 30, 5, "BUMPER")));
+        assertFalse(d.keyframe());
+
+        Reader r = new Reader(codec.begin().snapshot(d, 1).finish());
+        assertEquals(SnapshotCodec.VERSION, r.u8());
+        assertEquals(SnapshotCodec.KIND_DELTA, r.u8());
+        assertEquals(2, r.v());
+        assertEquals(1, r.v());
+        assertEquals(1, r.v());
+
+        // players: nothing entered, changed or left
+        assertEquals(0, r.v());
+        assertEquals(0, r.v());
+        assertEquals(0, r.v());
+
+        // enemies: 1003 changed y and hp, 1001 left
+        assertEquals(0, r.v());
+        assertEquals(1, r.v());
+        assertEquals(1003, r.v());
+        assertEquals(SnapshotCodec.FIELD_Y | SnapshotCodec.FIELD_HP, r.u8());
+        assertEquals(25, r.s());
+        assertEquals(4, r.s());
+        assertEquals(1, r.v());
+        assertEquals(1001, r.v());
+        assertTrue(r.done());
+    }
+
+    /**
+     * Test: damages() / deaths() in one frame
+     * Coverage: SnapshotCodec event sections, target types
+     * Strategy: Round trip through the reader
+     */
+    @Test
+    public void testEventLayouts() {
+        Reader r = new Reader(codec.begin()
+                .damages(List.of(new DamageEvent(1001, "enemy", 15), new DamageEvent(7, "player", 300)))
+                .deaths(List.of(new DeathEvent(7, "player")))
+                .finish());
+        assertEquals(SnapshotCodec.VERSION, r.u8());
+        assertEquals(SnapshotCodec.KIND_DAMAGE, r.u8());
+        assertEquals(2, r.v());
+        assertEquals(1001, r.v());
+        assertEquals(1, r.u8());
+        assertEquals(15, r.v());
+        assertEquals(7, r.v());
+        assertEquals(0, r.u8());
+        assertEquals(300, r.v());
+        assertEquals(SnapshotCodec.KIND_DEATH, r.u8());
+        assertEquals(1, r.v());
+        assertEquals(7, r.v());
+        assertEquals(0, r.u8());
+        assertTrue(r.done());
+    }
+
+    /**
+     * Test: sections() / raw() with per-player sections
+     * Coverage: SnapshotCodec.raw(), upgradesApplied(), xp(), upgradeOptions()
+     * Strategy: Round trip through the reader
+     */
+    @Test
+    public void testSharedSectionsAndProgress() {
+        byte[] shared = codec.begin()
+                .deaths(List.of(new DeathEvent(1001, "enemy")))
+                .upgradesApplied(List.of(new InputMailbox.UpgradeApplied(8, UpgradeType.DAMAGE_UP)))
+                .sections();
+
+        Reader r = new Reader(codec.begin()
+                .raw(shared)
+                .xp(7, 40, 3, 250)
+                .upgradeOptions(7, 3, List.of(UpgradeType.MAX_HP_UP, UpgradeType.WEAPON_ORBIT))
+                .finish());
+        assertEquals(SnapshotCodec.VERSION, r.u8());
+        assertEquals(SnapshotCodec.KIND_DEATH, r.u8());
+        assertEquals(1, r.v());
+        assertEquals(1001, r.v());
+        assertEquals(1, r.u8());
+
+        assertEquals(SnapshotCodec.KIND_APPLIED, r.u8());
+        assertEquals(1, r.v());
+        assertEquals(8, r.v());
+        assertEquals(UpgradeType.DAMAGE_UP.ordinal(), r.u8());
+
+        assertEquals(SnapshotCodec.KIND_XP, r.u8());
+        assertEquals(7, r.v());
+        assertEquals(40, r.v());
+        assertEquals(3, r.v());
+        assertEquals(250, r.v());
+
+        assertEquals(SnapshotCodec.KIND_UPGRADES, r.u8());
+        assertEquals(7, r.v());
+        assertEquals(3, r.v());
+        assertEquals(2, r.v());
+        assertEquals(UpgradeType.MAX_HP_UP.ordinal(), r.u8());
+        assertEquals(UpgradeType.WEAPON_ORBIT.ordinal(), r.u8());
+        assertTrue(r.done());
+    }
+}
@@ -0,0 +1,106 @@
+package survivor.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import survivor.Benchmarks;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.EnemyState;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Size and encode-time benchmark: binary snapshot frames vs the JSON broadcast.
+ *
+ * Coverage Goals:
+ * - SnapshotCodec.snapshot() against Jackson on one player's full JSON view (what went out before delta encoding)
+ *
+ * Strategy: Four players in a 250-enemy wave; every tick player 1's view is encoded as full JSON,
+ *           a binary keyframe, and a binary / JSON delta against the previous tick (every tick acked)
+ * Why: Frame sizes are deterministic, so they're checked on every run; encode times are an opt-in
+ *      benchmark (-Pbenchmarks)
+ */
+public class SnapshotWireBenchmarkTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+
+    /** Average bytes and encode time per measured tick. */
+    private record Wire(int enemies, long jsonBytes, long keyBytes, long deltaBytes, long jsonDeltaBytes,
+                        long jsonNanos, long keyNanos, long deltaNanos) {}
+
+    @Test
+    public void testBinaryIsSmallerThanJson() throws Exception {
+        Wire w = run(50, 100);
+        assertTrue("Binary keyframe should be at least 4x smaller than JSON", w.keyBytes() * 4 <= w.jsonBytes());
+        assertTrue("Binary delta should be no larger than a binary keyframe", w.deltaBytes() <= w.keyBytes());
+    }
+
+    @Test
+    public void benchmarkEncode() throws Exception {
+        Benchmarks.assumeEnabled();
+
+        Wire w = run(500, 500);
+        System.out.printf("snapshot wire, %d enemies: json %d B %d us | binary keyframe %d B %d us | "
+                        + "binary delta %d B %d us | json delta %d B%n",
+                w.enemies(), w.jsonBytes(), w.jsonNanos() / 1000, w.keyBytes(), w.keyNanos() / 1000,
+                w.deltaBytes(), w.deltaNanos() / 1000, w.jsonDeltaBytes());
+    }
+
+    // -------- helpers --------
+
+    private static Wire run(int warmupTicks, int measuredTicks) throws Exception {
+        MatchRuntime rt = new MatchRuntime(1L, 10, 12, 14);
+        for (int i = 0; i < 4; i++) {
+            rt.addPlayer(new PlayerState(i + 1, new Vec2(950 + 30 * i, 1000), STATS, AttackStyle.AOE, Integer.MAX_VALUE));
+        }
+        rt.start();
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int i = 0; i < 250; i++) {
+            Vec2 pos = new Vec2(800 + rnd.nextDouble() * 400, 800 + rnd.nextDouble() * 400);
+            EnemyType type = (i % 4 == 0) ? EnemyType.SWIPER : EnemyType.BUMPER;
+            rt.addEnemy(new EnemyState(100_000 + i, pos, STATS, Integer.MAX_VALUE, type, 12.0));
+        }
+
+        ObjectMapper json = new ObjectMapper();
+        SnapshotCodec codec = new SnapshotCodec();
+        DeltaEncoder keyframes = new DeltaEncoder(), deltas = new DeltaEncoder();
+
+        long jsonBytes = 0, keyBytes = 0, deltaBytes = 0, jsonDeltaBytes = 0;
+        long jsonNanos = 0, keyNanos = 0, deltaNanos = 0;
+        for (int i = 0; i < warmupTicks + measuredTicks; i++) {
+            MatchDelta delta = rt.tick();
+            var view = TickService.playerView(delta.snapshots().get(1));
+            boolean measured = i >= warmupTicks;
+
+            long t = System.nanoTime();
+            Map<String, Object> full = new HashMap<>(view);
+            full.put("worldLevel", rt.getCurrentWorldLevel());
+            byte[] a = json.writeValueAsBytes(full);
+            long t1 = System.nanoTime();
+            var k = keyframes.encode(1, delta.tick(), 0, view.get("players"), view.get("enemies"));
+            byte[] b = codec.begin().snapshot(k, rt.getCurrentWorldLevel()).finish();
+            long t2 = System.nanoTime();
+            var d = deltas.encode(1, delta.tick(), delta.tick() - 1, view.get("players"), view.get("enemies"));
+            byte[] c = codec.begin().snapshot(d, rt.getCurrentWorldLevel()).finish();
+            long t3 = System.nanoTime();
+            byte[] e = json.writeValueAsBytes(TickService.snapshotJson(rt, d));
+
+            if (measured) {
+                jsonBytes += a.length; keyBytes += b.length; deltaBytes += c.length; jsonDeltaBytes += e.length;
+                jsonNanos += t1 - t; keyNanos += t2 - t1; deltaNanos += t3 - t2;
+            }
+        }
+        assertFalse("Nobody should die", rt.isEnded());
+
+        int n = measuredTicks;
+        return new Wire(rt.enemyCount(), jsonBytes / n, keyBytes / n, deltaBytes / n, jsonDeltaBytes / n,
+                jsonNanos / n, keyNanos / n, deltaNanos / n);
+    }
+}
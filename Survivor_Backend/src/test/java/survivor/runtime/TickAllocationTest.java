@@ -0,0 +1,136 @@
+package survivor.runtime;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import survivor.Benchmarks;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.EnemyState;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Allocation budget tests for MatchRuntime.tick().
+ *
+ * Coverage Goals:
+ * - Quiet steady state (nobody in range) allocates a small, fixed amount per tick, whatever the enemy count
+ * - Busy steady state allocates only for what the tick hands out: events, enemy views, snapshot entries
+ *
+ * Strategy: Measure bytes allocated by the test thread (com.sun.management.ThreadMXBean) over many
+ *           warmed-up ticks and compare against a budget
+ * Why: Allocation regressions in the simulation path fail the build instead of showing up as GC pauses
+ */
+public class TickAllocationTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+    private static final int WARMUP_TICKS = 5_000, MEASURED_TICKS = 2_000;
+
+    // Snapshot of one player's own view (EntityView, lists, map entry, PlayerSnapshot) plus MatchDelta
+    private static final long QUIET_BUDGET_BYTES = 1_024;
+    // What the tick hands to the dispatcher: a DamageEvent/DeathEvent, an enemy view (built once per
+    // tick however many players see it), and one list slot per entity in each player's snapshot
+    private static final long PER_EVENT_BYTES = 32, PER_VIEW_BYTES = 56, PER_ENTRY_BYTES = 8;
+
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+        var bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Test: tick() - quiet match with 2k sleeping enemies
+     * Coverage: physics, grid rebuild, gating, AI, attacks, combat, snapshot and reclaim with no output
+     * Strategy: One idle player in a corner; wake / light radius of one tile so nothing engages
+     * Why: Per-enemy work must not allocate; only the fixed per-tick output remains
+     */
+    @Test
+    public void testQuietTickStaysWithinBudget() {
+        MatchRuntime rt = new MatchRuntime(1L, 1, 1, 2);
+        rt.addPlayer(new PlayerState(1, new Vec2(5, 5), STATS, AttackStyle.AOE, 100_000));
+        rt.start();
+        SplittableRandom rnd = new SplittableRandom(9);
+        for (int i = 0; i < 2_000; i++) {
+            Vec2 pos = new Vec2(300 + rnd.nextDouble() * 1600, 300 + rnd.nextDouble() * 1600);
+            rt.addEnemy(new EnemyState(100_000 + i, pos, STATS, 1_000, EnemyType.BUMPER, 12.0));
+        }
+
+        long[] measured = measure(rt);
+        long perTick = measured[0] / MEASURED_TICKS, outputs = measured[1];
+
+        if (Benchmarks.enabled()) {
+            System.out.println("quiet tick: " + perTick + " B/tick, " + rt.enemyCount() + " enemies");
+        }
+        assertEquals("Nothing should be in range", 0, outputs);
+        assertTrue("Quiet tick allocated " + perTick + " B (budget " + QUIET_BUDGET_BYTES + ")",
+                perTick <= QUIET_BUDGET_BYTES);
+    }
+
+    /**
+     * Test: tick() - four players fighting a crowd that never dies
+     * Coverage: AOE / CONE / ORBIT attacks, enemy contact and swipes, hit resolution, visible snapshots
+     * Strategy: Budget = quiet budget per player + a fixed cost per event, enemy view and snapshot entry
+     * Why: Hits and per-enemy cooldowns used to allocate Hit records, lists and boxed map entries
+     */
+    @Test
+    public void testBusyTickOnlyAllocatesItsOutput() {
+        MatchRuntime rt = new MatchRuntime(2L, 10, 12, 14);
+        AttackStyle[] styles = { AttackStyle.AOE, AttackStyle.CONE, AttackStyle.ORBIT, AttackStyle.AOE };
+        for (int i = 0; i < styles.length; i++) {
+            rt.addPlayer(new PlayerState(i + 1, new Vec2(950 + 30 * i, 1000), STATS, styles[i], Integer.MAX_VALUE));
+        }
+        rt.start();
+        SplittableRandom rnd = new SplittableRandom(4);
+        for (int i = 0; i < 300; i++) {
+            Vec2 pos = new Vec2(800 + rnd.nextDouble() * 400, 800 + rnd.nextDouble() * 400);
+            EnemyType type = (i % 4 == 0) ? EnemyType.SWIPER : EnemyType.BUMPER;
+            rt.addEnemy(new EnemyState(100_000 + i, pos, STATS, Integer.MAX_VALUE, type, 12.0));
+        }
+
+        long[] measured = measure(rt);
+        long perTick = measured[0] / MEASURED_TICKS, outputPerTick = measured[1] / MEASURED_TICKS;
+        long budget = styles.length * QUIET_BUDGET_BYTES + outputPerTick;
+        if (Benchmarks.enabled()) {
+            System.out.println("busy tick: " + perTick + " B/tick, output allowance " + outputPerTick + " B (budget " + budget + ")");
+        }
+        assertTrue("Fight should produce output", outputPerTick > 0);
+        assertFalse("Nobody should die", rt.isEnded());
+        assertTrue("Busy tick allocated " + perTick + " B (budget " + budget + ")", perTick <= budget);
+    }
+
+    /** Warm up, then {bytes allocated inside tick() over MEASURED_TICKS, output bytes allowed for them}. */
+    private long[] measure(MatchRuntime rt) {
+        for (int i = 0; i < WARMUP_TICKS; i++) rt.tick();
+        long thread = Thread.currentThread().getId(), allocated = 0, outputs = 0;
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            MatchDelta delta = rt.tick();
+            allocated += threads.getThreadAllocatedBytes(thread) - before;
+            outputs += outputBytes(delta);   // counted outside the measured window
+        }
+        return new long[] { allocated, outputs };
+    }
+
+    /** Bytes the budget allows for this tick's output (0 when nothing but the players' own views went out). */
+    private static long outputBytes(MatchDelta delta) {
+        long bytes = PER_EVENT_BYTES * (delta.events().damages().size() + delta.events().deaths().size());
+        java.util.Set<Integer> views = new java.util.HashSet<>();
+        int players = delta.snapshots().size();
+        for (var snap : delta.snapshots().values()) {
+            bytes += PER_ENTRY_BYTES * (snap.entities().size() - players);
+            for (var e : snap.entities()) if ("enemy".equals(e.type())) views.add(e.id());
+        }
+        return bytes + PER_VIEW_BYTES * views.size();
+    }
+}
@@ -0,0 +1,93 @@
+package survivor.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.config.FogConfig;
+import survivor.match.MatchResultOutbox;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+import survivor.ws.FrameSerializer;
+import survivor.ws.GameWs;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TickService match end handling.
+ *
+ * Coverage Goals:
+ * - tickShard() / dispatch() - the delta that ends a match is still dispatched
+ * - handleMatchEnd() - a natural end submits results and broadcasts MATCH_ENDED exactly once
+ *
+ * Strategy: Real registry and runtime ticked on the test thread; GameWs and MatchResultOutbox mocked
+ */
+public class TickServiceEndTest {
+
+    private static final long MATCH = 1;
+
+    private MatchRuntimeRegistry registry;
+    private GameWs ws;
+    private MatchResultOutbox outbox;
+    private TickService service;
+
+    @Before
+    public void setUp() {
+        registry = new MatchRuntimeRegistry(1, 20, 3);
+        FogConfig fog = new FogConfig();
+        fog.setLight(10);
+        fog.setWake(12);
+        fog.setSleep(14);
+        registry.createRuntime(MATCH, fog);
+
+        ws = mock(GameWs.class);
+        outbox = mock(MatchResultOutbox.class);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        service = new TickService(registry, ws, outbox, new TickMetrics(meters),
+                new FrameSerializer(new ObjectMapper(), meters));
+        service.startShards();
+    }
+
+    @After
+    public void tearDown() {
+        service.stopShards();
+    }
+
+    /**
+     * Test: All players dead -> results submitted
+     * Coverage: MatchRuntime.step() sets ended before dispatch, handleMatchEnd() still runs
+     * Why: The end guard used to key off isEnded(), so a natural end never reached submit()
+     */
+    @Test
+    public void testNaturalEndReachesSubmit() throws Exception {
+        MatchRuntime rt = registry.get(MATCH).orElseThrow();
+        Stats stats = new Stats(100, 50, 30, 20, 5, 10);
+        PlayerState player = new PlayerState(7, new Vec2(100.0, 100.0), stats, AttackStyle.AOE, stats.health());
+        rt.addPlayer(player);
+        rt.start();
+        player.applyDamage(1000);
+
+        for (int i = 0; i < 50 && registry.get(MATCH).isPresent(); i++) {
+            Thread.sleep(20);
+            service.tickShard(0);
+        }
+
+        assertTrue("runtime should be ended", rt.isEnded());
+        assertTrue("runtime should be removed from the registry", registry.get(MATCH).isEmpty());
+        verify(outbox).submit(argThat(e -> e.matchId() == MATCH && e.results().size() == 1));
+        verify(ws).game(eq(MATCH), argThat(p -> p instanceof Map<?, ?> m && "MATCH_ENDED".equals(m.get("event"))));
+
+        // a later end (e.g. a manual stop racing the tick) doesn't submit again
+        assertFalse(rt.claimEnd());
+        service.tickShard(0);
+        verify(outbox, times(1)).submit(any());
+    }
+}
@@ -0,0 +1,168 @@
+package survivor.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import survivor.Benchmarks;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.model.EnemyState;
+import survivor.model.EnemyType;
+import survivor.model.PlayerState;
+import survivor.shared.AttackStyle;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.*;
+
+/**
+ * Wire size and CPU benchmark: /ws game frames with permessage-deflate on and off.
+ *
+ * Coverage Goals:
+ * - Bytes on the wire per tick for a 4-player match at the wave cap (250 enemies), compressed vs not
+ * - CPU per tick spent compressing, per player stream
+ *
+ * Strategy: Every tick each player's frame is built as TickService sends it (JSON keyframes for a client
+ *           that never acks, JSON deltas and binary deltas for one that acks every tick), wrapped in a
+ *           STOMP MESSAGE header, and deflated the way permessage-deflate does it (raw deflate, one
+ *           compressor per session with context takeover, sync flush, trailing 00 00 ff ff dropped)
+ * Why: Compression ratios are checked on every run; deflate CPU per tick is an opt-in benchmark (-Pbenchmarks)
+ */
+public class WsCompressionBenchmarkTest {
+
+    private static final Stats STATS = new Stats(100, 50, 30, 20, 5, 10);
+    private static final int PLAYERS = 4, ENEMIES = 250;
+
+    /** One session's stream of frames: bytes before / after deflate, and CPU spent deflating. */
+    private static final class Stream {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        byte[] out = new byte[64 * 1024];
+        long raw, wire, cpuNanos;
+
+        void send(byte[] frame, boolean measured, ThreadMXBean cpu) {
+            long t = cpu.getCurrentThreadCpuTime();
+            int n = deflate(frame);
+            long spent = cpu.getCurrentThreadCpuTime() - t;
+            if (measured) {
+                raw += frame.length;
+                wire += n;
+                cpuNanos += spent;
+            }
+        }
+
+        private int deflate(byte[] frame) {
+            deflater.setInput(frame);
+            int len = 0;
+            while (true) {
+                len += deflater.deflate(out, len, out.length - len, Deflater.SYNC_FLUSH);
+                if (len < out.length) break;
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            return len - 4;   // the empty stored block's 00 00 ff ff is implied on the wire
+        }
+    }
+
+    /** The three per-player stream sets after a run. */
+    private record Run(int enemies, int measuredTicks, Stream[] jsonKey, Stream[] jsonDelta, Stream[] binDelta) {}
+
+    @Test
+    public void testDeflateShrinksJsonFrames() throws Exception {
+        Run r = run(50, 100);
+        assertTrue("Deflate should at least halve JSON keyframes", wire(r.jsonKey()) * 2 <= raw(r.jsonKey()));
+        assertTrue("Deflate should shrink JSON deltas", wire(r.jsonDelta()) < raw(r.jsonDelta()));
+    }
+
+    @Test
+    public void benchmarkDeflate() throws Exception {
+        Benchmarks.assumeEnabled();
+
+        Run r = run(300, 500);
+        System.out.printf("ws frames, %d players / %d enemies, per tick (all players):%n", PLAYERS, r.enemies());
+        report("json keyframes", r.jsonKey(), r.measuredTicks());
+        report("json deltas", r.jsonDelta(), r.measuredTicks());
+        report("binary deltas", r.binDelta(), r.measuredTicks());
+    }
+
+    // -------- helpers --------
+
+    private static Run run(int warmupTicks, int measuredTicks) throws Exception {
+        ThreadMXBean cpu = ManagementFactory.getThreadMXBean();
+        MatchRuntime rt = new MatchRuntime(1L, 10, 12, 14);
+        for (int i = 0; i < PLAYERS; i++) {
+            rt.addPlayer(new PlayerState(i + 1, new Vec2(950 + 30 * i, 1000), STATS, AttackStyle.AOE, Integer.MAX_VALUE));
+        }
+        rt.start();
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int i = 0; i < ENEMIES; i++) {
+            Vec2 pos = new Vec2(800 + rnd.nextDouble() * 400, 800 + rnd.nextDouble() * 400);
+            EnemyType type = (i % 4 == 0) ? EnemyType.SWIPER : EnemyType.BUMPER;
+            rt.addEnemy(new EnemyState(100_000 + i, pos, STATS, Integer.MAX_VALUE, type, 12.0));
+        }
+
+        ObjectMapper json = new ObjectMapper();
+        SnapshotCodec codec = new SnapshotCodec();
+        DeltaEncoder keyframes = new DeltaEncoder(), deltas = new DeltaEncoder();
+        Stream[] jsonKey = streams(), jsonDelta = streams(), binDelta = streams();
+
+        for (int i = 0; i < warmupTicks + measuredTicks; i++) {
+            MatchDelta delta = rt.tick();
+            boolean measured = i >= warmupTicks;
+            for (int p = 0; p < PLAYERS; p++) {
+                int id = p + 1;
+                var view = TickService.playerView(delta.snapshots().get(id));
+
+                var k = keyframes.encode(id, delta.tick(), 0, view.get("players"), view.get("enemies"));
+                jsonKey[p].send(stomp(id, json.writeValueAsBytes(TickService.snapshotJson(rt, k)), false), measured, cpu);
+
+                var d = deltas.encode(id, delta.tick(), delta.tick() - 1, view.get("players"), view.get("enemies"));
+                jsonDelta[p].send(stomp(id, json.writeValueAsBytes(TickService.snapshotJson(rt, d)), false), measured, cpu);
+                binDelta[p].send(stomp(id, codec.begin().snapshot(d, rt.getCurrentWorldLevel()).finish(), true), measured, cpu);
+            }
+        }
+        assertFalse("Nobody should die", rt.isEnded());
+        return new Run(rt.enemyCount(), measuredTicks, jsonKey, jsonDelta, binDelta);
+    }
+
+    private static Stream[] streams() {
+        Stream[] s = new Stream[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) s[i] = new Stream();
+        return s;
+    }
+
+    /** The STOMP MESSAGE frame a client receives for a per-user game frame (x-frame already stripped). */
+    private static byte[] stomp(int accountId, byte[] body, boolean binary) {
+        String head = "MESSAGE\ndestination:/user/queue/match.1.game" + (binary ? ".bin" : "")
+                + "\ncontent-type:" + (binary ? "application/octet-stream" : "application/json")
+                + "\nsubscription:sub-0\nmessage-id:" + accountId + "-" + System.nanoTime()
+                + "\ncontent-length:" + body.length + "\n\n";
+        byte[] h = head.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[h.length + body.length + 1];
+        System.arraycopy(h, 0, frame, 0, h.length);
+        System.arraycopy(body, 0, frame, h.length, body.length);
+        return frame;
+    }
+
+    private static long raw(Stream[] s) {
+        long n = 0;
+        for (Stream x : s) n += x.raw;
+        return n;
+    }
+
+    private static long wire(Stream[] s) {
+        long n = 0;
+        for (Stream x : s) n += x.wire;
+        return n;
+    }
+
+    private static void report(String name, Stream[] s, int ticks) {
+        long cpuNanos = 0;
+        for (Stream x : s) cpuNanos += x.cpuNanos;
+        long raw = raw(s) / ticks, wire = wire(s) / ticks;
+        System.out.printf("  %-15s off %7d B | on %7d B (%.1fx) | deflate cpu %d us%n",
+                name, raw, wire, raw / (double) Math.max(1, wire), cpuNanos / ticks / 1000);
+    }
+}
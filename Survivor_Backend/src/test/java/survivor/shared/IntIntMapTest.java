@@ -0,0 +1,61 @@
+package survivor.shared;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for IntIntMap.
+ *
+ * Coverage Goals:
+ * - put() / get() / remove() - including growth and backward-shift deletion
+ * - Reserved key handling
+ *
+ * Strategy: Differential testing against java.util.HashMap with random operations
+ */
+public class IntIntMapTest {
+
+    /**
+     * Test: random put/remove/get sequence matches HashMap
+     * Coverage: IntIntMap.put(), get(), remove(), grow()
+     * Strategy: Differential, small key range so probe runs collide and wrap
+     * Why: A broken backward shift would silently lose enemies from the index
+     */
+    @Test
+    public void testMatchesHashMap() {
+        IntIntMap map = new IntIntMap(4);
+        Map<Integer, Integer> ref = new HashMap<>();
+        SplittableRandom rnd = new SplittableRandom(11);
+
+        for (int op = 0; op < 200_000; op++) {
+            int key = rnd.nextInt(-500, 2_000);
+            switch (rnd.nextInt(3)) {
+                case 0 -> { int v = rnd.nextInt(); map.put(key, v); ref.put(key, v); }
+                case 1 -> {
+                    Integer old = ref.remove(key);
+                    assertEquals(old == null ? -1 : (int) old, map.remove(key, -1));
+                }
+                default -> assertEquals((int) ref.getOrDefault(key, -1), map.get(key, -1));
+            }
+            assertEquals(ref.size(), map.size());
+        }
+        for (var e : ref.entrySet()) assertEquals((int) e.getValue(), map.get(e.getKey(), -1));
+    }
+
+    /**
+     * Test: reserved key
+     * Coverage: IntIntMap.put() / get() - Integer.MIN_VALUE guard
+     * Strategy: Boundary value
+     */
+    @Test
+    public void testReservedKey() {
+        IntIntMap map = new IntIntMap();
+        assertEquals(-1, map.get(Integer.MIN_VALUE, -1));
+        assertFalse(map.containsKey(Integer.MIN_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> map.put(Integer.MIN_VALUE, 1));
+    }
+}
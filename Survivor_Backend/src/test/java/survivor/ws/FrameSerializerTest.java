@@ -0,0 +1,64 @@
+package survivor.ws;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import survivor.runtime.CombatResolve.DamageEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FrameSerializer.
+ *
+ * Coverage Goals:
+ * - json() - payload to bytes, counted
+ * - raw() - a shared section serialized once and embedded verbatim in several frames
+ *
+ * Strategy: Compare against plain Jackson output of the same payload
+ */
+public class FrameSerializerTest {
+
+    private ObjectMapper mapper;
+    private SimpleMeterRegistry meters;
+    private FrameSerializer serializer;
+
+    @Before
+    public void setUp() {
+        mapper = new ObjectMapper();
+        meters = new SimpleMeterRegistry();
+        serializer = new FrameSerializer(mapper, meters);
+    }
+
+    private double serialized() {
+        return meters.get("game.frames.serialized").counter().count();
+    }
+
+    @Test
+    public void testRawSectionMatchesInlineSerialization() throws Exception {
+        var damages = List.of(new DamageEvent(1001, "enemy", 15));
+        var shared = serializer.raw(damages);
+
+        for (int player = 1; player <= 4; player++) {
+            Map<String, Object> inline = new LinkedHashMap<>();
+            inline.put("event", "FRAME");
+            inline.put("damages", damages);
+            Map<String, Object> spliced = new LinkedHashMap<>(inline);
+            spliced.put("damages", shared);
+
+            assertEquals(mapper.writeValueAsString(inline),
+                    new String(serializer.json(spliced), StandardCharsets.UTF_8));
+        }
+        assertEquals("One shared section plus one frame per player", 5.0, serialized(), 0.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnserializablePayload() {
+        serializer.json(new Object());
+    }
+}
@@ -0,0 +1,250 @@
+package survivor.ws;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import survivor.Benchmarks;
+import survivor.accounts.AccountTokens;
+import survivor.combat.Stats;
+import survivor.combat.Vec2;
+import survivor.config.FogConfig;
+import survivor.model.PlayerState;
+import survivor.runtime.InputMailbox;
+import survivor.runtime.LatencyHistogram;
+import survivor.runtime.MatchRuntime;
+import survivor.runtime.MatchRuntimeRegistry;
+import survivor.runtime.SnapshotCodec;
+import survivor.shared.AttackStyle;
+import survivor.ws.dto.InputMsg;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * End-to-end latency and CPU benchmark: raw /ws/game channel vs STOMP for in-match traffic.
+ *
+ * Coverage Goals:
+ * - Snapshot path: GameWs.toPlayerBinary() -> client, over the raw channel and over the .game.bin queue
+ * - Input path: client -> InputMailbox, as a raw INPUT frame and as a STOMP /app/match.input message
+ *
+ * Strategy: Real server on a random port with one unstarted match (so no tick drains the mailbox),
+ *           player 1 on the raw channel, player 2 on STOMP. Messages go one at a time (send, wait for it
+ *           to arrive) so latency is unloaded; process CPU per message is measured over the whole loop
+ *           and includes the in-JVM clients
+ * Why: Opt-in (-Pbenchmarks): it starts a full server and makes 2,500 round trips per path, and its numbers
+ *      are only meaningful on a quiet machine. Delivery of every message is still asserted
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test"})
+public class GameChannelBenchmarkTest {
+
+    private static final long MATCH = 424242L;
+    private static final int RAW_PLAYER = 1, STOMP_PLAYER = 2;
+    private static final int WARMUP = 500, MEASURED = 2_000;
+    private static final int FRAME_BYTES = 1_500;   // about a binary delta at the wave cap
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MatchRuntimeRegistry registry;
+
+    @Autowired
+    private GameWs ws;
+
+    @Autowired
+    private AccountTokens tokens;
+
+    private MatchRuntime rt;
+    private WebSocketSession raw;
+    private StompSession stomp;
+    private WebSocketStompClient stompClient;
+
+    private final LatencyHistogram rawDown = new LatencyHistogram(), stompDown = new LatencyHistogram();
+    private final AtomicInteger rawReceived = new AtomicInteger(), stompReceived = new AtomicInteger();
+
+    @BeforeClass
+    public static void onlyWhenBenchmarking() {
+        Benchmarks.assumeEnabled();   // before the Spring context (and server) starts
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        FogConfig fog = new FogConfig();
+        fog.setLight(10);
+        fog.setWake(12);
+        fog.setSleep(14);
+        registry.createRuntime(MATCH, fog);
+        rt = registry.get(MATCH).orElseThrow();
+        Stats stats = new Stats(100, 50, 30, 20, 5, 10);
+        registry.addPlayer(MATCH, new PlayerState(RAW_PLAYER, new Vec2(100, 100), stats, AttackStyle.AOE, 100));
+        registry.addPlayer(MATCH, new PlayerState(STOMP_PLAYER, new Vec2(200, 100), stats, AttackStyle.AOE, 100));
+
+        raw = new StandardWebSocketClient().execute(new BinaryWebSocketHandler() {
+            @Override
+            protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+                rawDown.record(System.nanoTime() - message.getPayload().getLong(1));
+                rawReceived.incrementAndGet();
+            }
+        }, "ws://localhost:" + port + "/ws/game?matchId=" + MATCH + "&token=" + tokens.issue(RAW_PLAYER)).get(5, TimeUnit.SECONDS);
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new CompositeMessageConverter(
+                List.of(new ByteArrayMessageConverter(), new MappingJackson2MessageConverter())));
+        StompHeaders connect = new StompHeaders();
+        connect.add(AccountPrincipalInterceptor.TOKEN_HEADER, tokens.issue(STOMP_PLAYER));
+        stomp = stompClient.connectAsync("ws://localhost:" + port + "/ws", new WebSocketHttpHeaders(), connect,
+                new StompSessionHandlerAdapter() {}).get(5, TimeUnit.SECONDS);
+        stomp.subscribe("/user/queue/match." + MATCH + ".game.bin", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                stompDown.record(System.nanoTime() - ByteBuffer.wrap((byte[]) payload).getLong(1));
+                stompReceived.incrementAndGet();
+            }
+        });
+
+        awaitTrue(() -> ws.wantsBinary(MATCH, RAW_PLAYER) && ws.wantsBinary(MATCH, STOMP_PLAYER));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (raw != null) raw.close();
+        if (stomp != null) stomp.disconnect();
+        if (stompClient != null) stompClient.stop();
+        registry.end(MATCH);
+    }
+
+    @Test
+    public void benchmarkRawChannelVsStomp() throws Exception {
+        byte[] frame = new byte[FRAME_BYTES];
+        frame[0] = (byte) SnapshotCodec.VERSION;   // bytes 1..8 carry the send time
+
+        double rawDownCpu = measure(i -> {
+            ByteBuffer.wrap(frame).putLong(1, System.nanoTime());
+            ws.toPlayerBinary(MATCH, RAW_PLAYER, frame.clone(), false);
+            awaitCount(rawReceived, i + 1);
+        }, rawDown);
+        double stompDownCpu = measure(i -> {
+            ByteBuffer.wrap(frame).putLong(1, System.nanoTime());
+            ws.toPlayerBinary(MATCH, STOMP_PLAYER, frame.clone(), false);
+            awaitCount(stompReceived, i + 1);
+        }, stompDown);
+
+        LatencyHistogram rawUp = new LatencyHistogram(), stompUp = new LatencyHistogram();
+        double rawUpCpu = measure(i -> {
+            long t = System.nanoTime();
+            sendRawInput(i + 1);
+            awaitInput();
+            rawUp.record(System.nanoTime() - t);
+        }, rawUp);
+        double stompUpCpu = measure(i -> {
+            long t = System.nanoTime();
+            stomp.send("/app/match.input", new InputMsg(MATCH, STOMP_PLAYER, 0f, 0f, i + 1));
+            awaitInput();
+            stompUp.record(System.nanoTime() - t);
+        }, stompUp);
+
+        System.out.printf("game channel, %d messages each (unloaded):%n", MEASURED);
+        report("snapshot raw", rawDown, rawDownCpu);
+        report("snapshot stomp", stompDown, stompDownCpu);
+        report("input raw", rawUp, rawUpCpu);
+        report("input stomp", stompUp, stompUpCpu);
+
+        assertEquals(WARMUP + MEASURED, rawReceived.get());
+        assertEquals(WARMUP + MEASURED, stompReceived.get());
+        assertEquals(MEASURED, rawUp.count());
+        assertEquals(MEASURED, stompUp.count());
+    }
+
+    // -------- helpers --------
+
+    /** Run WARMUP + MEASURED iterations; returns process CPU ns per measured iteration. */
+    private double measure(IntConsumer iteration, LatencyHistogram latency) {
+        var os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        for (int i = 0; i < WARMUP; i++) iteration.accept(i);
+        latency.reset();
+        long cpu = os.getProcessCpuTime();
+        for (int i = WARMUP; i < WARMUP + MEASURED; i++) iteration.accept(i);
+        return (os.getProcessCpuTime() - cpu) / (double) MEASURED;
+    }
+
+    private void sendRawInput(long seq) {
+        ByteBuffer buf = ByteBuffer.allocate(16);
+        buf.put((byte) GameSocketHandler.KIND_INPUT);
+        while ((seq & ~0x7FL) != 0) {
+            buf.put((byte) ((seq & 0x7F) | 0x80));
+            seq >>>= 7;
+        }
+        buf.put((byte) seq).put((byte) 0).put((byte) 0).flip();
+        try {
+            raw.sendMessage(new BinaryMessage(buf));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Spin on the mailbox (the match is not started, so this test is its only consumer). */
+    private void awaitInput() {
+        List<InputMailbox.UpgradeApplied> applied = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (rt.inputs().drain(rt.getPlayers(), applied) == 0) {
+            if (System.nanoTime() > deadline) fail("input never arrived");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitCount(AtomicInteger count, int n) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count.get() < n) {
+            if (System.nanoTime() > deadline) fail("frame never arrived");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitTrue(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("subscriptions never registered");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void report(String name, LatencyHistogram h, double cpuNanos) {
+        System.out.printf("  %-15s p50 %5d us | p99 %5d us | max %6d us | cpu %5.1f us/msg%n", name,
+                h.valueAtPercentile(50) / 1000, h.valueAtPercentile(99) / 1000, h.max() / 1000, cpuNanos / 1000);
+    }
+}
@@ -0,0 +1,88 @@
+package survivor.ws;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import survivor.accounts.AccountTokens;
+import survivor.runtime.MatchRuntime;
+import survivor.runtime.MatchRuntimeRegistry;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GameSocketHandler connection setup.
+ *
+ * Coverage Goals:
+ * - afterConnectionEstablished() - opens a channel only for the account a valid token names
+ * - afterConnectionEstablished() - client-chosen accountId, forged token or non-player closed with 1008,
+ *   without touching the player's open channel
+ *
+ * Strategy: Mocked sessions carrying the connect URL; registry mocked to hold one player
+ */
+public class GameSocketHandlerTest {
+
+    private static final long MATCH = 42;
+    private static final int PLAYER = 7;
+
+    private final AccountTokens tokens = new AccountTokens("secret", 24);
+    private OutboundMailboxes mailboxes;
+    private GameSocketHandler handler;
+
+    @Before
+    public void setUp() {
+        MatchRuntimeRegistry runtimes = mock(MatchRuntimeRegistry.class);
+        when(runtimes.forPlayer(anyLong(), anyInt())).thenReturn(Optional.empty());
+        when(runtimes.forPlayer(MATCH, PLAYER)).thenReturn(Optional.of(mock(MatchRuntime.class)));
+        mailboxes = new OutboundMailboxes(3, 1 << 20, 60_000, 1, new SimpleMeterRegistry());
+        handler = new GameSocketHandler(runtimes, mailboxes, tokens);
+    }
+
+    @After
+    public void tearDown() {
+        mailboxes.shutdown();
+    }
+
+    @Test
+    public void testValidTokenOpensChannel() throws Exception {
+        WebSocketSession session = connect("matchId=" + MATCH + "&token=" + tokens.issue(PLAYER));
+        verify(session, never()).close(any());
+        assertTrue(handler.isOpen(MATCH, PLAYER));
+    }
+
+    @Test
+    public void testUnverifiedConnectionsCannotEvictThePlayer() throws Exception {
+        WebSocketSession player = connect("matchId=" + MATCH + "&token=" + tokens.issue(PLAYER));
+
+        WebSocketSession[] impostors = {
+                connect("matchId=" + MATCH + "&accountId=" + PLAYER),
+                connect("matchId=" + MATCH + "&token=" + new AccountTokens("other", 24).issue(PLAYER)),
+                connect("matchId=" + MATCH + "&token=" + tokens.issue(PLAYER + 1)),   // valid, but not in the match
+        };
+        for (WebSocketSession s : impostors) {
+            verify(s).close(argThat(c -> c.getCode() == CloseStatus.POLICY_VIOLATION.getCode()));
+        }
+
+        verify(player, never()).close(any());
+        assertTrue(handler.isOpen(MATCH, PLAYER));
+    }
+
+    // -------- helpers --------
+
+    private WebSocketSession connect(String query) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/ws/game?" + query));
+        when(session.getAttributes()).thenReturn(new HashMap<>());
+        when(session.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+}
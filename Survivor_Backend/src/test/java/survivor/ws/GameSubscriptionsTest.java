@@ -0,0 +1,59 @@
+package survivor.ws;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for GameSubscriptions.
+ *
+ * Coverage Goals:
+ * - subscribe() / unsubscribe() - binary frame queue counting per player, other destinations ignored
+ * - subscribe() - only sessions with an AccountPrincipal count
+ *
+ * Strategy: Drive the package-private hooks directly (the event listeners only unwrap headers)
+ */
+public class GameSubscriptionsTest {
+
+    private static final AccountPrincipal P7 = new AccountPrincipal(7);
+
+    private GameSubscriptions subs;
+
+    @Before
+    public void setUp() {
+        subs = new GameSubscriptions();
+    }
+
+    @Test
+    public void testOnlyBinaryQueueCounts() {
+        subs.subscribe("s1", "sub-0", "/user/queue/match.42.game", P7);
+        subs.subscribe("s1", "sub-1", "/topic/match.42.game", P7);
+        assertFalse(subs.wantsBinary(42, 7));
+
+        subs.subscribe("s1", "sub-2", "/user/queue/match.42.game.bin", P7);
+        assertTrue(subs.wantsBinary(42, 7));
+        assertFalse(subs.wantsBinary(43, 7));
+        assertFalse(subs.wantsBinary(42, 8));
+    }
+
+    @Test
+    public void testLastUnsubscribeClears() {
+        subs.subscribe("s1", "sub-0", "/user/queue/match.42.game.bin", P7);
+        subs.subscribe("s2", "sub-0", "/user/queue/match.42.game.bin", P7);
+        subs.subscribe("s2", "sub-0", "/user/queue/match.42.game.bin", P7);   // duplicate SUBSCRIBE frame
+
+        subs.unsubscribe("s1:sub-0");
+        assertTrue(subs.wantsBinary(42, 7));
+        subs.unsubscribe("s2:sub-0");
+        assertFalse(subs.wantsBinary(42, 7));
+        subs.unsubscribe("s2:sub-0");
+        assertFalse(subs.wantsBinary(42, 7));
+    }
+
+    @Test
+    public void testAnonymousSessionIgnored() {
+        subs.subscribe("s1", "sub-0", "/user/queue/match.42.game.bin", null);
+        assertFalse(subs.wantsBinary(42, 7));
+    }
+}
@@ -0,0 +1,173 @@
+package survivor.ws;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboundMailbox.
+ *
+ * Coverage Goals:
+ * - classify() / stripped() - x-frame header read from text and binary STOMP frames and removed, body untouched
+ * - sendMessage() - latest-wins replacement, KEEP frames delivered in order
+ * - sendMessage() - nothing goes out after a stale snapshot: any later message drops the pending LATEST frame
+ * - sendMessage() - slow consumer closed once the in-order backlog passes the limit
+ *
+ * Strategy: Mock the raw session and hold its first send on a latch, so later messages pile up in the mailbox
+ */
+public class OutboundMailboxTest {
+
+    private SimpleMeterRegistry meters;
+    private OutboundMailboxes mailboxes;
+    private WebSocketSession session;
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch firstSent = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        meters = new SimpleMeterRegistry();
+        mailboxes = new OutboundMailboxes(3, 1 << 20, 60_000, 1, meters);
+        session = mock(WebSocketSession.class);
+        doAnswer(inv -> {
+            WebSocketMessage<?> m = inv.getArgument(0);
+            if (sent.isEmpty()) {
+                firstSent.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            sent.add(body(m));
+            return null;
+        }).when(session).sendMessage(any());
+    }
+
+    @After
+    public void tearDown() {
+        mailboxes.shutdown();
+    }
+
+    @Test
+    public void testClassify() {
+        assertEquals(OutboundMailbox.Kind.LATEST, OutboundMailbox.classify(frame("latest", "a")));
+        assertEquals(OutboundMailbox.Kind.KEEP, OutboundMailbox.classify(frame("keep", "a")));
+        assertEquals(OutboundMailbox.Kind.OTHER, OutboundMailbox.classify(frame(null, "a")));
+        assertEquals(OutboundMailbox.Kind.OTHER, OutboundMailbox.classify(frame(null, "\nx-frame:latest\n")));
+
+        String stomp = "MESSAGE\ndestination:/user/queue/match.1.game.bin\nx-frame:latest\n\n\u0001\u0002\u0000";
+        var binary = new BinaryMessage(stomp.getBytes(StandardCharsets.ISO_8859_1));
+        assertEquals(OutboundMailbox.Kind.LATEST, OutboundMailbox.classify(binary));
+    }
+
+    @Test
+    public void testHeaderStripped() {
+        var text = (TextMessage) OutboundMailbox.stripped(frame("keep", "\nx-frame:latest\n"));
+        assertEquals("MESSAGE\ndestination:/user/queue/match.1.game\n\n\nx-frame:latest\n\u0000", text.getPayload());
+
+        String stomp = "MESSAGE\nx-frame:latest\ndestination:/user/queue/match.1.game.bin\n\n\u0001\u0002\u0000";
+        var binary = (BinaryMessage) OutboundMailbox.stripped(new BinaryMessage(stomp.getBytes(StandardCharsets.ISO_8859_1)));
+        assertEquals("MESSAGE\ndestination:/user/queue/match.1.game.bin\n\n\u0001\u0002\u0000",
+                new String(binary.getPayload().array(), StandardCharsets.ISO_8859_1));
+
+        var other = frame(null, "a");
+        assertSame(other, OutboundMailbox.stripped(other));
+    }
+
+    @Test
+    public void testLatestWins() throws Exception {
+        var mailbox = new OutboundMailbox(session, mailboxes);
+        mailbox.sendMessage(frame(null, "first"));
+        assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+
+        mailbox.sendMessage(frame("latest", "s1"));
+        mailbox.sendMessage(frame("latest", "s2"));
+        mailbox.sendMessage(frame("latest", "s3"));
+        release.countDown();
+
+        awaitSent(2);
+        assertEquals(List.of("first", "s3"), sent);
+        assertEquals(2.0, meters.counter("ws.outbound.replaced").count(), 0.0);
+    }
+
+    @Test
+    public void testKeepDropsPendingLatestAndStaysInOrder() throws Exception {
+        var mailbox = new OutboundMailbox(session, mailboxes);
+        mailbox.sendMessage(frame(null, "first"));
+        assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+
+        mailbox.sendMessage(frame("latest", "s1"));
+        mailbox.sendMessage(frame("keep", "death"));
+        mailbox.sendMessage(frame(null, "ended"));
+        mailbox.sendMessage(frame("latest", "s2"));
+        release.countDown();
+
+        awaitSent(4);
+        assertEquals(List.of("first", "death", "ended", "s2"), sent);
+    }
+
+    @Test
+    public void testNothingSentAfterStaleSnapshot() throws Exception {
+        var mailbox = new OutboundMailbox(session, mailboxes);
+        mailbox.sendMessage(frame(null, "first"));
+        assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+
+        mailbox.sendMessage(frame("latest", "s1"));
+        mailbox.sendMessage(frame(null, "MATCH_ENDED"));
+        release.countDown();
+
+        awaitSent(2);
+        assertEquals(List.of("first", "MATCH_ENDED"), sent);
+        verify(session, never()).sendMessage(argThat(m -> ((TextMessage) m).getPayload().contains("x-frame")));
+    }
+
+    @Test
+    public void testSlowConsumerClosed() throws Exception {
+        var mailbox = new OutboundMailbox(session, mailboxes);
+        mailbox.sendMessage(frame(null, "first"));
+        assertTrue(firstSent.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 4; i++) mailbox.sendMessage(frame(null, "m" + i));
+
+        verify(session).close(any(CloseStatus.class));
+        assertEquals(1.0, meters.counter("ws.outbound.slow.closed").count(), 0.0);
+
+        mailbox.sendMessage(frame(null, "after"));   // dropped once closing
+        release.countDown();
+        Thread.sleep(50);
+        assertEquals(List.of("first"), sent);
+    }
+
+    // -------- helpers --------
+
+    private static TextMessage frame(String kind, String body) {
+        String headers = "MESSAGE\ndestination:/user/queue/match.1.game\n"
+                + (kind == null ? "" : OutboundMailbox.FRAME_HEADER + ":" + kind + "\n");
+        return new TextMessage(headers + "\n" + body + "\u0000");
+    }
+
+    private static String body(WebSocketMessage<?> m) {
+        String text = ((TextMessage) m).getPayload();
+        return text.substring(text.indexOf("\n\n") + 2, text.length() - 1);
+    }
+
+    private void awaitSent(int n) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sent.size() < n && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        Thread.sleep(20);
+    }
+}
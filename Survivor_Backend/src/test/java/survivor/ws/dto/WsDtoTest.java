@@ -71,6 +71,14 @@ public class WsDtoTest {
         assertEquals("DAMAGE_UP", dto.selectedUpgrade());
     }
 
+    @Test
+    public void testAckMsg() {
+        AckMsg msg = new AckMsg(1L, 100, 42L);
+        assertEquals(1L, msg.matchId());
+        assertEquals(100, msg.accountId());
+        assertEquals(42L, msg.tick());
+    }
+
     @Test
     public void testInputMsg() {
         InputMsg msg = new InputMsg(1L, 100, 0.5f, 0.3f, 123L);